@@ -0,0 +1,184 @@
+package com.EngCode.Cadastro_de_Usuario.business;
+
+import com.EngCode.Cadastro_de_Usuario.BancoDeTeste;
+import com.EngCode.Cadastro_de_Usuario.CadastroDeUsuarioApplication;
+import com.EngCode.Cadastro_de_Usuario.business.converter.UsuarioConverter;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Endereco;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Telefone;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.EnderecoLeitura;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.EnderecoRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.TelefoneLeitura;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.TelefoneRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioLeitura;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// BLOCÃO 1: ALOCAÇÃO POR PÁGINA DA EXPORTAÇÃO (ENTITIES x PROJEÇÕES)
+// -------------------------------------------------------------------------
+// Lê uma página de 500 usuários (3 endereços e 2 telefones cada) em uma transação somente leitura e a converte
+// em UsuarioDTO, de duas formas, sobre um PostgreSQL embutido:
+// - entidades: o caminho antigo da exportação. Entities Usuario gerenciadas (com as cópias do dirty checking)
+//   e as coleções inicializadas por "left join fetch", uma consulta para cada, convertidas pelo UsuarioConverter.
+// - projecoes: o caminho atual (ExportacaoUsuarioService). As consultas preenchem UsuarioLeitura, EnderecoLeitura
+//   e TelefoneLeitura, e nada entra no contexto de persistência.
+// As duas fazem 3 consultas e devolvem os mesmos DTOs: a diferença é o trabalho do Hibernate sobre as linhas.
+// O número que interessa é gc.alloc.rate.norm (bytes alocados por página), do profiler de GC do JMH:
+// ./gradlew jmh -Pjmh.incluir=LeituraPorProjecaoBenchmark -Pjmh.argumentos="-prof gc"
+// (com um usuário comum: o PostgreSQL não roda como root)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LeituraPorProjecaoBenchmark {
+
+    private static final int TAMANHO_PAGINA = 500;
+    private static final String PREFIXO_EMAIL = "leitura-projecao-";
+
+    private ConfigurableApplicationContext contexto;
+    private UsuarioRepository usuarioRepository;
+    private EnderecoRepository enderecoRepository;
+    private TelefoneRepository telefoneRepository;
+    private UsuarioConverter usuarioConverter;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transacaoLeitura;
+    // A página lida é sempre a dos usuários cadastrados pelo benchmark: os ids logo depois deste.
+    private long aposId;
+
+    @Setup
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(CadastroDeUsuarioApplication.class).run(
+                "--spring.datasource.url=" + BancoDeTeste.url(0),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--server.port=0",
+                "--outbox.publicador.habilitado=false",
+                "--expurgo.habilitado=false",
+                "--seguranca.hash.calibrar=false",
+                "--logging.level.root=WARN");
+        usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        enderecoRepository = contexto.getBean(EnderecoRepository.class);
+        telefoneRepository = contexto.getBean(TelefoneRepository.class);
+        usuarioConverter = contexto.getBean(UsuarioConverter.class);
+        entityManagerFactory = contexto.getBean(EntityManagerFactory.class);
+        PlatformTransactionManager transactionManager = contexto.getBean(PlatformTransactionManager.class);
+        transacaoLeitura = new TransactionTemplate(transactionManager);
+        transacaoLeitura.setReadOnly(true);
+        aposId = cadastrarPagina(new TransactionTemplate(transactionManager));
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    // Cadastra a página uma única vez (o banco embutido é reaproveitado entre execuções) e devolve o id anterior a ela.
+    private long cadastrarPagina(TransactionTemplate transacao) {
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        Long primeiro = jdbcTemplate.queryForObject("select min(id) from usuario where email like ?", Long.class,
+                PREFIXO_EMAIL + "%");
+        if (primeiro == null) {
+            List<Usuario> usuarios = new ArrayList<>(TAMANHO_PAGINA);
+            for (int i = 0; i < TAMANHO_PAGINA; i++) {
+                usuarios.add(novoUsuario(i));
+            }
+            transacao.executeWithoutResult(status -> usuarioRepository.saveAll(usuarios));
+            primeiro = usuarios.get(0).getId();
+        }
+        return primeiro - 1;
+    }
+
+    // BLOCÃO 2: OPERAÇÕES MEDIDAS
+    // -------------------------------------------------------------------------
+
+    @Benchmark
+    public List<UsuarioDTO> entidades() {
+        return transacaoLeitura.execute(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            List<Usuario> usuarios = entityManager
+                    .createQuery("select u from Usuario u where u.id > :ultimoId order by u.id", Usuario.class)
+                    .setParameter("ultimoId", aposId)
+                    .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                    .setMaxResults(TAMANHO_PAGINA)
+                    .getResultList();
+            // As duas coleções são List: cada uma em sua consulta (no mesmo JOIN, produto cartesiano).
+            entityManager.createQuery("select distinct u from Usuario u left join fetch u.enderecos where u in :usuarios",
+                            Usuario.class)
+                    .setParameter("usuarios", usuarios)
+                    .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                    .getResultList();
+            entityManager.createQuery("select distinct u from Usuario u left join fetch u.telefones where u in :usuarios",
+                            Usuario.class)
+                    .setParameter("usuarios", usuarios)
+                    .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                    .getResultList();
+            return usuarios.stream().map(usuarioConverter::paraUsuarioDTO).toList();
+        });
+    }
+
+    @Benchmark
+    public List<UsuarioDTO> projecoes() {
+        return transacaoLeitura.execute(status -> {
+            List<UsuarioLeitura> usuarios = usuarioRepository.buscarPaginaAposId(aposId, Limit.of(TAMANHO_PAGINA));
+            List<Long> ids = usuarios.stream().map(UsuarioLeitura::id).toList();
+            Map<Long, List<EnderecoLeitura>> enderecos = enderecoRepository.buscarLeituraPorUsuarios(ids).stream()
+                    .collect(Collectors.groupingBy(EnderecoLeitura::usuarioId));
+            Map<Long, List<TelefoneLeitura>> telefones = telefoneRepository.buscarLeituraPorUsuarios(ids).stream()
+                    .collect(Collectors.groupingBy(TelefoneLeitura::usuarioId));
+            return usuarios.stream()
+                    .map(usuario -> usuarioConverter.paraUsuarioDTO(usuario,
+                            enderecos.getOrDefault(usuario.id(), List.of()),
+                            telefones.getOrDefault(usuario.id(), List.of())))
+                    .toList();
+        });
+    }
+
+    private static Usuario novoUsuario(int numero) {
+        List<Endereco> enderecos = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            enderecos.add(Endereco.builder().rua("Rua " + i).numero((long) i).complemento("Apto " + i)
+                    .cidade("São Paulo").estado("SP").cep("01001000").build());
+        }
+        List<Telefone> telefones = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            telefones.add(Telefone.builder().numero("9999000" + i).ddd("11").build());
+        }
+        return Usuario.builder()
+                .nome("Usuário " + numero)
+                .email(PREFIXO_EMAIL + numero + "@exemplo.com")
+                .senha("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3Ln1ZvDz5z5V5nSx8YkMiGm")
+                .enderecos(enderecos)
+                .telefones(telefones)
+                .build();
+    }
+}
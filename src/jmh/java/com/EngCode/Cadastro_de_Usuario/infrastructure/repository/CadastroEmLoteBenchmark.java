@@ -0,0 +1,119 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+import com.EngCode.Cadastro_de_Usuario.BancoDeTeste;
+import com.EngCode.Cadastro_de_Usuario.CadastroDeUsuarioApplication;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Endereco;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Telefone;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// BLOCÃO 1: TAXA DE CADASTROS (USUÁRIO + ENDEREÇOS + TELEFONES), ANTES E DEPOIS DOS LOTES JDBC
+// -------------------------------------------------------------------------
+// Cada operação é uma transação com 'cadastrosPorTransacao' cadastros completos (1 usuário, 3 endereços e 2 telefones
+// cada), gravados pelo mesmo caminho da UsuarioService.salvaUsuario (save com cascade), em um PostgreSQL embutido.
+// - 1: um cadastro pelo POST /usuario (o commit pesa bastante; a diferença vem só das idas ao banco do flush).
+// - 20: vários cadastros na mesma transação, como na importação em lote. Score em transações/s (× 20 cadastros).
+// - individual: hibernate.jdbc.batch_size=1 e sem ordenação, ou seja, uma ida ao banco por linha (N+M+1 INSERTs
+//   mais os UPDATEs da chave estrangeira), como no mapeamento antigo com IDENTITY, que desligava os lotes.
+// - lote: a configuração atual (sequências com alocação em bloco, lotes de 50 ordenados, reWriteBatchedInserts).
+// O hashing da senha fica de fora (a senha já vai criptografada): o que se mede aqui é só a gravação.
+// Execução: ./gradlew jmh -Pjmh.incluir=CadastroEmLoteBenchmark (com um usuário comum: o PostgreSQL não roda como root)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CadastroEmLoteBenchmark {
+
+    @Param({"individual", "lote"})
+    public String modo;
+
+    @Param({"1", "20"})
+    public int cadastrosPorTransacao;
+
+    private final AtomicLong sequencial = new AtomicLong();
+    private ConfigurableApplicationContext contexto;
+    private UsuarioRepository usuarioRepository;
+    private TransactionTemplate transacao;
+
+    @Setup
+    public void iniciar() {
+        boolean emLote = "lote".equals(modo);
+        // Argumentos de linha de comando: têm precedência sobre o application.properties.
+        contexto = new SpringApplicationBuilder(CadastroDeUsuarioApplication.class).run(
+                "--spring.datasource.url=" + BancoDeTeste.url(0),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--server.port=0",
+                "--outbox.publicador.habilitado=false",
+                "--expurgo.habilitado=false",
+                "--seguranca.hash.calibrar=false",
+                "--logging.level.root=WARN",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + (emLote ? 50 : 1),
+                "--spring.jpa.properties.hibernate.order_inserts=" + emLote,
+                "--spring.jpa.properties.hibernate.order_updates=" + emLote);
+        usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    // BLOCÃO 2: OPERAÇÃO MEDIDA
+    // -------------------------------------------------------------------------
+
+    @Benchmark
+    public List<Usuario> cadastrar() {
+        List<Usuario> usuarios = new ArrayList<>(cadastrosPorTransacao);
+        for (int i = 0; i < cadastrosPorTransacao; i++) {
+            usuarios.add(novoUsuario(sequencial.incrementAndGet()));
+        }
+        return transacao.execute(status -> {
+            List<Usuario> gravados = usuarioRepository.saveAll(usuarios);
+            usuarioRepository.flush();
+            return gravados;
+        });
+    }
+
+    private static Usuario novoUsuario(long numero) {
+        List<Endereco> enderecos = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            enderecos.add(Endereco.builder().rua("Rua " + i).numero((long) i).cidade("São Paulo").estado("SP")
+                    .cep("01001000").build());
+        }
+        List<Telefone> telefones = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            telefones.add(Telefone.builder().numero("9999000" + i).ddd("11").build());
+        }
+        return Usuario.builder()
+                .nome("Usuário " + numero)
+                .email("benchmark-" + numero + "@exemplo.com")
+                .senha("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3Ln1ZvDz5z5V5nSx8YkMiGm")
+                .enderecos(enderecos)
+                .telefones(telefones)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// BLOCÃO 1: VAZÃO DE ASSINATURA E VERIFICAÇÃO DOS TOKENS, POR ALGORITMO
+// -------------------------------------------------------------------------
+// Compara o HS256 (segredo compartilhado, usado antes do chaveiro) com o ES256 (P-256) e o EdDSA (Ed25519).
+// O token tem as mesmas claims do JwtUtil (kid, jti, sub, tipo, iat, exp). A verificação chama o parser
+// diretamente, sem o cache de claims do JwtUtil (que só verifica cada token uma vez por nó).
+// Execução: ./gradlew jmh -Pjmh.incluir=AssinaturaJwtBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssinaturaJwtBenchmark {
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    public String algoritmo;
+
+    private Key chaveAssinatura;
+    private SecureDigestAlgorithm<Key, Key> algoritmoJws;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void preparar() throws Exception {
+        Key chaveVerificacao;
+        switch (algoritmo) {
+            case "HS256" -> {
+                chaveAssinatura = Jwts.SIG.HS256.key().build();
+                chaveVerificacao = chaveAssinatura;
+                algoritmoJws = (SecureDigestAlgorithm<Key, Key>) (Object) Jwts.SIG.HS256;
+            }
+            case "ES256" -> {
+                KeyPairGenerator gerador = KeyPairGenerator.getInstance("EC");
+                gerador.initialize(new ECGenParameterSpec("secp256r1"));
+                KeyPair par = gerador.generateKeyPair();
+                chaveAssinatura = par.getPrivate();
+                chaveVerificacao = par.getPublic();
+                algoritmoJws = (SecureDigestAlgorithm<Key, Key>) (Object) Jwts.SIG.ES256;
+            }
+            case "EdDSA" -> {
+                KeyPair par = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                chaveAssinatura = par.getPrivate();
+                chaveVerificacao = par.getPublic();
+                algoritmoJws = (SecureDigestAlgorithm<Key, Key>) (Object) Jwts.SIG.EdDSA;
+            }
+            default -> throw new IllegalArgumentException("Algoritmo desconhecido: " + algoritmo);
+        }
+        Key verificacao = chaveVerificacao;
+        parser = Jwts.parser()
+                .keyLocator(header -> verificacao)
+                .build();
+        token = assinar();
+    }
+
+    // BLOCÃO 2: OPERAÇÕES MEDIDAS
+    // -------------------------------------------------------------------------
+
+    @Benchmark
+    public String assinar() {
+        return Jwts.builder()
+                .header().keyId("benchmark").and()
+                .id(UUID.randomUUID().toString())
+                .subject("usuario@exemplo.com")
+                .claim(JwtUtil.CLAIM_TIPO, JwtUtil.TIPO_ACCESS)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(15)))
+                .signWith(chaveAssinatura, algoritmoJws)
+                .compact();
+    }
+
+    @Benchmark
+    public Object verificar() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,106 @@
+package com.EngCode.Cadastro_de_Usuario.business;
+
+import com.EngCode.Cadastro_de_Usuario.business.converter.UsuarioConverter;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Endereco;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.EventoOutbox;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Telefone;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.EventoOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// BLOCÃO 1: REGISTRO DOS EVENTOS DE ALTERAÇÃO (OUTBOX)
+// -------------------------------------------------------------------------
+@Component
+@RequiredArgsConstructor
+// Grava um evento na tabela evento_outbox para cada alteração de usuário, endereço ou telefone.
+// Os métodos exigem uma transação já aberta (Propagation.MANDATORY): o evento é gravado junto com a
+// alteração, ou nenhum dos dois é. A publicação acontece depois, em segundo plano (PublicadorOutbox).
+// O conteúdo é o estado do registro após a alteração, em JSON; a senha nunca faz parte dele.
+public class EventosUsuario {
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final UsuarioConverter usuarioConverter;
+    private final ObjectMapper objectMapper;
+
+    // BLOCÃO 2: EVENTOS
+    // -------------------------------------------------------------------------
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void usuarioCriado(Usuario usuario) {
+        registrar(usuario.getId(), TipoEventoUsuario.USUARIO_CRIADO, dadosDoUsuario(usuario));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void usuarioAtualizado(Usuario usuario) {
+        registrar(usuario.getId(), TipoEventoUsuario.USUARIO_ATUALIZADO, dadosDoUsuario(usuario));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void usuarioExcluido(Long idUsuario, String email) {
+        Map<String, Object> dados = new LinkedHashMap<>();
+        dados.put("id", idUsuario);
+        dados.put("email", email);
+        registrar(idUsuario, TipoEventoUsuario.USUARIO_EXCLUIDO, dados);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enderecoCriado(Endereco endereco) {
+        registrar(endereco.getUsuario_id(), TipoEventoUsuario.ENDERECO_CRIADO, usuarioConverter.paraEnderecoDTO(endereco));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enderecoAtualizado(Endereco endereco) {
+        registrar(endereco.getUsuario_id(), TipoEventoUsuario.ENDERECO_ATUALIZADO, usuarioConverter.paraEnderecoDTO(endereco));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void telefoneCriado(Telefone telefone) {
+        registrar(telefone.getUsuario_id(), TipoEventoUsuario.TELEFONE_CRIADO, usuarioConverter.paraTelefoneDTO(telefone));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void telefoneAtualizado(Telefone telefone) {
+        registrar(telefone.getUsuario_id(), TipoEventoUsuario.TELEFONE_ATUALIZADO, usuarioConverter.paraTelefoneDTO(telefone));
+    }
+
+    // BLOCÃO 3: GRAVAÇÃO
+    // -------------------------------------------------------------------------
+
+    // Apenas os dados cadastrais (endereços e telefones têm eventos próprios).
+    private static Map<String, Object> dadosDoUsuario(Usuario usuario) {
+        Map<String, Object> dados = new LinkedHashMap<>();
+        dados.put("id", usuario.getId());
+        dados.put("nome", usuario.getNome());
+        dados.put("email", usuario.getEmail());
+        dados.put("versao", usuario.getVersao());
+        return dados;
+    }
+
+    private void registrar(Long idUsuario, TipoEventoUsuario tipo, Object dados) {
+        Instant agora = Instant.now();
+        eventoOutboxRepository.save(EventoOutbox.builder()
+                .usuarioId(idUsuario)
+                .tipo(tipo.name())
+                .payload(paraJson(dados))
+                .criadoEm(agora)
+                .proximaTentativaEm(agora)
+                .build());
+    }
+
+    private String paraJson(Object dados) {
+        try {
+            return objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao gerar o JSON do evento.", e);
+        }
+    }
+}
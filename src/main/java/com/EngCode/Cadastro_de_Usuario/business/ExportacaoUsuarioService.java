@@ -0,0 +1,131 @@
+package com.EngCode.Cadastro_de_Usuario.business;
+
+// BLOCÃO 1: IMPORTAÇÕES
+// -------------------------------------------------------------------------
+import com.EngCode.Cadastro_de_Usuario.business.converter.UsuarioConverter;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.EnderecoLeitura;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.EnderecoRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.TelefoneLeitura;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.TelefoneRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioLeitura;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.sharding.RoteamentoShards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+// Exportação de todos os usuários, com endereços e telefones, em NDJSON (um usuário por linha).
+// - Paginação por chave (WHERE id > ultimoId ORDER BY id): cada página custa o mesmo, em qualquer ponto da tabela.
+// - Cada página é lida em uma transação curta, somente leitura, com 3 consultas (usuários, endereços, telefones),
+//   convertida, escrita na resposta e descartada: a memória usada não depende do tamanho da tabela.
+// - As consultas preenchem projeções (UsuarioLeitura, EnderecoLeitura, TelefoneLeitura) em vez de Entities:
+//   nada entra no contexto de persistência, sem cópias para dirty checking nem proxies de coleções,
+//   e a senha nem sai do banco.
+// - Cada linha traz o 'id'; se a conexão cair, o cliente retoma passando o último id recebido em 'ultimoId'.
+// - Com o sharding, cada página é lida de todos os shards em paralelo e intercalada por id
+//   (os ids são únicos entre os shards), mantendo a mesma ordem e a mesma retomada por 'ultimoId'.
+public class ExportacaoUsuarioService {
+
+    public static final String FORMATO_NDJSON = "application/x-ndjson";
+
+    private final UsuarioRepository usuarioRepository;
+    private final EnderecoRepository enderecoRepository;
+    private final TelefoneRepository telefoneRepository;
+    private final UsuarioConverter usuarioConverter;
+    private final RoteamentoShards roteamentoShards;
+    private final TransactionTemplate transacaoLeitura;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoPagina;
+
+    public ExportacaoUsuarioService(UsuarioRepository usuarioRepository,
+                                    EnderecoRepository enderecoRepository,
+                                    TelefoneRepository telefoneRepository,
+                                    UsuarioConverter usuarioConverter,
+                                    RoteamentoShards roteamentoShards,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${exportacao.tamanho-pagina:500}") int tamanhoPagina) {
+        this.usuarioRepository = usuarioRepository;
+        this.enderecoRepository = enderecoRepository;
+        this.telefoneRepository = telefoneRepository;
+        this.usuarioConverter = usuarioConverter;
+        this.roteamentoShards = roteamentoShards;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.tamanhoPagina = tamanhoPagina;
+    }
+
+    // BLOCÃO 2: EXPORTAÇÃO
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: exportar(long, OutputStream)
+     * FUNÇÃO: Escreve no fluxo de saída, em ordem de id, todos os usuários com id maior que 'ultimoId'.
+     * A resposta é enviada (flush) a cada página. Retorna a quantidade de usuários exportados.
+     */
+    public long exportar(long ultimoId, OutputStream saida) throws IOException {
+        long exportados = 0;
+        long cursor = ultimoId;
+        while (true) {
+            long aposId = cursor;
+            List<UsuarioDTO> pagina = lerPaginaDosShards(aposId);
+            if (pagina.isEmpty()) {
+                break;
+            }
+            for (UsuarioDTO usuarioDTO : pagina) {
+                // writeValueAsBytes: o ObjectMapper não deve fechar o fluxo da resposta.
+                saida.write(objectMapper.writeValueAsBytes(usuarioDTO));
+                saida.write('\n');
+            }
+            saida.flush();
+            exportados += pagina.size();
+            cursor = pagina.get(pagina.size() - 1).getId();
+        }
+        log.info("Exportação concluída: {} usuários após o id {}", exportados, ultimoId);
+        return exportados;
+    }
+
+    // Uma página de cada shard; as primeiras 'tamanhoPagina' por id formam a página (o restante é relido depois).
+    private List<UsuarioDTO> lerPaginaDosShards(long aposId) {
+        return roteamentoShards.emCadaShard(shard -> transacaoLeitura.execute(status -> lerPagina(aposId)))
+                .stream()
+                .flatMap(Collection::stream)
+                .sorted(Comparator.comparing(UsuarioDTO::getId))
+                .limit(tamanhoPagina)
+                .toList();
+    }
+
+    private List<UsuarioDTO> lerPagina(long aposId) {
+        List<UsuarioLeitura> usuarios = usuarioRepository.buscarPaginaAposId(aposId, Limit.of(tamanhoPagina));
+        if (usuarios.isEmpty()) {
+            return List.of();
+        }
+        // Endereços e telefones de toda a página, uma consulta para cada (sem N+1), agrupados por usuário.
+        List<Long> ids = usuarios.stream().map(UsuarioLeitura::id).toList();
+        Map<Long, List<EnderecoLeitura>> enderecos = enderecoRepository.buscarLeituraPorUsuarios(ids).stream()
+                .collect(Collectors.groupingBy(EnderecoLeitura::usuarioId));
+        Map<Long, List<TelefoneLeitura>> telefones = telefoneRepository.buscarLeituraPorUsuarios(ids).stream()
+                .collect(Collectors.groupingBy(TelefoneLeitura::usuarioId));
+        return usuarios.stream()
+                .map(usuario -> usuarioConverter.paraUsuarioDTO(usuario,
+                        enderecos.getOrDefault(usuario.id(), List.of()),
+                        telefones.getOrDefault(usuario.id(), List.of())))
+                .toList();
+    }
+}
@@ -0,0 +1,360 @@
+package com.EngCode.Cadastro_de_Usuario.business;
+
+// BLOCÃO 1: IMPORTAÇÕES
+// -------------------------------------------------------------------------
+import com.EngCode.Cadastro_de_Usuario.business.converter.UsuarioConverter;
+import com.EngCode.Cadastro_de_Usuario.business.dto.ErroImportacaoDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.ImportacaoResultadoDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.IllegalArgumentException;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.security.CalibradorHashSenha;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.sharding.RoteamentoShards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+// Importação em lote de usuários (POST /usuario/import), para listas de parceiros com milhões de linhas.
+// - O corpo (NDJSON ou CSV) é lido linha a linha, sem carregar o arquivo inteiro em memória.
+// - As linhas são agrupadas em lotes: uma consulta descobre os e-mails já cadastrados do lote,
+//   as senhas são criptografadas em paralelo (um pool próprio, do tamanho dos núcleos) e o lote
+//   é gravado em UMA transação, com INSERTs em lote JDBC.
+// - Se o lote falhar por conflito (ex: cadastro simultâneo pela API), ele é regravado linha a linha,
+//   para que só as linhas em conflito sejam rejeitadas.
+// - Com o sharding, o lote é dividido pelo shard do e-mail, com uma transação por shard.
+public class ImportacaoUsuarioService {
+
+    public static final String FORMATO_NDJSON = "application/x-ndjson";
+    public static final String FORMATO_CSV = "text/csv";
+
+    // Hashes já prontos (migração de outro sistema) usam o mesmo prefixo {id} do DelegatingPasswordEncoder.
+    private static final Pattern HASH_PRONTO = Pattern.compile("^\\{(bcrypt|scrypt|argon2)}.+");
+
+    // BLOCÃO 2: DEPENDÊNCIAS E CONFIGURAÇÃO
+    // -------------------------------------------------------------------------
+    private final UsuarioRepository usuarioRepository;
+    private final UsuarioConverter usuarioConverter;
+    private final EventosUsuario eventosUsuario;
+    private final RoteamentoShards roteamentoShards;
+    // Encoder calibrado "cru": roda nas threads do pool de importação, sem passar pela fila do login.
+    private final PasswordEncoder encoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService poolHash;
+    private final int tamanhoLote;
+    private final int maxErrosRelatados;
+    private final boolean aceitarHashPronto;
+
+    public ImportacaoUsuarioService(UsuarioRepository usuarioRepository,
+                                    UsuarioConverter usuarioConverter,
+                                    EventosUsuario eventosUsuario,
+                                    RoteamentoShards roteamentoShards,
+                                    CalibradorHashSenha calibradorHashSenha,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${importacao.tamanho-lote:1000}") int tamanhoLote,
+                                    @Value("${importacao.threads:0}") int threads,
+                                    @Value("${importacao.max-erros-relatados:1000}") int maxErrosRelatados,
+                                    @Value("${importacao.aceitar-hash-pronto:false}") boolean aceitarHashPronto) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarioConverter = usuarioConverter;
+        this.eventosUsuario = eventosUsuario;
+        this.roteamentoShards = roteamentoShards;
+        this.encoder = calibradorHashSenha.getEncoder();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.tamanhoLote = tamanhoLote;
+        this.maxErrosRelatados = maxErrosRelatados;
+        this.aceitarHashPronto = aceitarHashPronto;
+
+        // threads <= 0 significa "um por núcleo disponível".
+        int tamanhoPool = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.poolHash = Executors.newFixedThreadPool(tamanhoPool, runnable -> {
+            Thread thread = new Thread(runnable, "importacao-hash-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // BLOCÃO 3: LEITURA DO ARQUIVO
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: importar(InputStream, String)
+     * FUNÇÃO: Lê o corpo da requisição (NDJSON: um UsuarioDTO por linha; CSV: cabeçalho com
+     * nome,email,senha) e grava os usuários em lotes, devolvendo o relatório da importação.
+     */
+    public ImportacaoResultadoDTO importar(InputStream entrada, String formato) throws IOException {
+        boolean csv = FORMATO_CSV.equals(formato);
+        if (!csv && !FORMATO_NDJSON.equals(formato)) {
+            throw new IllegalArgumentException("Formato de importação não suportado: " + formato
+                    + " (use " + FORMATO_NDJSON + " ou " + FORMATO_CSV + ").");
+        }
+
+        Relatorio relatorio = new Relatorio();
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            long numeroLinha = 0;
+            int[] colunas = null;
+            if (csv) {
+                String cabecalho = leitor.readLine();
+                numeroLinha++;
+                colunas = lerCabecalhoCsv(cabecalho);
+            }
+
+            List<LinhaImportacao> lote = new ArrayList<>(tamanhoLote);
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                numeroLinha++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                relatorio.linhasLidas++;
+
+                UsuarioDTO usuarioDTO;
+                try {
+                    usuarioDTO = csv ? lerLinhaCsv(linha, colunas) : objectMapper.readValue(linha, UsuarioDTO.class);
+                } catch (Exception e) {
+                    relatorio.invalido(numeroLinha, null, "Linha malformada.");
+                    continue;
+                }
+                if (vazio(usuarioDTO.getEmail()) || vazio(usuarioDTO.getSenha())) {
+                    relatorio.invalido(numeroLinha, usuarioDTO.getEmail(), "E-mail e senha são obrigatórios.");
+                    continue;
+                }
+
+                lote.add(new LinhaImportacao(numeroLinha, usuarioDTO));
+                if (lote.size() == tamanhoLote) {
+                    processarLote(lote, relatorio);
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+            if (!lote.isEmpty()) {
+                processarLote(lote, relatorio);
+            }
+        }
+
+        log.info("Importação concluída: {} linhas, {} importados, {} conflitos, {} inválidos",
+                relatorio.linhasLidas, relatorio.importados, relatorio.conflitos, relatorio.invalidos);
+        return relatorio.paraDTO();
+    }
+
+    // BLOCÃO 4: PROCESSAMENTO DE UM LOTE
+    // -------------------------------------------------------------------------
+
+    private void processarLote(List<LinhaImportacao> lote, Relatorio relatorio) {
+        // Cada usuário é gravado no shard do seu e-mail (um único grupo com o sharding desligado).
+        roteamentoShards.agruparPorShard(lote, linha -> linha.usuarioDTO().getEmail())
+                .forEach((shard, linhas) -> roteamentoShards.noShard(shard, () -> {
+                    processarLoteDoShard(linhas, relatorio);
+                    return null;
+                }));
+    }
+
+    private void processarLoteDoShard(List<LinhaImportacao> lote, Relatorio relatorio) {
+        // 1. Conflitos: e-mails já cadastrados (uma consulta por lote) ou repetidos no próprio arquivo.
+        Set<String> existentes = new HashSet<>(usuarioRepository.buscarEmailsExistentes(
+                lote.stream().map(linha -> linha.usuarioDTO().getEmail()).toList()));
+        List<LinhaImportacao> novas = new ArrayList<>(lote.size());
+        for (LinhaImportacao linha : lote) {
+            String email = linha.usuarioDTO().getEmail();
+            if (existentes.add(email)) {
+                novas.add(linha);
+            } else {
+                relatorio.conflito(linha.numero(), email);
+            }
+        }
+        if (novas.isEmpty()) {
+            return;
+        }
+
+        // 2. Hash das senhas em paralelo no pool de importação.
+        CompletableFuture.allOf(novas.stream()
+                .map(linha -> CompletableFuture.runAsync(() -> criptografarSenha(linha.usuarioDTO()), poolHash))
+                .toArray(CompletableFuture[]::new)).join();
+
+        // 3. Gravação do lote inteiro em uma transação (com um evento USUARIO_CRIADO por usuário na outbox).
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                usuarioRepository.saveAll(novas.stream()
+                        .map(linha -> usuarioConverter.paraUsuario(linha.usuarioDTO())).toList())
+                        .forEach(eventosUsuario::usuarioCriado);
+                usuarioRepository.flush();
+            });
+            relatorio.importados += novas.size();
+        } catch (DataIntegrityViolationException e) {
+            // Alguma linha conflitou com um cadastro feito durante a importação: regrava uma a uma.
+            gravarLinhaALinha(novas, relatorio);
+        }
+    }
+
+    private void gravarLinhaALinha(List<LinhaImportacao> linhas, Relatorio relatorio) {
+        for (LinhaImportacao linha : linhas) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> eventosUsuario.usuarioCriado(
+                        usuarioRepository.saveAndFlush(usuarioConverter.paraUsuario(linha.usuarioDTO()))));
+                relatorio.importados++;
+            } catch (DataIntegrityViolationException e) {
+                if (UsuarioService.violouUnicidadeDoEmail(e)) {
+                    relatorio.conflito(linha.numero(), linha.usuarioDTO().getEmail());
+                } else {
+                    relatorio.invalido(linha.numero(), linha.usuarioDTO().getEmail(), "Dados rejeitados pelo banco.");
+                }
+            }
+        }
+    }
+
+    private void criptografarSenha(UsuarioDTO usuarioDTO) {
+        String senha = usuarioDTO.getSenha();
+        if (aceitarHashPronto && HASH_PRONTO.matcher(senha).matches()) {
+            // Hash vindo de outro sistema: gravado como está (regravado com o custo atual no próximo login).
+            return;
+        }
+        usuarioDTO.setSenha(encoder.encode(senha));
+    }
+
+    // BLOCÃO 5: CSV
+    // -------------------------------------------------------------------------
+
+    // Posição das colunas nome, email e senha no cabeçalho (-1 se ausente).
+    private static int[] lerCabecalhoCsv(String cabecalho) {
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("CSV vazio: o cabeçalho (nome,email,senha) é obrigatório.");
+        }
+        // Remove o BOM que alguns editores (ex: Excel) gravam no início do arquivo.
+        List<String> nomes = dividirCsv(cabecalho.replace("\uFEFF", ""));
+        int[] colunas = {-1, -1, -1};
+        for (int i = 0; i < nomes.size(); i++) {
+            switch (nomes.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "nome" -> colunas[0] = i;
+                case "email" -> colunas[1] = i;
+                case "senha" -> colunas[2] = i;
+                default -> { }
+            }
+        }
+        if (colunas[1] < 0 || colunas[2] < 0) {
+            throw new IllegalArgumentException("O cabeçalho do CSV deve conter as colunas email e senha.");
+        }
+        return colunas;
+    }
+
+    private static UsuarioDTO lerLinhaCsv(String linha, int[] colunas) {
+        List<String> campos = dividirCsv(linha);
+        return UsuarioDTO.builder()
+                .nome(campo(campos, colunas[0]))
+                .email(campo(campos, colunas[1]))
+                .senha(campo(campos, colunas[2]))
+                .build();
+    }
+
+    private static String campo(List<String> campos, int indice) {
+        return indice >= 0 && indice < campos.size() ? campos.get(indice).trim() : null;
+    }
+
+    // Divide uma linha CSV por vírgulas, respeitando campos entre aspas ("a,b") e aspas escapadas ("").
+    private static List<String> dividirCsv(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Aspas não fechadas.");
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    private static boolean vazio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    @PreDestroy
+    // Encerra o pool junto com o contexto do Spring.
+    public void encerrar() {
+        poolHash.shutdown();
+    }
+
+    // BLOCÃO 6: ESTADO DA IMPORTAÇÃO
+    // -------------------------------------------------------------------------
+
+    private record LinhaImportacao(long numero, UsuarioDTO usuarioDTO) {
+    }
+
+    // Contadores e erros de uma importação (usado apenas pela thread da requisição).
+    private class Relatorio {
+        private long linhasLidas;
+        private long importados;
+        private long conflitos;
+        private long invalidos;
+        private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+
+        private void conflito(long linha, String email) {
+            conflitos++;
+            registrarErro(linha, email, "E-mail já cadastrado.");
+        }
+
+        private void invalido(long linha, String email, String motivo) {
+            invalidos++;
+            registrarErro(linha, email, motivo);
+        }
+
+        private void registrarErro(long linha, String email, String motivo) {
+            if (erros.size() < maxErrosRelatados) {
+                erros.add(ErroImportacaoDTO.builder().linha(linha).email(email).motivo(motivo).build());
+            }
+        }
+
+        private ImportacaoResultadoDTO paraDTO() {
+            return ImportacaoResultadoDTO.builder()
+                    .linhasLidas(linhasLidas)
+                    .importados(importados)
+                    .conflitos(conflitos)
+                    .invalidos(invalidos)
+                    .erros(erros)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.EngCode.Cadastro_de_Usuario.business;
+
+// BLOCÃO 1: TIPOS DE EVENTO DE ALTERAÇÃO
+// -------------------------------------------------------------------------
+// Valor gravado na coluna 'tipo' da tabela evento_outbox e enviado aos consumidores.
+// Novos tipos podem ser acrescentados; os nomes existentes não devem mudar (os consumidores dependem deles).
+public enum TipoEventoUsuario {
+    USUARIO_CRIADO,
+    USUARIO_ATUALIZADO,
+    USUARIO_EXCLUIDO,
+    ENDERECO_CRIADO,
+    ENDERECO_ATUALIZADO,
+    TELEFONE_CRIADO,
+    TELEFONE_ATUALIZADO
+}
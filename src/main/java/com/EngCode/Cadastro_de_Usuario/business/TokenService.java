@@ -0,0 +1,93 @@
+package com.EngCode.Cadastro_de_Usuario.business;
+
+// BLOCÃO 1: IMPORTAÇÕES
+// -------------------------------------------------------------------------
+import com.EngCode.Cadastro_de_Usuario.business.dto.TokenDTO;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.UnauthorizedException;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.security.JwtUtil;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.security.PerfisAcesso;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.security.RevogacaoTokenService;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.sharding.RoteamentoShards;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+@Service
+// Marca a classe como um componente de Serviço gerenciado pelo Spring.
+@RequiredArgsConstructor
+// Lombok: injeta as dependências 'final' pelo construtor.
+public class TokenService {
+
+    // BLOCÃO 2: INJEÇÃO DE DEPENDÊNCIAS
+    // -------------------------------------------------------------------------
+    private final JwtUtil jwtUtil; // Geração e verificação dos tokens
+    private final RevogacaoTokenService revogacaoTokenService; // Registro e consulta de revogações
+    private final PerfisAcesso perfisAcesso; // Perfil (ROLE_ADMIN) que vai no access token
+    private final UsuarioRepository usuarioRepository; // Perfil atual do usuário, relido na renovação
+    private final RoteamentoShards roteamentoShards; // Shard do usuário de cada e-mail
+
+    /**
+     * MÉTODO: emitirTokens(Authentication)
+     * FUNÇÃO: Emite o par access token (curto) + refresh token (longo) para o usuário autenticado no login.
+     * CONCEITO: O perfil vem das permissões do login, montadas a partir da linha do usuário.
+     */
+    public TokenDTO emitirTokens(Authentication autenticacao) {
+        return emitirTokens(autenticacao.getName(), perfisAcesso.administrador(autenticacao.getAuthorities()));
+    }
+
+    private TokenDTO emitirTokens(String email, boolean administrador) {
+        return TokenDTO.builder()
+                .accessToken("Bearer " + jwtUtil.generateToken(email, administrador))
+                .refreshToken(jwtUtil.gerarRefreshToken(email))
+                .build();
+    }
+
+    /**
+     * MÉTODO: renovarTokens(String)
+     * FUNÇÃO: Troca um refresh token válido por um novo par de tokens.
+     * CONCEITO: Rotação de uso único. O refresh token usado é consumido no banco (insert "on conflict do nothing"
+     * em token_revogado) e o novo par só é emitido se esta chamada gravou a linha: um replay, mesmo concorrente
+     * ou em outro nó, recebe 401. As revogações são consultadas no banco, não no filtro local do nó.
+     * O perfil é relido da linha do usuário (que precisa continuar ativo com o mesmo e-mail).
+     */
+    public TokenDTO renovarTokens(String refreshToken) {
+        Claims claims = claimsVerificadas(refreshToken);
+
+        if (!jwtUtil.isRefreshToken(claims) || revogacaoTokenService.tokensDoUsuarioRevogados(claims)) {
+            throw new UnauthorizedException("Refresh token inválido ou revogado.");
+        }
+
+        String email = claims.getSubject();
+        boolean administrador = roteamentoShards.noShard(roteamentoShards.shardDoEmail(email),
+                        () -> usuarioRepository.buscarAdministradorPorEmail(email))
+                .orElseThrow(() -> new UnauthorizedException("Refresh token inválido ou revogado."));
+
+        if (!revogacaoTokenService.consumirToken(claims)) {
+            throw new UnauthorizedException("Refresh token inválido ou revogado.");
+        }
+        return emitirTokens(email, administrador);
+    }
+
+    /**
+     * MÉTODO: encerrarSessao(String, String)
+     * FUNÇÃO: Logout. Revoga o access token do header Authorization e, se informado, o refresh token.
+     */
+    public void encerrarSessao(String authorizationHeader, String refreshToken) {
+        revogacaoTokenService.revogarToken(claimsVerificadas(authorizationHeader.substring(7)));
+        if (refreshToken != null) {
+            revogacaoTokenService.revogarToken(claimsVerificadas(refreshToken));
+        }
+    }
+
+    // Verifica assinatura e expiração, convertendo falhas em HTTP 401.
+    private Claims claimsVerificadas(String token) {
+        try {
+            return jwtUtil.extrairClaimsVerificadas(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UnauthorizedException("Token inválido ou expirado.", e);
+        }
+    }
+}
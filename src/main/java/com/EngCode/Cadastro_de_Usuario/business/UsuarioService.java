@@ -6,26 +6,56 @@ package com.EngCode.Cadastro_de_Usuario.business;
 // Classes da própria camada de negócio (Converter e DTOs)
 import com.EngCode.Cadastro_de_Usuario.business.converter.UsuarioConverter;
 import com.EngCode.Cadastro_de_Usuario.business.dto.EnderecoDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.PaginaUsuariosDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.RebalanceamentoShardsDTO;
 import com.EngCode.Cadastro_de_Usuario.business.dto.TelefoneDTO;
 import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioResumoDTO;
 
 // Classes da camada de Infraestrutura (Entities e Repositories)
 import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Endereco;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Telefone;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.AtualizacaoParcialRepository;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.EnderecoRepository;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.TelefoneRepository;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioResumo;
 
 // Exceções personalizadas e Utilitários de Segurança
+import com.EngCode.Cadastro_de_Usuario.infrastructure.cache.InvalidacaoCacheSegundoNivel;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.ConflictException;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.IllegalArgumentException;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.PrecondicaoFalhouException;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.ResourceNotFoundException;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.security.CachePrincipal;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.security.JwtUtil;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.security.RevogacaoTokenService;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.sharding.RebalanceamentoShards;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.sharding.RoteamentoShards;
 
 // Anotações e classes do Spring
 import lombok.RequiredArgsConstructor; // Lombok para injeção de dependência no construtor
+import org.hibernate.Hibernate; // Inicialização explícita de coleções lazy
+import org.hibernate.exception.ConstraintViolationException; // Violação de constraint traduzida pelo Hibernate
+import org.springframework.dao.DataIntegrityViolationException; // Violação de integridade traduzida pelo Spring
 import org.springframework.security.crypto.password.PasswordEncoder; // Interface para criptografia de senha
 import org.springframework.stereotype.Service; // Anotação que marca a classe como Service
+import org.springframework.transaction.annotation.Transactional; // Delimita transações (ex: leituras somente-leitura)
+import org.springframework.transaction.support.TransactionTemplate; // Transação em um trecho do método (sem o hashing da senha)
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 // Marca a classe como um componente de Serviço (camada de lógica de negócio) gerenciado pelo Spring.
@@ -41,24 +71,60 @@ public class UsuarioService {
     private final JwtUtil jwtUtil; // Utilitário para manipulação de Tokens JWT
     private final EnderecoRepository enderecoRepository; // Acesso ao banco de dados (Entidade Endereco)
     private final TelefoneRepository telefoneRepository; // Acesso ao banco de dados (Entidade Telefone)
+    private final AtualizacaoParcialRepository atualizacaoParcialRepository; // PATCH em um único UPDATE ... RETURNING
+    private final CachePrincipal cachePrincipal; // Cache dos principais usados pelo filtro JWT
+    private final RevogacaoTokenService revogacaoTokenService; // Revogação dos tokens JWT já emitidos
+    private final InvalidacaoCacheSegundoNivel invalidacaoCache; // Cache de segundo nível após escritas via JDBC
+    private final EventosUsuario eventosUsuario; // Eventos de alteração gravados na outbox, na mesma transação
+    private final TransactionTemplate transactionTemplate; // Transação da escrita + evento (auto-configurado pelo Spring Boot)
+    private final RoteamentoShards roteamentoShards; // Shard de cada usuário (banco único com o sharding desligado)
+
+    // Limites da página da busca (GET /usuario/search).
+    private static final int LIMITE_PADRAO_BUSCA = 20;
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+
+    // Ordem da busca ao intercalar as páginas dos shards: a mesma do banco, (chave collate "C", id). O collate "C"
+    // compara os bytes UTF-8 sem sinal; String.compareTo compara unidades UTF-16 e diverge fora do BMP (emoji,
+    // alguns ideogramas) contra U+E000..U+FFFF, o que pularia ou repetiria usuários entre as páginas.
+    static final Comparator<UsuarioResumo> ORDEM_DA_BUSCA = Comparator
+            .comparing((UsuarioResumo resumo) -> resumo.getChave().getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned)
+            .thenComparing(UsuarioResumo::getId);
+
+    // Máximo de e-mails por requisição de exclusão em lote (mantém a transação e o IN (...) curtos).
+    private static final int LIMITE_EXCLUSAO_EM_LOTE = 1000;
 
     /**
      * MÉTODO: salvaUsuario(UsuarioDTO)
      * FUNÇÃO: Lógica principal para cadastrar um novo usuário.
      * GARANTE: Validação de e-mail e criptografia de senha.
+     * CONCEITO: Um único INSERT; a unicidade do e-mail é garantida pelo índice único (uk_usuario_email),
+     * sem a consulta prévia (check-then-insert), que custava uma ida extra ao banco e tinha janela de corrida.
+     * OUTBOX: O INSERT e o evento USUARIO_CRIADO são gravados na mesma transação (aberta só depois do hashing da senha).
      */
     public UsuarioDTO salvaUsuario(UsuarioDTO usuarioDTO) {
-        // Validação: Lança ConflictException (HTTP 409) se o e-mail já existir.
-        emailExiste(usuarioDTO.getEmail());
-
-        // Segurança: Criptografa a senha antes de passar para a Entity.
+        // Segurança: Criptografa a senha antes de passar para a Entity (fora da transação: o hashing é lento).
         usuarioDTO.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
 
         // Mapeamento: Converte DTO (dados de entrada) para Entity (formato do banco).
-        Usuario usuario = usuarioConverter.paraUsuario(usuarioDTO);
+        Usuario novoUsuario = usuarioConverter.paraUsuario(usuarioDTO);
 
-        // Persistência: Salva a nova Entity no banco de dados.
-        usuario = usuarioRepository.save(usuario);
+        // Persistência: Salva e força o INSERT agora, para que a violação do índice único aconteça aqui.
+        Usuario usuario;
+        try {
+            // O usuário é gravado no shard do seu e-mail.
+            usuario = roteamentoShards.noShard(roteamentoShards.shardDoEmail(novoUsuario.getEmail()),
+                    () -> transactionTemplate.execute(status -> {
+                        Usuario salvo = usuarioRepository.saveAndFlush(novoUsuario);
+                        eventosUsuario.usuarioCriado(salvo);
+                        return salvo;
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            // Validação: Lança ConflictException (HTTP 409) se o e-mail já existir.
+            if (violouUnicidadeDoEmail(e)) {
+                throw new ConflictException("E-mail já cadastrado.", e);
+            }
+            throw e;
+        }
 
         // Retorno: Converte a Entity salva (agora com ID) de volta para DTO para a resposta da API.
         return usuarioConverter.paraUsuarioDTO(usuario);
@@ -66,33 +132,34 @@ public class UsuarioService {
 
 
     /**
-     * MÉTODO: emailExiste(String)
-     * FUNÇÃO: Valida se um e-mail já existe no banco, lançando uma exceção se for duplicado.
-     * CONCEITO: Garantia de Integridade de Dados.
+     * MÉTODO: violouUnicidadeDoEmail(DataIntegrityViolationException)
+     * FUNÇÃO: Indica se a violação de integridade veio do índice único do e-mail
+     * (outras violações, como colunas obrigatórias, não devem virar 409). Também usado pela importação em lote.
      */
-    public void emailExiste(String email) {
-        try {
-            boolean existe = verificaEmailExistente(email);
-
-            // Se o repository retornar TRUE, lançamos uma exceção de Conflito.
-            if (existe){
-                throw new ConflictException("E-mail já cadastrado." + email);
+    static boolean violouUnicidadeDoEmail(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao) {
+                return Usuario.UK_EMAIL.equalsIgnoreCase(violacao.getConstraintName());
+            }
+            // Via JDBC (PATCH): unique_violation (SQLState 23505) com o nome da constraint na mensagem do Postgres.
+            if (causa instanceof SQLException sqlException && "23505".equals(sqlException.getSQLState())) {
+                return String.valueOf(sqlException.getMessage()).contains(Usuario.UK_EMAIL);
             }
-
-        } catch (ConflictException e) {
-            // Garante que o erro original seja preservado no log (rastreabilidade).
-            throw new ConflictException("E-mail já cadastrado.", e.getCause());
         }
+        return false;
     }
 
     /**
      * MÉTODO: verificaEmailExistente(String)
      * FUNÇÃO: Executa a consulta real no banco usando o Repository.
-     * CONCEITO: Abstração da lógica de consulta.
+     * CONCEITO: Usado apenas pela pré-checagem opcional (GET /usuario/email/disponivel), para o
+     * front-end avisar antes do envio. O cadastro não depende dela: quem decide é o índice único.
      */
+    @Transactional(readOnly = true)
+    // Somente leitura: pode ser atendida por uma réplica (ver ReplicasConfig).
     public boolean verificaEmailExistente(String email) {
-        // Usa o método de consulta derivado do Spring Data JPA.
-        return usuarioRepository.existsByEmail(email);
+        // Usa o método de consulta derivado do Spring Data JPA, no shard do e-mail.
+        return roteamentoShards.noShard(roteamentoShards.shardDoEmail(email), () -> usuarioRepository.existsByEmail(email));
     }
 
     /**
@@ -100,11 +167,25 @@ public class UsuarioService {
      * FUNÇÃO: Busca um usuário por e-mail e retorna o DTO correspondente.
      * CONCEITO: Uso de Optional e orElseThrow para tratamento de "não encontrado".
      */
+    @Transactional(readOnly = true)
+    // Somente leitura: as leituras abaixo compartilham o mesmo contexto de persistência
+    // (e a mesma conexão, que pode ser de uma réplica, ver ReplicasConfig).
     public UsuarioDTO buscarUsuarioPorEmail (String email) {
         try {
-            // Tenta buscar. Se o Optional estiver vazio, lança a exceção ResourceNotFound.
-            return usuarioConverter.paraUsuarioDTO(usuarioRepository.findByEmail(email).orElseThrow(
-                    () -> new ResourceNotFoundException("E-mail não encontrado: " + email)));
+            return roteamentoShards.noShard(roteamentoShards.shardDoEmail(email), () -> {
+                // Tenta buscar pelo ID natural (cache de segundo nível); fora do cache, o usuário vem com os endereços
+                // em um único SELECT. Se o Optional estiver vazio, lança a exceção ResourceNotFound.
+                Usuario usuario = usuarioRepository.buscarComEnderecosPorEmail(email).orElseThrow(
+                        () -> new ResourceNotFoundException("E-mail não encontrado: " + email));
+
+                // Inicializa as coleções: em cache, os ids vêm do cache da coleção e cada item do cache da entidade;
+                // fora dele, os endereços já vieram no SELECT do usuário e os telefones custam uma consulta.
+                // Total sem cache: 2 instruções; com cache: nenhuma (ver QuantidadeSqlPorEndpointTest).
+                Hibernate.initialize(usuario.getEnderecos());
+                Hibernate.initialize(usuario.getTelefones());
+
+                return usuarioConverter.paraUsuarioDTO(usuario);
+            });
 
         } catch (ResourceNotFoundException e) {
             // Relança a exceção para que o Controller possa tratá-la e retornar o HTTP 404.
@@ -112,117 +193,341 @@ public class UsuarioService {
         }
     }
 
+    /**
+     * MÉTODO: buscarUsuarios(String, String, String, Integer)
+     * FUNÇÃO: Busca usuários pelo prefixo do nome OU do e-mail (sem diferenciar maiúsculas), uma página por vez.
+     * CONCEITO: Retorna projeções (id, nome, email), sem carregar Entities; a próxima página começa depois
+     * da última linha desta (cursor), sem OFFSET.
+     * SHARDING: Cada shard devolve a sua página (em paralelo); as páginas são intercaladas na mesma ordem da consulta.
+     */
+    @Transactional(readOnly = true)
+    public PaginaUsuariosDTO buscarUsuarios(String nome, String email, String cursor, Integer limite) {
+        boolean porNome = nome != null && !nome.isBlank();
+        boolean porEmail = email != null && !email.isBlank();
+        if (porNome == porEmail) {
+            throw new IllegalArgumentException("Informe apenas um filtro de busca: nome ou email.");
+        }
+        int tamanho = limite == null ? LIMITE_PADRAO_BUSCA : Math.min(Math.max(limite, 1), LIMITE_MAXIMO_BUSCA);
+
+        // Cursor: última chave (lower(nome) ou lower(email)) e último id da página anterior.
+        String ultimaChave = "";
+        long ultimoId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decodificado = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separador = decodificado.indexOf(':');
+                ultimoId = Long.parseLong(decodificado.substring(0, separador));
+                ultimaChave = decodificado.substring(separador + 1);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor de busca inválido.", e);
+            }
+        }
+
+        String prefixo = escaparLike((porNome ? nome : email).trim().toLowerCase(Locale.ROOT)) + "%";
+        String chaveCursor = ultimaChave;
+        long idCursor = ultimoId;
+        List<UsuarioResumo> resultado = roteamentoShards.emCadaShard(shard -> porNome
+                        ? usuarioRepository.buscarPorPrefixoDoNome(prefixo, chaveCursor, idCursor, tamanho)
+                        : usuarioRepository.buscarPorPrefixoDoEmail(prefixo, chaveCursor, idCursor, tamanho))
+                .stream()
+                .flatMap(List::stream)
+                .sorted(ORDEM_DA_BUSCA)
+                .limit(tamanho)
+                .toList();
+
+        String proximoCursor = null;
+        if (resultado.size() == tamanho) {
+            UsuarioResumo ultimo = resultado.get(resultado.size() - 1);
+            proximoCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((ultimo.getId() + ":" + ultimo.getChave()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return PaginaUsuariosDTO.builder()
+                .itens(resultado.stream().map(resumo -> UsuarioResumoDTO.builder()
+                        .id(resumo.getId())
+                        .nome(resumo.getNome())
+                        .email(resumo.getEmail())
+                        .build()).toList())
+                .proximoCursor(proximoCursor)
+                .build();
+    }
+
+    // Escapa os curingas do LIKE (% e _) digitados pelo usuário, que devem ser tratados como texto.
+    private static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     /**
      * MÉTODO: deletaUsuarioPorEmail(String)
-     * FUNÇÃO: Remove um usuário do banco.
+     * FUNÇÃO: Exclui um usuário (exclusão lógica; a remoção física é feita em segundo plano).
      */
     public void deletaUsuarioPorEmail (String email) { // Void pois não há retorno de dados.
-        // O Repository faz a remoção. O método no Repository exige @Transactional.
-        usuarioRepository.deleteByEmail(email);
+        deletaUsuariosPorEmail(List.of(email));
+    }
+
+    /**
+     * MÉTODO: deletaUsuariosPorEmail(List)
+     * FUNÇÃO: Exclui em conjunto os usuários com os e-mails informados. Retorna quantos usuários foram excluídos.
+     * CONCEITO: Exclusão lógica: um único UPDATE marca 'excluido_em', e os usuários somem das leituras na hora.
+     * Endereços, telefones e as linhas dos usuários são apagados depois, em lotes e com vazão limitada, pelo
+     * ExpurgoUsuarios: a requisição não espera a remoção física nem disputa bloqueios com ela.
+     * OUTBOX: Um evento USUARIO_EXCLUIDO por usuário excluído, na mesma transação.
+     * SHARDING: Os e-mails são separados por shard, com uma transação por shard.
+     */
+    public int deletaUsuariosPorEmail(List<String> emails) {
+        if (emails == null || emails.isEmpty()) {
+            return 0;
+        }
+        if (emails.size() > LIMITE_EXCLUSAO_EM_LOTE) {
+            throw new IllegalArgumentException("Informe no máximo " + LIMITE_EXCLUSAO_EM_LOTE + " e-mails por requisição.");
+        }
+
+        int removidos = 0;
+        List<String> emailsRemovidos = new ArrayList<>();
+        for (Map.Entry<Integer, List<String>> grupo : roteamentoShards.agruparPorShard(emails, email -> email).entrySet()) {
+            Integer removidosNoShard = roteamentoShards.noShard(grupo.getKey(), () -> transactionTemplate.execute(
+                    status -> deletarUsuarios(grupo.getValue(), emailsRemovidos)));
+            removidos += removidosNoShard == null ? 0 : removidosNoShard;
+        }
+
+        // Após o commit: os tokens já emitidos e o principal em cache não podem sobreviver à remoção do usuário
+        // (as revogações ficam no shard principal, fora da transação de cada shard).
+        for (String email : emailsRemovidos) {
+            revogacaoTokenService.revogarTokensDoUsuario(email);
+            cachePrincipal.invalidar(email);
+        }
+        return removidos;
+    }
+
+    // Exclusão lógica de um grupo de e-mails do mesmo shard (dentro da transação). Acrescenta os e-mails excluídos à lista.
+    private int deletarUsuarios(List<String> emails, List<String> emailsRemovidos) {
+        // Apenas os usuários existentes (e ainda não excluídos) têm tokens a revogar e eventos a gerar.
+        List<UsuarioResumo> usuarios = usuarioRepository.buscarIdsPorEmails(emails);
+        if (usuarios.isEmpty()) {
+            return 0;
+        }
+
+        // Um UPDATE para o lote inteiro. Por ser JPQL, também limpa o cache de segundo nível dos usuários.
+        int removidos = usuarioRepository.marcarExcluidos(usuarios.stream().map(UsuarioResumo::getId).toList(), Instant.now());
+        usuarios.forEach(usuario -> eventosUsuario.usuarioExcluido(usuario.getId(), usuario.getEmail()));
+        emailsRemovidos.addAll(usuarios.stream().map(UsuarioResumo::getEmail).toList());
+        return removidos;
     }
 
     /**
-     * MÉTODO: atualizaDaddosUsuario(String, UsuarioDTO)
+     * MÉTODO: atualizaDaddosUsuario(String, UsuarioDTO, Collection)
      * FUNÇÃO: Atualiza os dados do usuário autenticado (PATCH).
      * SEGURANÇA: Usa o JWT para identificar o usuário.
+     * CONCORRÊNCIA: Com 'versoesEsperadas' (header If-Match), só atualiza se a versão atual for uma delas;
+     * caso contrário lança PrecondicaoFalhouException (HTTP 412). Sem elas, o UPDATE é aplicado sobre a versão atual.
+     * OUTBOX: O UPDATE e o evento USUARIO_ATUALIZADO são gravados na mesma transação.
+     * SEGURANÇA: Na troca de e-mail, todos os tokens do e-mail antigo são revogados (o usuário entra de novo com o novo e-mail).
+     * SHARDING: Se o novo e-mail pertencer a outro shard, o usuário é movido para ele na mesma transação do UPDATE:
+     * se a movimentação falhar, a troca de e-mail também é desfeita.
      */
-    public UsuarioDTO atualizaDaddosUsuario (String token, UsuarioDTO usuarioDTO) {
+    public UsuarioDTO atualizaDaddosUsuario (String token, UsuarioDTO usuarioDTO, Collection<Long> versoesEsperadas) {
 
-        // 1. Extrai o e-mail (identidade) do usuário logado a partir do Token.
-        String email = jwtUtil.extrairEmailToken(token.substring(7));
+        // 1. Extrai o e-mail (identidade) do usuário logado a partir do Token, e o shard onde ele está.
+        String email = emailDoToken(token);
+        int shard = roteamentoShards.shardDoEmail(email);
 
         // 2. Trata a senha: Se foi enviada, criptografa; se não, passa 'null' para manter a antiga.
         usuarioDTO.setSenha(usuarioDTO.getSenha() != null ? passwordEncoder.encode(usuarioDTO.getSenha()) : null);
 
-        // 3. Busca a Entity existente para ter os dados atuais.
-        Usuario ususarioEntity = usuarioRepository.findByEmail(email).orElseThrow(() ->
-                new ResourceNotFoundException ("E-mail não Localizado."));
+        // 3. PATCH: um único UPDATE apenas com os campos enviados, que já devolve a linha atualizada (RETURNING),
+        //    e o evento da alteração, na mesma transação. Endereços e telefones da resposta: uma consulta para cada,
+        //    lidas direto nas projeções (sem Entities no contexto de persistência).
+        UsuarioDTO usuarioAtualizado;
+        try {
+            usuarioAtualizado = roteamentoShards.noShard(shard, () -> transactionTemplate.execute(status -> {
+                Usuario atualizado = atualizacaoParcialRepository
+                        .atualizarUsuario(email, usuarioConverter.camposAlterados(usuarioDTO), versoesEsperadas)
+                        .orElseThrow(() -> naoAtualizado(atualizacaoParcialRepository.versaoDoUsuario(email),
+                                "E-mail não Localizado."));
+                eventosUsuario.usuarioAtualizado(atualizado);
+                List<Long> ids = List.of(atualizado.getId());
+                UsuarioDTO resposta = usuarioConverter.paraUsuarioDTO(atualizado);
+                resposta.setEnderecos(enderecoRepository.buscarLeituraPorUsuarios(ids).stream()
+                        .map(usuarioConverter::paraEnderecoDTO).toList());
+                resposta.setTelefones(telefoneRepository.buscarLeituraPorUsuarios(ids).stream()
+                        .map(usuarioConverter::paraTelefoneDTO).toList());
+
+                // Com o sharding, um novo e-mail pode pertencer a outro shard: o usuário é movido para lá (mesmos ids)
+                // antes do commit. O flush grava o evento acima, que vai junto. Cada shard tem o próprio índice único:
+                // um e-mail já cadastrado no destino falha na cópia e desfaz a troca (409).
+                status.flush();
+                roteamentoShards.realocarSeNecessario(atualizado.getId(), atualizado.getEmail(), shard);
+                return resposta;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Troca para um e-mail que já pertence a outro usuário (neste shard ou no shard de destino).
+            if (violouUnicidadeDoEmail(e)) {
+                throw new ConflictException("E-mail já cadastrado.", e);
+            }
+            throw e;
+        }
+
+        // 4. O UPDATE não passou pelo Hibernate: remove o usuário do cache de segundo nível.
+        invalidacaoCache.usuarioAlterado(usuarioAtualizado.getId(), !email.equals(usuarioAtualizado.getEmail()));
 
-        // 4. Mesclagem (PATCH): Usa o Converter para criar uma nova Entity mesclando novos dados e mantendo os antigos (se vieram null).
-        Usuario usuario = usuarioConverter.updateDeUsuario(usuarioDTO, ususarioEntity);
+        // 5. E-mail trocado: os tokens emitidos para o e-mail antigo deixam de valer. Outra pessoa pode cadastrar
+        //    o e-mail antigo depois, e esses tokens (o refresh token vale dias) passariam a identificar a conta dela.
+        //    Após o commit, como na exclusão (as revogações ficam no shard principal).
+        if (!email.equals(usuarioAtualizado.getEmail())) {
+            revogacaoTokenService.revogarTokensDoUsuario(email);
+        }
 
-        // 5. Salva a nova Entity mesclada e retorna o DTO.
-        return usuarioConverter.paraUsuarioDTO(usuarioRepository.save(usuario));
+        // 6. Invalida o principal em cache (e-mail antigo e, se mudou, o novo) e retorna o DTO.
+        cachePrincipal.invalidar(email);
+        cachePrincipal.invalidar(usuarioAtualizado.getEmail());
+        return usuarioAtualizado;
     }
 
     /**
-     * MÉTODO: atualizaEndereco(Long, EnderecoDTO)
-     * FUNÇÃO: Atualiza um endereço específico pelo ID (PATCH).
+     * MÉTODO: atualizaEndereco(String, Long, EnderecoDTO, Collection)
+     * FUNÇÃO: Atualiza um endereço específico pelo ID (PATCH), com a mesma condição de versão opcional do usuário.
+     * OUTBOX: O UPDATE e o evento ENDERECO_ATUALIZADO são gravados na mesma transação.
+     * SEGURANÇA: Só altera um endereço do usuário do Token; o id de um endereço de outro usuário responde 404.
+     * SHARDING: O endereço é procurado no shard do usuário do Token (sem consultar os demais shards).
      */
-    public EnderecoDTO atualizaEndereco(Long idEndereco, EnderecoDTO enderecoDTO) {
-
-        // 1. Busca o Endereco existente pelo ID.
-        Endereco enderecoEntity = enderecoRepository.findById(idEndereco).orElseThrow(() ->
-                new ResourceNotFoundException("Id não encontrado: " + idEndereco));
-
-        // 2. Mesclagem: Usa o Converter para aplicar o PATCH.
-        Endereco endereco = usuarioConverter.updateEndereco(enderecoDTO, enderecoEntity);
-
-        // 3. Salva e retorna o DTO.
-        return usuarioConverter.paraEnderecoDTO(enderecoRepository.save(endereco));
+    @Transactional
+    public EnderecoDTO atualizaEndereco(String token, Long idEndereco, EnderecoDTO enderecoDTO, Collection<Long> versoesEsperadas) {
+
+        // PATCH: um único UPDATE com os campos enviados (RETURNING devolve o endereço completo).
+        String email = emailDoToken(token);
+        Endereco endereco = roteamentoShards.noShard(roteamentoShards.shardDoEmail(email), () -> {
+            Endereco atualizado = atualizacaoParcialRepository
+                    .atualizarEndereco(email, idEndereco, usuarioConverter.camposAlterados(enderecoDTO), versoesEsperadas)
+                    .orElseThrow(() -> naoAtualizado(atualizacaoParcialRepository.versaoDoEndereco(email, idEndereco),
+                            "Id não encontrado: " + idEndereco));
+            eventosUsuario.enderecoAtualizado(atualizado);
+            return atualizado;
+        });
+        invalidacaoCache.enderecoAlterado(idEndereco);
+
+        return usuarioConverter.paraEnderecoDTO(endereco);
     }
 
     /**
-     * MÉTODO: atualizaTelefones(Long, TelefoneDTO)
-     * FUNÇÃO: Atualiza um telefone específico pelo ID (PATCH).
+     * MÉTODO: atualizaTelefones(String, Long, TelefoneDTO, Collection)
+     * FUNÇÃO: Atualiza um telefone específico pelo ID (PATCH), com a mesma condição de versão opcional do usuário.
+     * OUTBOX: O UPDATE e o evento TELEFONE_ATUALIZADO são gravados na mesma transação.
+     * SEGURANÇA: Só altera um telefone do usuário do Token; o id de um telefone de outro usuário responde 404.
+     * SHARDING: O telefone é procurado no shard do usuário do Token (sem consultar os demais shards).
      */
-    public TelefoneDTO atualizaTelefones(Long idTelefone, TelefoneDTO telefoneDTO) {
-        // 1. Busca o Telefone existente pelo ID.
-        Telefone telefoneEntity = telefoneRepository.findById(idTelefone).orElseThrow(() ->
-                new ResourceNotFoundException("Id não encontrado:" + idTelefone));
-
-        // 2. Mesclagem: Usa o Converter para aplicar o PATCH.
-        Telefone telefone = usuarioConverter.updateTelefone(telefoneDTO, telefoneEntity);
-
-        // 3. Salva e retorna o DTO.
-        return usuarioConverter.paraTelefoneDTO(telefoneRepository.save(telefone));
+    @Transactional
+    public TelefoneDTO atualizaTelefones(String token, Long idTelefone, TelefoneDTO telefoneDTO, Collection<Long> versoesEsperadas) {
+        // PATCH: um único UPDATE com os campos enviados (RETURNING devolve o telefone completo).
+        String email = emailDoToken(token);
+        Telefone telefone = roteamentoShards.noShard(roteamentoShards.shardDoEmail(email), () -> {
+            Telefone atualizado = atualizacaoParcialRepository
+                    .atualizarTelefone(email, idTelefone, usuarioConverter.camposAlterados(telefoneDTO), versoesEsperadas)
+                    .orElseThrow(() -> naoAtualizado(atualizacaoParcialRepository.versaoDoTelefone(email, idTelefone),
+                            "Id não encontrado:" + idTelefone));
+            eventosUsuario.telefoneAtualizado(atualizado);
+            return atualizado;
+        });
+        invalidacaoCache.telefoneAlterado(idTelefone);
+
+        return usuarioConverter.paraTelefoneDTO(telefone);
     }
 
     /**
      * MÉTODO: cadastraEndereco(String, EnderecoDTO)
      * FUNÇÃO: Adiciona um novo endereço ao usuário logado (associação).
      * SEGURANÇA: Usa o Token para garantir que o endereço seja adicionado ao usuário correto.
+     * OUTBOX: O INSERT e o evento ENDERECO_CRIADO são gravados na mesma transação.
      */
+    @Transactional
     public EnderecoDTO cadastraEndereco (String token, EnderecoDTO enderecoDTO) {
 
         // 1. Extrai a identidade do usuário logado.
-        String email = jwtUtil.extrairEmailToken(token.substring(7));
+        String email = emailDoToken(token);
+
+        // Tudo no shard do usuário logado.
+        return roteamentoShards.noShard(roteamentoShards.shardDoEmail(email), () -> {
 
-        // 2. Busca a Entity do usuário.
-        Usuario usuario = usuarioRepository.findByEmail(email).orElseThrow(() ->
-                new ResourceNotFoundException("E-mail não encontrado: " + email));
+            // 2. Busca a Entity do usuário.
+            Usuario usuario = usuarioRepository.buscarPorEmail(email).orElseThrow(() ->
+                    new ResourceNotFoundException("E-mail não encontrado: " + email));
 
-        // 3. Conversão e Associação: Converte DTO para Entity e insere a Chave Estrangeira (FK) do Usuário.
-        Endereco endereco = usuarioConverter.paraEnderecoEntity(enderecoDTO, usuario.getId());
+            // 3. Conversão e Associação: Converte DTO para Entity e insere a Chave Estrangeira (FK) do Usuário.
+            Endereco endereco = usuarioConverter.paraEnderecoEntity(enderecoDTO, usuario.getId());
 
-        // 4. Salva o novo Endereço.
-        Endereco enderecoEntity = enderecoRepository.save(endereco);
+            // 4. Salva o novo Endereço e remove do cache a lista de endereços do usuário (passa a ter um item a mais).
+            Endereco enderecoEntity = enderecoRepository.save(endereco);
+            eventosUsuario.enderecoCriado(enderecoEntity);
+            invalidacaoCache.enderecosDoUsuarioAlterados(usuario.getId());
 
-        // 5. Retorna o DTO do novo Endereço.
-        return usuarioConverter.paraEnderecoDTO(enderecoEntity);
+            // 5. Retorna o DTO do novo Endereço.
+            return usuarioConverter.paraEnderecoDTO(enderecoEntity);
+        });
     }
 
     /**
      * MÉTODO: cadastraTelefone(String, TelefoneDTO)
      * FUNÇÃO: Adiciona um novo telefone ao usuário logado.
      * SEGURANÇA: Usa o Token para obter o ID do usuário.
+     * OUTBOX: O INSERT e o evento TELEFONE_CRIADO são gravados na mesma transação.
      */
+    @Transactional
     public TelefoneDTO cadastraTelefone (String token, TelefoneDTO telefoneDTO) {
 
         // 1. Extrai a identidade do usuário logado.
-        String email = jwtUtil.extrairEmailToken(token.substring(7));
+        String email = emailDoToken(token);
+
+        // Tudo no shard do usuário logado.
+        return roteamentoShards.noShard(roteamentoShards.shardDoEmail(email), () -> {
+
+            // 2. Busca a Entity do usuário.
+            Usuario usuario = usuarioRepository.buscarPorEmail(email).orElseThrow(() ->
+                    new ResourceNotFoundException("E-mail não encontrado: " + email));
 
-        // 2. Busca a Entity do usuário.
-        Usuario usuario = usuarioRepository.findByEmail(email).orElseThrow(() ->
-                new ResourceNotFoundException("E-mail não encontrado: " + email));
+            // 3. Conversão e Associação: Converte DTO para Entity e insere a Chave Estrangeira (FK) do Usuário.
+            Telefone telefone = usuarioConverter.paraTelefoneEntity(telefoneDTO, usuario.getId());
 
-        // 3. Conversão e Associação: Converte DTO para Entity e insere a Chave Estrangeira (FK) do Usuário.
-        Telefone telefone = usuarioConverter.paraTelefoneEntity(telefoneDTO, usuario.getId());
+            // 4. Salva o novo Telefone e remove do cache a lista de telefones do usuário.
+            Telefone telefoneEntity = telefoneRepository.save(telefone);
+            eventosUsuario.telefoneCriado(telefoneEntity);
+            invalidacaoCache.telefonesDoUsuarioAlterados(usuario.getId());
 
-        // 4. Salva o novo Telefone.
-        Telefone telefoneEntity = telefoneRepository.save(telefone);
+            // 5. Retorna o DTO do novo Telefone.
+            return usuarioConverter.paraTelefoneDTO(telefoneEntity);
+        });
+    }
 
-        // 5. Retorna o DTO do novo Telefone.
-        return usuarioConverter.paraTelefoneDTO(telefoneEntity);
+    /**
+     * MÉTODO: rebalancearShards(int)
+     * FUNÇÃO: Move até 'limite' usuários para o shard dono do seu e-mail (ex: após acrescentar um shard).
+     * Pode ser chamado repetidamente até 'concluido' = true.
+     */
+    public RebalanceamentoShardsDTO rebalancearShards(int limite) {
+        RebalanceamentoShards.Resultado resultado = roteamentoShards.rebalancear(Math.max(limite, 1));
+        return RebalanceamentoShardsDTO.builder()
+                .verificados(resultado.verificados())
+                .movidos(resultado.movidos())
+                .concluido(resultado.concluido())
+                .build();
+    }
+
+    /**
+     * MÉTODO: naoAtualizado(Optional, String)
+     * FUNÇÃO: Exceção de um PATCH que não alterou nenhuma linha: se o registro existe, a versão não era a
+     * esperada (412, com a versão atual para o ETag); se não existe, 404.
+     */
+    private static RuntimeException naoAtualizado(Optional<Long> versaoAtual, String mensagemNaoEncontrado) {
+        return versaoAtual.<RuntimeException>map(versao -> new PrecondicaoFalhouException(
+                        "O registro foi alterado por outra requisição (versão atual: " + versao + ").", versao))
+                .orElseGet(() -> new ResourceNotFoundException(mensagemNaoEncontrado));
+    }
+
+    /**
+     * MÉTODO: emailDoToken(String)
+     * FUNÇÃO: Extrai o e-mail do header "Bearer ..." usando as claims já verificadas pelo JwtUtil.
+     * CONCEITO: O filtro JWT já validou este mesmo token na requisição, então a leitura vem do cache
+     * de claims e não repete o parse nem a verificação da assinatura.
+     */
+    private String emailDoToken(String token) {
+        return jwtUtil.extrairClaimsVerificadas(token.substring(7)).getSubject();
     }
 }
\ No newline at end of file
@@ -10,15 +10,31 @@ import com.EngCode.Cadastro_de_Usuario.infrastructure.clients.ViaCepDTO;
 // Sua exceção personalizada para argumentos inválidos (mapeada para HTTP 400).
 import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.IllegalArgumentException;
 
-// Importações do Lombok e Spring
-import lombok.RequiredArgsConstructor;
+// Cache em memória (Caffeine) e suas métricas (Micrometer)
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Importações do Spring
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.util.Objects; // Utilitário para lidar com objetos.
 
 @Service
 // ANOTAÇÃO SPRING: Marca a classe como um componente de Serviço, contendo a lógica de negócio.
-@RequiredArgsConstructor
-// LOMBOK: Gera um construtor que injeta o 'ViaCepClient'.
+// Os dados de um CEP quase nunca mudam: as respostas da ViaCEP ficam em um cache em memória, por CEP normalizado
+// (só dígitos), e a chamada HTTP só acontece na primeira consulta de cada CEP.
+// - CEP encontrado: válido por 'viacep.cache.ttl-horas'. Depois de 'viacep.cache.atualizar-apos-horas', a próxima
+//   consulta ainda recebe o valor em cache e dispara a releitura em segundo plano (refresh-ahead): CEPs muito
+//   consultados nunca voltam a esperar a ViaCEP. Se a releitura falhar, o valor anterior continua no cache.
+// - CEP inexistente ({"erro": true}): guardado só por 'viacep.cache.ttl-nao-encontrado-segundos', para que
+//   CEPs inválidos repetidos não sejam reenviados à ViaCEP a cada requisição.
+// - Falhas da chamada (timeout, 5xx) não entram no cache: a próxima consulta tenta de novo.
+// - Consultas simultâneas do mesmo CEP ausente fazem uma única chamada; as demais aguardam o resultado.
+// Métricas (tag cache=viacep): cache.gets{result=hit|miss}, cache.evictions, cache.load.duration.
 public class ViaCepService {
 
     // BLOCÃO 2: INJEÇÃO DE DEPENDÊNCIA
@@ -26,6 +42,25 @@ public class ViaCepService {
     private final ViaCepClient viaCepClient;
     // VARIÁVEL CRÍTICA: O Feign Client, que encapsula a chamada HTTP externa.
 
+    private final LoadingCache<String, ViaCepDTO> enderecosPorCep;
+    // CEP normalizado → resposta da ViaCEP.
+
+    public ViaCepService(ViaCepClient viaCepClient,
+                         MeterRegistry meterRegistry,
+                         @Value("${viacep.cache.tamanho-maximo:50000}") long tamanhoMaximo,
+                         @Value("${viacep.cache.ttl-horas:720}") long ttlHoras,
+                         @Value("${viacep.cache.atualizar-apos-horas:168}") long atualizarAposHoras,
+                         @Value("${viacep.cache.ttl-nao-encontrado-segundos:300}") long ttlNaoEncontradoSegundos) {
+        this.viaCepClient = viaCepClient;
+        this.enderecosPorCep = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiraPorResultado(Duration.ofHours(ttlHoras), Duration.ofSeconds(ttlNaoEncontradoSegundos)))
+                .refreshAfterWrite(Duration.ofHours(atualizarAposHoras))
+                .recordStats()
+                .build(viaCepClient::buscarDadosDeEndereco);
+        CaffeineCacheMetrics.monitor(meterRegistry, enderecosPorCep, "viacep");
+    }
+
     /**
      * MÉTODO: buscarDadosDeEndereco(String cep)
      * FUNÇÃO: Lógica de Orquestração. Recebe o CEP, valida o formato e faz a chamada HTTP.
@@ -37,10 +72,10 @@ public class ViaCepService {
         // Se o formato estiver errado (letras, tamanho), a IllegalArgumentException é lançada aqui.
         String cepValidado = procesarCep(cep);
 
-        // Passo 2: CONSUMO DE API EXTERNA
-        // O Service usa o CEP limpo e validado para fazer a chamada Feign.
-        // O retorno da chamada é o DTO preenchido pela API ViaCEP.
-        return viaCepClient.buscarDadosDeEndereco(cepValidado);
+        // Passo 2: CONSUMO DE API EXTERNA (com cache)
+        // O CEP limpo e validado é a chave do cache: em um acerto, nenhuma chamada HTTP é feita;
+        // em uma falta, o cache faz a chamada Feign e guarda o DTO preenchido pela API ViaCEP.
+        return enderecosPorCep.get(cepValidado);
     }
 
     /**
@@ -65,4 +100,25 @@ public class ViaCepService {
         return cepFormatado;
     }
 
-}
\ No newline at end of file
+    // BLOCÃO 3: VALIDADE DAS ENTRADAS DO CACHE
+    // -------------------------------------------------------------------------
+    // CEP encontrado: validade longa. CEP inexistente (erro = true): validade curta.
+    // A releitura (refresh) recalcula a validade a partir do novo resultado.
+    private record ExpiraPorResultado(Duration ttl, Duration ttlNaoEncontrado) implements Expiry<String, ViaCepDTO> {
+
+        @Override
+        public long expireAfterCreate(String cep, ViaCepDTO dto, long agora) {
+            return (Boolean.TRUE.equals(dto.getErro()) ? ttlNaoEncontrado : ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String cep, ViaCepDTO dto, long agora, long duracaoAtual) {
+            return expireAfterCreate(cep, dto, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String cep, ViaCepDTO dto, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
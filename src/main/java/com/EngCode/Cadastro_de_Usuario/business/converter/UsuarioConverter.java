@@ -13,10 +13,17 @@ import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Endereco;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Telefone;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
 
+// Importa as projeções de leitura — registros preenchidos direto pela consulta, sem Entity.
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.EnderecoLeitura;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.TelefoneLeitura;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioLeitura;
+
 import org.springframework.stereotype.Component; // Importa a anotação @Component.
 
 import java.util.ArrayList; // Importa classe para criar listas.
+import java.util.LinkedHashMap; // Mapa que preserva a ordem das colunas do PATCH.
 import java.util.List;      // Importa interface de Listas.
+import java.util.Map;       // Importa interface de Mapas.
 
 @Component
 // Esta anotação diz ao Spring: "Gerencie este objeto. Ele pode ser injetado (usado)
@@ -109,9 +116,11 @@ public class UsuarioConverter {
     public UsuarioDTO paraUsuarioDTO(Usuario usuario) {
         // ... (Uso do Builder para montar o DTO de saída)
         return UsuarioDTO.builder()
+                .id(usuario.getId())
                 .nome(usuario.getNome())
                 .email(usuario.getEmail())
                 .senha(usuario.getSenha()) // ⚠ Atenção: Senha é exposta aqui, o que não é ideal em produção.
+                .versao(usuario.getVersao())
                 .enderecos(usuario.getEnderecos() != null ?  paraListaEnderecoDTO(usuario.getEnderecos()) : null)
                 .telefones(usuario.getTelefones() != null ? paraListaTelefoneDTO(usuario.getTelefones()) : null)
                 .build();
@@ -134,7 +143,12 @@ public class UsuarioConverter {
         return EnderecoDTO.builder()
                 .id(endereco.getId()) // Inclui o ID gerado pelo banco.
                 .rua(endereco.getRua())
-                // ... (Mapeamento dos campos) ...
+                .numero(endereco.getNumero())
+                .complemento(endereco.getComplemento())
+                .cidade(endereco.getCidade())
+                .estado(endereco.getEstado())
+                .cep(endereco.getCep())
+                .versao(endereco.getVersao())
                 .build();
     }
 
@@ -150,57 +164,103 @@ public class UsuarioConverter {
                 .id(telefone.getId()) // Inclui o ID gerado pelo banco.
                 .numero(telefone.getNumero())
                 .ddd(telefone.getDdd())
+                .versao(telefone.getVersao())
                 .build();
     }
 
     // =====================================================================
-    // MÉTODOS DE ATUALIZAÇÃO (UPDATE)
+    // PROJEÇÃO → DTO (LEITURA SEM ENTITIES)
     // =====================================================================
 
     /**
-     * MÉTODO: updateDeUsuario(UsuarioDTO, Usuario)
-     * FUNÇÃO: Cria uma nova Entity de Usuário para o update, aplicando a lógica de "se nulo, manter o valor antigo".
-     * CONCEITO: Lógica de PATCH (atualização parcial). Garante que campos não enviados no DTO (se vierem como 'null')
-     * não sobrescrevam dados existentes no banco.
+     * MÉTODO: paraUsuarioDTO(UsuarioLeitura, List, List)
+     * FUNÇÃO: Monta o DTO de saída a partir das projeções de leitura (usuário, endereços e telefones).
+     * CONCEITO: Mesmo formato do paraUsuarioDTO(Usuario), mas sem senha: a projeção não lê essa coluna.
      */
-    public Usuario updateDeUsuario (UsuarioDTO usuarioDTO, Usuario usuario) {
-        return Usuario.builder()
-                // Operador Ternário: (Condição) ? (Se Verdadeiro) : (Se Falso)
-                // Se o nome do DTO não for null, usa o novo nome. Senão, mantém o nome antigo (usuario.getNome()).
-                .nome(usuarioDTO.getNome() != null ? usuarioDTO.getNome() : usuario.getNome())
-                .id(usuario.getId()) // O ID deve sempre ser mantido.
-                // ... (Aplica a mesma lógica para senha e email) ...
-                .senha(usuarioDTO.getSenha() != null ? usuarioDTO.getSenha() : usuario.getSenha())
-                .email(usuarioDTO.getEmail() != null ? usuarioDTO.getEmail() : usuario.getEmail())
-                .enderecos(usuario.getEnderecos()) // Mantém as listas existentes.
-                .telefones(usuario.getTelefones()) // Mantém as listas existentes.
+    public UsuarioDTO paraUsuarioDTO(UsuarioLeitura usuario, List<EnderecoLeitura> enderecos,
+                                     List<TelefoneLeitura> telefones) {
+        return UsuarioDTO.builder()
+                .id(usuario.id())
+                .nome(usuario.nome())
+                .email(usuario.email())
+                .versao(usuario.versao())
+                .enderecos(enderecos.stream().map(this::paraEnderecoDTO).toList())
+                .telefones(telefones.stream().map(this::paraTelefoneDTO).toList())
+                .build();
+    }
+
+    /** Converte EnderecoLeitura (projeção) em EnderecoDTO. */
+    public EnderecoDTO paraEnderecoDTO(EnderecoLeitura endereco) {
+        return EnderecoDTO.builder()
+                .id(endereco.id())
+                .rua(endereco.rua())
+                .numero(endereco.numero())
+                .complemento(endereco.complemento())
+                .cidade(endereco.cidade())
+                .estado(endereco.estado())
+                .cep(endereco.cep())
+                .versao(endereco.versao())
                 .build();
     }
 
+    /** Converte TelefoneLeitura (projeção) em TelefoneDTO. */
+    public TelefoneDTO paraTelefoneDTO(TelefoneLeitura telefone) {
+        return TelefoneDTO.builder()
+                .id(telefone.id())
+                .numero(telefone.numero())
+                .ddd(telefone.ddd())
+                .versao(telefone.versao())
+                .build();
+    }
+
+    // =====================================================================
+    // MÉTODOS DE ATUALIZAÇÃO (PATCH)
+    // =====================================================================
+
     /**
-     * MÉTODO: updateEndereco(EnderecoDTO, Endereco)
-     * FUNÇÃO: Atualiza os dados de um Endereço, aplicando a lógica de atualização parcial (PATCH).
+     * MÉTODO: camposAlterados(UsuarioDTO)
+     * FUNÇÃO: Monta o conjunto de colunas alteradas por um PATCH de usuário (coluna → novo valor).
+     * CONCEITO: Lógica de PATCH (atualização parcial): campos que vieram 'null' no DTO não entram no mapa,
+     * então o UPDATE gerado não toca nessas colunas e os dados existentes são preservados.
      */
-    public Endereco updateEndereco(EnderecoDTO enderecoDTO, Endereco endereco) {
-        return Endereco.builder()
-                .id(endereco.getId()) // ID do endereço existente.
-                // Aplica a lógica de "se nulo, manter o valor existente" para cada campo.
-                .rua(enderecoDTO.getRua() != null ? enderecoDTO.getRua() : endereco.getRua())
-                .estado(enderecoDTO.getEstado() != null ? enderecoDTO.getEstado() : endereco.getEstado())
-                // ... (Lógica de PATCH para todos os campos) ...
-                .build();
+    public Map<String, Object> camposAlterados(UsuarioDTO usuarioDTO) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        adicionarSeInformado(campos, "nome", usuarioDTO.getNome());
+        adicionarSeInformado(campos, "email", usuarioDTO.getEmail());
+        adicionarSeInformado(campos, "senha", usuarioDTO.getSenha()); // Já criptografada pelo Service.
+        return campos;
     }
 
     /**
-     * MÉTODO: updateTelefone(TelefoneDTO, Telefone)
-     * FUNÇÃO: Atualiza os dados de um Telefone, aplicando a lógica de atualização parcial (PATCH).
+     * MÉTODO: camposAlterados(EnderecoDTO)
+     * FUNÇÃO: Conjunto de colunas alteradas por um PATCH de endereço (todos os campos editáveis).
      */
-    public Telefone updateTelefone(TelefoneDTO telefoneDTO, Telefone telefone) {
-        return Telefone.builder()
-                .id(telefone.getId())
-                .ddd(telefoneDTO.getDdd() != null ? telefoneDTO.getDdd() : telefone.getDdd())
-                .numero(telefoneDTO.getNumero() != null ? telefoneDTO.getNumero() : telefone.getNumero())
-                .build();
+    public Map<String, Object> camposAlterados(EnderecoDTO enderecoDTO) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        adicionarSeInformado(campos, "rua", enderecoDTO.getRua());
+        adicionarSeInformado(campos, "numero", enderecoDTO.getNumero());
+        adicionarSeInformado(campos, "complemento", enderecoDTO.getComplemento());
+        adicionarSeInformado(campos, "cidade", enderecoDTO.getCidade());
+        adicionarSeInformado(campos, "estado", enderecoDTO.getEstado());
+        adicionarSeInformado(campos, "cep", enderecoDTO.getCep());
+        return campos;
+    }
+
+    /**
+     * MÉTODO: camposAlterados(TelefoneDTO)
+     * FUNÇÃO: Conjunto de colunas alteradas por um PATCH de telefone.
+     */
+    public Map<String, Object> camposAlterados(TelefoneDTO telefoneDTO) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        adicionarSeInformado(campos, "ddd", telefoneDTO.getDdd());
+        adicionarSeInformado(campos, "numero", telefoneDTO.getNumero());
+        return campos;
+    }
+
+    private void adicionarSeInformado(Map<String, Object> campos, String coluna, Object valor) {
+        if (valor != null) {
+            campos.put(coluna, valor);
+        }
     }
 
     // =====================================================================
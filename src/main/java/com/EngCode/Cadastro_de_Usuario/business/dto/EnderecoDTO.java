@@ -37,6 +37,10 @@ public class EnderecoDTO {
     private String cidade;
     private String estado;
     private String cep;
+
+    private Long versao;
+    // Preenchido apenas na SAÍDA: versão atual do registro (a mesma do header ETag). Para atualizar sem
+    // sobrescrever alterações de outra requisição, envie-a no header If-Match.
     // Todos os atributos representam os dados que serão mapeados.
     // DICA: Em DTOs de entrada, você pode adicionar anotações de validação (ex: @NotBlank) aqui.
 }
\ No newline at end of file
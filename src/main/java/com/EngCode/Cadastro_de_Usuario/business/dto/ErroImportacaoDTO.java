@@ -0,0 +1,29 @@
+package com.EngCode.Cadastro_de_Usuario.business.dto;
+// Define o pacote onde esta classe reside ('business.dto': objetos de transferência de dados).
+
+import lombok.*;
+// Importa as anotações do Lombok para gerar o código padrão (boilerplate).
+
+// BLOCÃO 1: ANOTAÇÕES DO LOMBOK
+// -------------------------------------------------------------------------
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+
+public class ErroImportacaoDTO {
+// Uma linha do arquivo de importação que não foi gravada (conflito ou dado inválido).
+
+// BLOCÃO 2: ATRIBUTOS
+// -------------------------------------------------------------------------
+
+    private long linha;
+    // Número da linha no arquivo enviado (começando em 1; no CSV a linha 1 é o cabeçalho).
+
+    private String email;
+    // E-mail informado na linha (null se a linha não pôde ser lida).
+
+    private String motivo;
+    // Motivo da rejeição (ex: "E-mail já cadastrado.").
+}
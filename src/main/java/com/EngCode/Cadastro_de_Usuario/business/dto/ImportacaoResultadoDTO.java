@@ -0,0 +1,38 @@
+package com.EngCode.Cadastro_de_Usuario.business.dto;
+// Define o pacote onde esta classe reside ('business.dto': objetos de transferência de dados).
+
+import lombok.*;
+// Importa as anotações do Lombok para gerar o código padrão (boilerplate).
+
+import java.util.List;
+// Importa a interface List, usada para a lista de linhas rejeitadas.
+
+// BLOCÃO 1: ANOTAÇÕES DO LOMBOK
+// -------------------------------------------------------------------------
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+
+public class ImportacaoResultadoDTO {
+// Relatório devolvido por POST /usuario/import.
+
+// BLOCÃO 2: ATRIBUTOS
+// -------------------------------------------------------------------------
+
+    private long linhasLidas;
+    // Linhas de dados processadas (sem contar o cabeçalho do CSV e linhas em branco).
+
+    private long importados;
+    // Usuários gravados com sucesso.
+
+    private long conflitos;
+    // Linhas rejeitadas porque o e-mail já existia (no banco ou repetido no próprio arquivo).
+
+    private long invalidos;
+    // Linhas rejeitadas por formato inválido ou campos obrigatórios ausentes.
+
+    private List<ErroImportacaoDTO> erros;
+    // Detalhe das linhas rejeitadas, limitado a 'importacao.max-erros-relatados' itens.
+}
@@ -0,0 +1,29 @@
+package com.EngCode.Cadastro_de_Usuario.business.dto;
+// Define o pacote onde esta classe reside ('business.dto': objetos de transferência de dados).
+
+import lombok.*;
+// Importa as anotações do Lombok para gerar o código padrão (boilerplate).
+
+import java.util.List;
+// Importa a interface List, usada para os itens da página.
+
+// BLOCÃO 1: ANOTAÇÕES DO LOMBOK
+// -------------------------------------------------------------------------
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+
+public class PaginaUsuariosDTO {
+// Uma página do resultado da busca de usuários (paginação por chave).
+
+// BLOCÃO 2: ATRIBUTOS
+// -------------------------------------------------------------------------
+
+    private List<UsuarioResumoDTO> itens;
+    // Usuários desta página, em ordem de nome (ou e-mail) e id.
+
+    private String proximoCursor;
+    // Valor a enviar no parâmetro 'cursor' para obter a próxima página (null quando não há mais resultados).
+}
@@ -0,0 +1,29 @@
+package com.EngCode.Cadastro_de_Usuario.business.dto;
+// Define o pacote onde esta classe reside ('business.dto': objetos de transferência de dados).
+
+import lombok.*;
+// Importa as anotações do Lombok para gerar o código padrão (boilerplate).
+
+// BLOCÃO 1: ANOTAÇÕES DO LOMBOK
+// -------------------------------------------------------------------------
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+
+public class RebalanceamentoShardsDTO {
+// Resposta de POST /usuario/admin/shards/rebalanceamento: andamento de uma execução do rebalanceamento.
+
+// BLOCÃO 2: ATRIBUTOS
+// -------------------------------------------------------------------------
+
+    private long verificados;
+    // Usuários percorridos nesta execução.
+
+    private long movidos;
+    // Usuários movidos para o shard dono do seu e-mail.
+
+    private boolean concluido;
+    // false: o limite de movimentações foi atingido; chame novamente para continuar.
+}
@@ -37,4 +37,7 @@ public class TelefoneDTO {
 
     private String ddd;
     // O código de área do telefone.
+
+    private Long versao;
+    // Preenchido apenas na SAÍDA: versão atual do telefone (a mesma do header ETag), para o If-Match.
 }
\ No newline at end of file
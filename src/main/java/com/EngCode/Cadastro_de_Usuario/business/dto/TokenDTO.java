@@ -0,0 +1,27 @@
+package com.EngCode.Cadastro_de_Usuario.business.dto;
+// Define o pacote onde esta classe reside ('business.dto': objetos de transferência de dados).
+
+import lombok.*;
+// Importa as anotações do Lombok para gerar o código padrão (boilerplate).
+
+// BLOCÃO 1: ANOTAÇÕES DO LOMBOK
+// -------------------------------------------------------------------------
+@Builder
+// Gera o Padrão Builder (ex: TokenDTO.builder().accessToken("...").build()).
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+
+public class TokenDTO {
+// Par de tokens emitido no login e na renovação.
+
+// BLOCÃO 2: ATRIBUTOS
+// -------------------------------------------------------------------------
+
+    private String accessToken;
+    // Token de acesso, no formato "Bearer ...", enviado no header Authorization das requisições.
+
+    private String refreshToken;
+    // Token de renovação (vida longa). Só é aceito em POST /usuario/token/refresh.
+}
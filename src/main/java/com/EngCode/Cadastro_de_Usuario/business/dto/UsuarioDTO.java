@@ -31,6 +31,9 @@ public class UsuarioDTO {
 // BLOCÃO 2: ATRIBUTOS (Os Dados de Comunicação)
 // -------------------------------------------------------------------------
 
+    private Long id;
+    // Preenchido apenas na SAÍDA. Na exportação, é o cursor para retomar (parâmetro 'ultimoId').
+
     private String nome;
     // Campo simples. Usado tanto na entrada (cadastro) quanto na saída (consulta).
 
@@ -47,4 +50,8 @@ public class UsuarioDTO {
 
     private List<TelefoneDTO> telefones;
     // Relacionamento Um-para-Muitos: Outra lista de objetos DTO aninhados.
+
+    private Long versao;
+    // Preenchido apenas na SAÍDA: versão atual do registro (a mesma do header ETag). Para atualizar sem
+    // sobrescrever alterações de outra requisição, envie-a no header If-Match.
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.EngCode.Cadastro_de_Usuario.controller;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.IllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// BLOCÃO 1: ETAG ↔ VERSÃO DO REGISTRO
+// -------------------------------------------------------------------------
+// O ETag de um usuário, endereço ou telefone é a sua coluna 'versao' entre aspas (ex: "3").
+// O cliente guarda o ETag da leitura e o devolve no header If-Match da atualização:
+// se o registro mudou nesse meio-tempo, a resposta é 412 em vez de sobrescrever a alteração do outro.
+final class EtagVersao {
+
+    private EtagVersao() {
+    }
+
+    /**
+     * MÉTODO: etag(Long)
+     * FUNÇÃO: Valor do header ETag para a versão informada.
+     */
+    static String etag(Long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    /**
+     * MÉTODO: versoesDoIfMatch(String)
+     * FUNÇÃO: Converte o header If-Match nas versões aceitas pela atualização.
+     * Retorna null quando não há condição (header ausente ou "*": basta o registro existir).
+     * ETags fracos (W/"...") nunca correspondem no If-Match (comparação forte), então são ignorados;
+     * se nenhum ETag forte sobrar, a lista fica vazia e a atualização responde 412.
+     */
+    static List<Long> versoesDoIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versoes = new ArrayList<>();
+        for (String etag : ifMatch.split(",")) {
+            String valor = etag.trim();
+            if (valor.startsWith("W/")) {
+                continue;
+            }
+            if (valor.length() < 2 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+                throw new IllegalArgumentException("Header If-Match inválido: use o ETag recebido (ex: \"3\").");
+            }
+            try {
+                versoes.add(Long.parseLong(valor.substring(1, valor.length() - 1)));
+            } catch (NumberFormatException e) {
+                // ETag que este serviço nunca emitiu: não corresponde a nenhuma versão.
+            }
+        }
+        return versoes;
+    }
+}
@@ -6,10 +6,15 @@ package com.EngCode.Cadastro_de_Usuario.controller;
 // Importa suas Exceções Personalizadas (ResourceNotFound, Conflict, Unauthorized).
 import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.ConflictException;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.IllegalArgumentException; // Sua nova exceção de validação
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.MuitasTentativasException;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.PrecondicaoFalhouException;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.ResourceNotFoundException;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.ServicoIndisponivelException;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.UnauthorizedException;
 
 // Importações do Spring para tratamento de exceções REST
+import org.springframework.dao.OptimisticLockingFailureException; // Conflito de versão (@Version) detectado pelo Hibernate
+import org.springframework.http.HttpHeaders; // Constantes de nomes de headers HTTP (ex: Retry-After)
 import org.springframework.http.HttpStatus; // Classe que representa os códigos HTTP (404, 409, 401, etc.)
 import org.springframework.http.ResponseEntity; // Usado para criar a resposta HTTP completa (código + corpo/mensagem)
 import org.springframework.web.bind.annotation.ControllerAdvice; // Anotação que habilita o tratamento global
@@ -70,4 +75,51 @@ public class GlobalExceptionHandler {
         // Retorna: Mensagem da exceção com o Status HTTP 400 (BAD_REQUEST). Este é o código correto para falhas de validação de input.
         return new ResponseEntity<> (illegalArgumentException.getMessage(), HttpStatus.BAD_REQUEST);
     }
-}
\ No newline at end of file
+
+    // BLOCÃO 7: TRATAMENTO DE ServicoIndisponivelException (HTTP 503 - Serviço Indisponível)
+    // -------------------------------------------------------------------------
+
+    @ExceptionHandler(ServicoIndisponivelException.class)
+    // Mapeia: Executa este método quando um recurso limitado está saturado (ex: fila de hashing de senhas cheia).
+    public ResponseEntity<String> handlerServicoIndisponivelException(ServicoIndisponivelException servicoIndisponivelException) {
+        // Retorna: Status HTTP 503 com o header Retry-After, indicando em quantos segundos o cliente deve tentar novamente.
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(servicoIndisponivelException.getSegundosParaNovaTentativa()))
+                .body(servicoIndisponivelException.getMessage());
+    }
+
+    // BLOCÃO 8: TRATAMENTO DE MuitasTentativasException (HTTP 429 - Muitas Requisições)
+    // -------------------------------------------------------------------------
+
+    @ExceptionHandler(MuitasTentativasException.class)
+    // Mapeia: Executa este método quando o limitador de login rejeita a tentativa (IP/e-mail ou conta bloqueada).
+    public ResponseEntity<String> handlerMuitasTentativasException(MuitasTentativasException muitasTentativasException) {
+        // Retorna: Status HTTP 429 com o header Retry-After.
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(muitasTentativasException.getSegundosParaNovaTentativa()))
+                .body(muitasTentativasException.getMessage());
+    }
+
+    // BLOCÃO 9: TRATAMENTO DE PrecondicaoFalhouException (HTTP 412 - Pré-condição Falhou)
+    // -------------------------------------------------------------------------
+
+    @ExceptionHandler(PrecondicaoFalhouException.class)
+    // Mapeia: Executa este método quando o If-Match de uma atualização não corresponde à versão atual do registro.
+    public ResponseEntity<String> handlerPrecondicaoFalhouException(PrecondicaoFalhouException precondicaoFalhouException) {
+        // Retorna: Status HTTP 412 com o ETag da versão atual (o cliente relê o registro e decide se reaplica a alteração).
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(EtagVersao.etag(precondicaoFalhouException.getVersaoAtual()))
+                .body(precondicaoFalhouException.getMessage());
+    }
+
+    // BLOCÃO 10: TRATAMENTO DE OptimisticLockingFailureException (HTTP 409 - Conflito)
+    // -------------------------------------------------------------------------
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    // Mapeia: Conflito de versão inesperado em uma gravação pelo Hibernate (@Version). Os caminhos concorrentes
+    // conhecidos não chegam aqui: o PUT sem If-Match é um único UPDATE, o If-Match divergente responde 412 e a
+    // regravação do hash da senha é um compare-and-set que desiste em silêncio.
+    public ResponseEntity<String> handlerOptimisticLockingFailureException(OptimisticLockingFailureException optimisticLockingFailureException) {
+        return new ResponseEntity<>("O registro foi alterado por outra requisição. Tente novamente.", HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,32 @@
+package com.EngCode.Cadastro_de_Usuario.controller;
+
+// BLOCÃO 1: IMPORTAÇÕES
+// -------------------------------------------------------------------------
+import com.EngCode.Cadastro_de_Usuario.infrastructure.security.ChaveiroJwt;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// BLOCÃO 2: ESTRUTURA
+// -------------------------------------------------------------------------
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Chaves públicas para validação local dos Tokens JWT")
+// Publica as chaves públicas do ChaveiroJwt. Outros microsserviços usam este documento para
+// verificar nossos tokens localmente, sem segredo compartilhado e sem chamar este serviço.
+public class JwksController {
+
+    private final ChaveiroJwt chaveiroJwt;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Chaves Públicas (JWKS)", description = "Retorna o JWK Set com as chaves públicas que assinam os Tokens JWT (Rota pública).")
+    @ApiResponse(responseCode = "200", description = "JWK Set retornado com sucesso.")
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok(chaveiroJwt.jwksJson());
+    }
+}
@@ -3,13 +3,20 @@ package com.EngCode.Cadastro_de_Usuario.controller;
 // BLOCÃO 1: IMPORTAÇÕES E FERRAMENTAS
 // -------------------------------------------------------------------------
 
+import com.EngCode.Cadastro_de_Usuario.business.ExportacaoUsuarioService;
+import com.EngCode.Cadastro_de_Usuario.business.ImportacaoUsuarioService;
+import com.EngCode.Cadastro_de_Usuario.business.TokenService;
 import com.EngCode.Cadastro_de_Usuario.business.UsuarioService;
 import com.EngCode.Cadastro_de_Usuario.business.ViaCepService; // Importação do novo serviço ViaCEP
 import com.EngCode.Cadastro_de_Usuario.business.dto.EnderecoDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.ImportacaoResultadoDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.PaginaUsuariosDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.RebalanceamentoShardsDTO;
 import com.EngCode.Cadastro_de_Usuario.business.dto.TelefoneDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.TokenDTO;
 import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.clients.ViaCepDTO; // DTO de retorno da ViaCEP
-import com.EngCode.Cadastro_de_Usuario.infrastructure.security.JwtUtil;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.security.LimitadorLogin;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.security.SecurityConfig;
 
 // Adição das importações do Swagger (OpenAPI 3)
@@ -18,15 +25,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 
 
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 // BLOCÃO 2: ESTRUTURA E INJEÇÃO DE DEPENDÊNCIA
 // -------------------------------------------------------------------------
 
@@ -42,11 +57,17 @@ import org.springframework.web.bind.annotation.*;
 // SWAGGER: Indica globalmente que a maioria das rotas requer o Token JWT.
 public class UsuarioControler {
 
+    // Header usado para entregar (login) e receber (renovação) o refresh token.
+    private static final String HEADER_REFRESH_TOKEN = "X-Refresh-Token";
+
     // As dependências são injetadas automaticamente pelo Spring.
     private final UsuarioService usuarioService; // Coordena a lógica de negócio.
     private final AuthenticationManager authenticationManager; // Gerencia o processo de Login/Senha.
-    private final JwtUtil jwtUtil; // Ferramenta para gerar o Token JWT.
+    private final TokenService tokenService; // Emissão, renovação e revogação dos Tokens JWT.
     private final ViaCepService viaCepService; // Novo serviço injetado para a consulta de CEP.
+    private final LimitadorLogin limitadorLogin; // Limite de tentativas de login por IP e por e-mail.
+    private final ImportacaoUsuarioService importacaoUsuarioService; // Importação em lote (NDJSON/CSV).
+    private final ExportacaoUsuarioService exportacaoUsuarioService; // Exportação em streaming (NDJSON).
 
     // BLOCÃO 3: ENDPOINTS DE CADASTRO E LOGIN (Públicos)
     // -------------------------------------------------------------------------
@@ -63,22 +84,68 @@ public class UsuarioControler {
         return ResponseEntity.ok(usuarioService.salvaUsuario(usuarioDTO));
     }
 
+    @GetMapping("/email/disponivel")
+    // SWAGGER: Documentação do endpoint de Pré-checagem de E-mail.
+    @Operation(summary = "Verificar Disponibilidade de E-mail", description = "Pré-checagem opcional para o formulário de cadastro (Rota pública). O cadastro continua retornando 409 se o e-mail for registrado nesse meio-tempo.")
+    @ApiResponse(responseCode = "200", description = "true se o e-mail estiver disponível, false se já estiver cadastrado.")
+    public ResponseEntity<Boolean> emailDisponivel(@RequestParam("email") String email) {
+        return ResponseEntity.ok(!usuarioService.verificaEmailExistente(email));
+    }
+
     @PostMapping("/login")
     // SWAGGER: Documentação do endpoint de Login.
     @Operation(summary = "Login de Usuário", description = "Autentica o usuário e retorna o Token JWT.")
-    @ApiResponse(responseCode = "200", description = "Login bem-sucedido. Retorna o Token JWT no formato 'Bearer ...'.")
+    @ApiResponse(responseCode = "200", description = "Login bem-sucedido. Retorna o Token JWT no formato 'Bearer ...' e o refresh token no header X-Refresh-Token.")
     @ApiResponse(responseCode = "401", description = "Credenciais Inválidas (Usuário/Senha incorretos).")
+    @ApiResponse(responseCode = "429", description = "Muitas tentativas de login (limite por IP/e-mail ou conta bloqueada). Ver header Retry-After.")
     @ApiResponse(responseCode = "500", description = "Erro de Servidor.")
-    public String login(@RequestBody UsuarioDTO usuarioDTO) {
+    public ResponseEntity<String> login(@RequestBody UsuarioDTO usuarioDTO, HttpServletRequest request) {
+        // Limite de tentativas: rejeita ANTES de qualquer verificação de senha (a operação mais cara).
+        // getRemoteAddr já é o IP do cliente atrás de um proxy confiável (server.forward-headers-strategy=native).
+        limitadorLogin.verificar(usuarioDTO.getEmail(), request.getRemoteAddr());
+
         // Cria o objeto necessário para o Spring Security verificar as credenciais.
         UsernamePasswordAuthenticationToken token =
                 new UsernamePasswordAuthenticationToken(usuarioDTO.getEmail(), usuarioDTO.getSenha());
 
         // authenticationManager.authenticate: Tenta autenticar.
-        Authentication authentication = authenticationManager.authenticate(token);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(token);
+        } catch (AuthenticationException e) {
+            // Falhas seguidas levam ao bloqueio progressivo da conta.
+            limitadorLogin.registrarFalha(usuarioDTO.getEmail());
+            throw e;
+        }
+        limitadorLogin.registrarSucesso(usuarioDTO.getEmail());
+
+        // Gera o access token (corpo) e o refresh token (header) com o e-mail e o perfil do usuário autenticado.
+        TokenDTO tokens = tokenService.emitirTokens(authentication);
+        return ResponseEntity.ok()
+                .header(HEADER_REFRESH_TOKEN, tokens.getRefreshToken())
+                .body(tokens.getAccessToken());
+    }
 
-        // Gera o Token JWT usando o e-mail (ou username) do usuário autenticado.
-        return "Bearer " + jwtUtil.generateToken(authentication.getName());
+    @PostMapping("/token/refresh")
+    // SWAGGER: Documentação do endpoint de Renovação de Token.
+    @Operation(summary = "Renovar Token", description = "Troca o refresh token (header X-Refresh-Token) por um novo par de tokens. O refresh token usado é revogado.")
+    @ApiResponse(responseCode = "200", description = "Tokens renovados.")
+    @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado ou revogado.")
+    public ResponseEntity<TokenDTO> renovaToken(@RequestHeader(HEADER_REFRESH_TOKEN) String refreshToken) {
+        return ResponseEntity.ok(tokenService.renovarTokens(refreshToken));
+    }
+
+    @PostMapping("/logout")
+    // SWAGGER: Documentação do endpoint de Logout.
+    @Operation(summary = "Logout", description = "Revoga o Token atual e, se informado no header X-Refresh-Token, o refresh token. Requer Token.")
+    @ApiResponse(responseCode = "200", description = "Tokens revogados.")
+    @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
+    public ResponseEntity<Void> logout(
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HEADER_REFRESH_TOKEN, required = false) String refreshToken) {
+
+        tokenService.encerrarSessao(token, refreshToken);
+        return ResponseEntity.ok().build();
     }
 
     // BLOCÃO 4: ENDPOINTS DE CONSULTA E REMOÇÃO (Protegidos)
@@ -93,12 +160,30 @@ public class UsuarioControler {
     @ApiResponse(responseCode = "500", description = "Erro de Servidor.")
     public ResponseEntity<UsuarioDTO> buscaUsuarioPorEmail(@RequestParam("email") String email) {
         // @RequestParam("email"): Pega o valor da URL.
-        return ResponseEntity.ok(usuarioService.buscarUsuarioPorEmail(email));
+        UsuarioDTO usuarioDTO = usuarioService.buscarUsuarioPorEmail(email);
+        // ETag: versão atual do usuário, para o If-Match do PUT (endereços e telefones trazem a própria 'versao').
+        return ResponseEntity.ok().eTag(EtagVersao.etag(usuarioDTO.getVersao())).body(usuarioDTO);
+    }
+
+    @GetMapping("/search")
+    // SWAGGER: Documentação do endpoint de Busca por Prefixo.
+    @Operation(summary = "Buscar Usuários por Prefixo", description = "Busca por prefixo do nome OU do e-mail, sem diferenciar maiúsculas. Retorna id, nome e e-mail, uma página por vez: envie o 'proximoCursor' recebido no parâmetro 'cursor'. Requer Token de administrador.")
+    @ApiResponse(responseCode = "200", description = "Página de resultados.")
+    @ApiResponse(responseCode = "400", description = "Filtro ausente/duplicado ou cursor inválido.")
+    @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
+    @ApiResponse(responseCode = "403", description = "Proibido (usuário sem perfil de administrador).")
+    public ResponseEntity<PaginaUsuariosDTO> buscaUsuarios(
+            @RequestParam(value = "nome", required = false) String nome,
+            @RequestParam(value = "email", required = false) String email,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", required = false) Integer limite) {
+
+        return ResponseEntity.ok(usuarioService.buscarUsuarios(nome, email, cursor, limite));
     }
 
     @DeleteMapping("/{email}")
     // SWAGGER: Documentação do endpoint de Deleção.
-    @Operation(summary = "Deletar Usuário por E-mail", description = "Remove o registro do usuário especificado. Requer Token.")
+    @Operation(summary = "Deletar Usuário por E-mail", description = "Exclui o usuário especificado (some das consultas na hora; os dados são apagados em segundo plano). Requer Token.")
     @ApiResponse(responseCode = "200", description = "Usuário Deletado Com Sucesso.")
     @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
     @ApiResponse(responseCode = "404", description = "Usuário não encontrado.")
@@ -111,49 +196,85 @@ public class UsuarioControler {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/admin/exclusao")
+    // SWAGGER: Documentação do endpoint de Deleção em Lote.
+    @Operation(summary = "Deletar Usuários em Lote", description = "Exclui os usuários com os e-mails da lista em um único UPDATE por shard; endereços, telefones e usuários são apagados em segundo plano. Requer Token de administrador.")
+    @ApiResponse(responseCode = "200", description = "Quantidade de usuários removidos.")
+    @ApiResponse(responseCode = "400", description = "Lista acima do limite de e-mails por requisição.")
+    @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
+    @ApiResponse(responseCode = "403", description = "Proibido (usuário sem perfil de administrador).")
+    public ResponseEntity<Integer> deletaUsuariosEmLote(@RequestBody List<String> emails) {
+        return ResponseEntity.ok(usuarioService.deletaUsuariosPorEmail(emails));
+    }
+
+    @PostMapping("/admin/shards/rebalanceamento")
+    // SWAGGER: Documentação do endpoint de Rebalanceamento dos Shards.
+    @Operation(summary = "Rebalancear Shards", description = "Move para o shard correto (hash do e-mail) até 'limite' usuários que estão em outro shard, ex: após acrescentar um shard. O serviço continua atendendo durante a execução. Requer Token de administrador.")
+    @ApiResponse(responseCode = "200", description = "Andamento: usuários verificados, movidos e se o rebalanceamento terminou.")
+    @ApiResponse(responseCode = "400", description = "Sharding desabilitado.")
+    @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
+    @ApiResponse(responseCode = "403", description = "Proibido (usuário sem perfil de administrador).")
+    public ResponseEntity<RebalanceamentoShardsDTO> rebalanceiaShards(
+            @RequestParam(value = "limite", defaultValue = "1000") int limite) {
+        return ResponseEntity.ok(usuarioService.rebalancearShards(limite));
+    }
+
     // BLOCÃO 5: ENDPOINTS DE ATUALIZAÇÃO (Protegidos)
     // -------------------------------------------------------------------------
 
     @PutMapping
     // SWAGGER: Documentação do endpoint de Atualização Principal.
-    @Operation(summary = "Atualizar Dados Principais do Usuário", description = "Atualiza nome, e-mail ou senha do usuário logado. Requer Token.")
-    @ApiResponse(responseCode = "200", description = "Dados Atualizados Com Sucesso.")
+    @Operation(summary = "Atualizar Dados Principais do Usuário", description = "Atualiza nome, e-mail ou senha do usuário logado. Com o header If-Match (ETag de uma leitura anterior), só atualiza se o usuário não tiver sido alterado desde então. Requer Token.")
+    @ApiResponse(responseCode = "200", description = "Dados Atualizados Com Sucesso (header ETag com a nova versão).")
     @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
+    @ApiResponse(responseCode = "409", description = "E-mail já cadastrado ou conflito de versão.")
+    @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual (header ETag com a versão atual).")
+    @ApiResponse(responseCode = "503", description = "Shard do novo e-mail indisponível; nada foi alterado (header Retry-After).")
     @ApiResponse(responseCode = "500", description = "Erro de Servidor.")
     public ResponseEntity<UsuarioDTO> atualizaDadosUsuario(
             @RequestBody UsuarioDTO usuarioDTO, // Novos dados do usuário
-            @RequestHeader("Authorization") String token) {
-        // @RequestHeader: Captura o Token JWT.
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // @RequestHeader: Captura o Token JWT e, opcionalmente, o ETag esperado.
 
-        return ResponseEntity.ok(usuarioService.atualizaDaddosUsuario(token, usuarioDTO));
+        UsuarioDTO atualizado = usuarioService.atualizaDaddosUsuario(token, usuarioDTO, EtagVersao.versoesDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(EtagVersao.etag(atualizado.getVersao())).body(atualizado);
     }
 
     @PutMapping("/endereco")
     // SWAGGER: Documentação do endpoint de Atualização de Endereço.
-    @Operation(summary = "Atualizar Endereço Existente", description = "Atualiza um endereço específico do usuário logado pelo ID do endereço. Requer Token.")
-    @ApiResponse(responseCode = "200", description = "Endereço Atualizado Com Sucesso.")
+    @Operation(summary = "Atualizar Endereço Existente", description = "Atualiza um endereço específico do usuário logado pelo ID do endereço. Aceita If-Match com a 'versao' do endereço (ex: \"2\"). Requer Token.")
+    @ApiResponse(responseCode = "200", description = "Endereço Atualizado Com Sucesso (header ETag com a nova versão).")
     @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
     @ApiResponse(responseCode = "404", description = "Endereço não encontrado.")
+    @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual (header ETag com a versão atual).")
     @ApiResponse(responseCode = "500", description = "Erro de Servidor.")
     public ResponseEntity<EnderecoDTO> atualizaEndereco(
             @RequestBody EnderecoDTO enderecoDTO,
-            @RequestParam("id") Long id) { // ID do endereço a ser atualizado.
+            @RequestParam("id") Long id, // ID do endereço a ser atualizado.
+            @RequestHeader("Authorization") String token, // Identifica o usuário (e o shard) dono do endereço.
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        return ResponseEntity.ok(usuarioService.atualizaEndereco(id, enderecoDTO));
+        EnderecoDTO atualizado = usuarioService.atualizaEndereco(token, id, enderecoDTO, EtagVersao.versoesDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(EtagVersao.etag(atualizado.getVersao())).body(atualizado);
     }
 
     @PutMapping("/telefone")
     // SWAGGER: Documentação do endpoint de Atualização de Telefone.
-    @Operation(summary = "Atualizar Telefone Existente", description = "Atualiza um telefone específico do usuário logado pelo ID do telefone. Requer Token.")
-    @ApiResponse(responseCode = "200", description = "Telefone Atualizado Com Sucesso.")
+    @Operation(summary = "Atualizar Telefone Existente", description = "Atualiza um telefone específico do usuário logado pelo ID do telefone. Aceita If-Match com a 'versao' do telefone (ex: \"2\"). Requer Token.")
+    @ApiResponse(responseCode = "200", description = "Telefone Atualizado Com Sucesso (header ETag com a nova versão).")
     @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
     @ApiResponse(responseCode = "404", description = "Telefone não encontrado.")
+    @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual (header ETag com a versão atual).")
     @ApiResponse(responseCode = "500", description = "Erro de Servidor.")
     public ResponseEntity<TelefoneDTO> atualizaTelefone(
             @RequestBody TelefoneDTO telefoneDTO,
-            @RequestParam("id") Long id) { // ID do telefone a ser atualizado.
+            @RequestParam("id") Long id, // ID do telefone a ser atualizado.
+            @RequestHeader("Authorization") String token, // Identifica o usuário (e o shard) dono do telefone.
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        return ResponseEntity.ok(usuarioService.atualizaTelefones(id, telefoneDTO));
+        TelefoneDTO atualizado = usuarioService.atualizaTelefones(token, id, telefoneDTO, EtagVersao.versoesDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(EtagVersao.etag(atualizado.getVersao())).body(atualizado);
     }
 
     // BLOCÃO 6: ENDPOINTS DE CRIAÇÃO DE RECURSOS ANINHADOS (Protegidos)
@@ -188,6 +309,40 @@ public class UsuarioControler {
         return ResponseEntity.ok(usuarioService.cadastraTelefone(token, telefoneDTO));
     }
 
+    // BLOCÃO 6.1: IMPORTAÇÃO E EXPORTAÇÃO EM LOTE (Administrador)
+    // -------------------------------------------------------------------------
+
+    @PostMapping(value = "/import", consumes = {ImportacaoUsuarioService.FORMATO_NDJSON, ImportacaoUsuarioService.FORMATO_CSV})
+    // SWAGGER: Documentação do endpoint de Importação em Lote.
+    @Operation(summary = "Importar Usuários em Lote", description = "Recebe NDJSON (um usuário por linha) ou CSV (cabeçalho nome,email,senha) em streaming e grava em lotes. Requer Token de administrador.")
+    @ApiResponse(responseCode = "200", description = "Importação concluída. Retorna as contagens e as linhas rejeitadas (conflitos e inválidas).")
+    @ApiResponse(responseCode = "400", description = "Formato não suportado ou cabeçalho CSV inválido.")
+    @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
+    @ApiResponse(responseCode = "403", description = "Proibido (usuário sem perfil de administrador).")
+    public ResponseEntity<ImportacaoResultadoDTO> importaUsuarios(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        // O corpo NÃO é lido pelo Spring (@RequestBody): o service consome o InputStream linha a linha.
+        MediaType tipo = MediaType.parseMediaType(contentType);
+        return ResponseEntity.ok(importacaoUsuarioService.importar(request.getInputStream(),
+                tipo.getType() + "/" + tipo.getSubtype()));
+    }
+
+    @GetMapping(value = "/admin/export", produces = ExportacaoUsuarioService.FORMATO_NDJSON)
+    // SWAGGER: Documentação do endpoint de Exportação.
+    @Operation(summary = "Exportar Usuários", description = "Envia em streaming (NDJSON, ordenado por id) todos os usuários com endereços e telefones. Para retomar, informe em 'ultimoId' o id da última linha recebida. Requer Token de administrador.")
+    @ApiResponse(responseCode = "200", description = "Exportação enviada (um usuário por linha, sem a senha).")
+    @ApiResponse(responseCode = "401", description = "Não Autorizado (Token Inválido).")
+    @ApiResponse(responseCode = "403", description = "Proibido (usuário sem perfil de administrador).")
+    public void exportaUsuarios(
+            @RequestParam(value = "ultimoId", defaultValue = "0") long ultimoId,
+            HttpServletResponse response) throws IOException {
+        // Escreve direto no fluxo da resposta, página a página (sem montar a lista completa em memória).
+        response.setContentType(ExportacaoUsuarioService.FORMATO_NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        exportacaoUsuarioService.exportar(ultimoId, response.getOutputStream());
+    }
+
     // BLOCÃO 7: ENDPOINT DE CONSUMO DE API EXTERNA (ViaCEP)
     // -------------------------------------------------------------------------
 
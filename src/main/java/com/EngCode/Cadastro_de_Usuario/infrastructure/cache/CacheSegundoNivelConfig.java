@@ -0,0 +1,82 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.cache;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.RegioesCache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// BLOCÃO 1: CACHE DE SEGUNDO NÍVEL DO HIBERNATE (JCACHE + CAFFEINE)
+// -------------------------------------------------------------------------
+@Configuration
+// Cria as regiões do cache de segundo nível (uma por entidade, coleção e ID natural, ver RegioesCache),
+// todas limitadas em tamanho e tempo de vida, e entrega o CacheManager pronto ao Hibernate.
+// Métricas expostas em /actuator/metrics:
+// - cache.gets (result=hit/miss), cache.puts, cache.evictions e cache.removals por região (cache=<região>);
+// - hibernate.second.level.cache.* e hibernate.cache.natural.id.* (estatísticas do próprio Hibernate).
+public class CacheSegundoNivelConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager gerenciadorCacheSegundoNivel(
+            MeterRegistry meterRegistry,
+            @Value("${cache.segundo-nivel.usuario.tamanho-maximo:10000}") long tamanhoUsuarios,
+            @Value("${cache.segundo-nivel.endereco.tamanho-maximo:20000}") long tamanhoEnderecos,
+            @Value("${cache.segundo-nivel.telefone.tamanho-maximo:20000}") long tamanhoTelefones,
+            @Value("${cache.segundo-nivel.ttl-segundos:600}") long ttlSegundos) {
+        CachingProvider provedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Um CacheManager próprio (URI única) por contexto: o padrão do provedor é compartilhado pela JVM inteira,
+        // e um segundo contexto na mesma JVM (testes com outra configuração, benchmarks) falharia ao recriar as regiões.
+        CacheManager cacheManager = provedor.getCacheManager(
+                URI.create("cadastro-de-usuario:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        Duration ttl = Duration.ofSeconds(ttlSegundos);
+        // Usuário, e-mail → id e as duas coleções seguem a mesma quantidade de usuários.
+        criarRegiao(cacheManager, meterRegistry, RegioesCache.USUARIO, tamanhoUsuarios, ttl);
+        criarRegiao(cacheManager, meterRegistry, RegioesCache.USUARIO_EMAIL, tamanhoUsuarios, ttl);
+        criarRegiao(cacheManager, meterRegistry, RegioesCache.USUARIO_ENDERECOS, tamanhoUsuarios, ttl);
+        criarRegiao(cacheManager, meterRegistry, RegioesCache.USUARIO_TELEFONES, tamanhoUsuarios, ttl);
+        criarRegiao(cacheManager, meterRegistry, RegioesCache.ENDERECO, tamanhoEnderecos, ttl);
+        criarRegiao(cacheManager, meterRegistry, RegioesCache.TELEFONE, tamanhoTelefones, ttl);
+        return cacheManager;
+    }
+
+    @Bean
+    // Ativa o cache de segundo nível com as regiões acima. Uma região que não exista no CacheManager
+    // (ex: nova @Cache sem entrada aqui) faz a subida falhar, em vez de criar um cache sem limite.
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager gerenciadorCacheSegundoNivel) {
+        return propriedades -> {
+            propriedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propriedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propriedades.put(ConfigSettings.CACHE_MANAGER, gerenciadorCacheSegundoNivel);
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // BLOCÃO 2: CRIAÇÃO DE UMA REGIÃO
+    // -------------------------------------------------------------------------
+
+    private static void criarRegiao(CacheManager cacheManager, MeterRegistry meterRegistry,
+                                    String nome, long tamanhoMaximo, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+        configuracao.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        // Estatísticas JCache (acertos, faltas, remoções por tamanho/tempo), lidas pelo JCacheMetrics.
+        configuracao.setStatisticsEnabled(true);
+        JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(nome, configuracao), List.of());
+    }
+}
@@ -0,0 +1,93 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.cache;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Endereco;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Telefone;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// BLOCÃO 1: INVALIDAÇÃO DO CACHE APÓS ESCRITAS FORA DO HIBERNATE
+// -------------------------------------------------------------------------
+@Component
+// O Hibernate mantém o cache de segundo nível em dia sozinho apenas quando a escrita passa por ele
+// (save/merge de Entities, ou DELETE/UPDATE em JPQL, que esvaziam as regiões afetadas).
+// Duas escritas do projeto não passam:
+// - o PATCH via JDBC (AtualizacaoParcialRepository), que altera a linha sem o Hibernate saber;
+// - o cadastro de endereço/telefone, que grava o item pela coluna 'usuario_id' sem tocar na coleção do usuário.
+// Nesses casos a UsuarioService chama os métodos abaixo, depois da escrita, para remover as entradas afetadas.
+// Dentro de uma transação, a remoção é repetida após o commit: uma leitura concorrente feita antes do commit
+// ainda vê a linha antiga e poderia devolvê-la ao cache.
+public class InvalidacaoCacheSegundoNivel {
+
+    private static final String COLECAO_ENDERECOS = Usuario.class.getName() + ".enderecos";
+    private static final String COLECAO_TELEFONES = Usuario.class.getName() + ".telefones";
+
+    private final Cache cache;
+
+    public InvalidacaoCacheSegundoNivel(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * MÉTODO: usuarioAlterado(Long, boolean)
+     * FUNÇÃO: Remove o usuário do cache. Se o e-mail mudou, esvazia também o cache do ID natural
+     * (o e-mail antigo não pode continuar levando ao usuário); a troca de e-mail é rara.
+     */
+    public void usuarioAlterado(Long idUsuario, boolean emailAlterado) {
+        remover(() -> {
+            cache.evictEntityData(Usuario.class, idUsuario);
+            if (emailAlterado) {
+                cache.evictNaturalIdData(Usuario.class);
+            }
+        });
+    }
+
+    /**
+     * MÉTODO: enderecoAlterado(Long)
+     * FUNÇÃO: Remove um endereço do cache (a coleção do usuário guarda só os ids e continua válida).
+     */
+    public void enderecoAlterado(Long idEndereco) {
+        remover(() -> cache.evictEntityData(Endereco.class, idEndereco));
+    }
+
+    /**
+     * MÉTODO: telefoneAlterado(Long)
+     * FUNÇÃO: Remove um telefone do cache.
+     */
+    public void telefoneAlterado(Long idTelefone) {
+        remover(() -> cache.evictEntityData(Telefone.class, idTelefone));
+    }
+
+    /**
+     * MÉTODO: enderecosDoUsuarioAlterados(Long)
+     * FUNÇÃO: Remove do cache a lista de endereços do usuário (ex: após cadastrar um novo endereço).
+     */
+    public void enderecosDoUsuarioAlterados(Long idUsuario) {
+        remover(() -> cache.evictCollectionData(COLECAO_ENDERECOS, idUsuario));
+    }
+
+    /**
+     * MÉTODO: telefonesDoUsuarioAlterados(Long)
+     * FUNÇÃO: Remove do cache a lista de telefones do usuário (ex: após cadastrar um novo telefone).
+     */
+    public void telefonesDoUsuarioAlterados(Long idUsuario) {
+        remover(() -> cache.evictCollectionData(COLECAO_TELEFONES, idUsuario));
+    }
+
+    // Remove agora e, se houver transação em andamento, de novo depois do commit.
+    private static void remover(Runnable remocao) {
+        remocao.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remocao.run();
+                }
+            });
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.EngCode.Cadastro_de_Usuario.infrastructure.clients;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 // BLOCÃO 1: ANOTAÇÕES DO LOMBOK (A Construção da Classe)
@@ -32,5 +33,10 @@ public class ViaCepDTO {
     public String gia;
     public String ddd;
     public String siafi;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Boolean erro;
+    // CEP com formato válido, mas inexistente: a ViaCEP responde 200 apenas com {"erro": true}.
+    // Só aparece no JSON da resposta quando preenchido.
 }
 
@@ -0,0 +1,46 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.datasource;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+// BLOCÃO 1: TRANSAÇÕES SOMENTE LEITURA SEM PREENCHER O CACHE DE SEGUNDO NÍVEL
+// -------------------------------------------------------------------------
+// Com as réplicas ativas, uma transação somente leitura pode ler de uma réplica atrasada. Se essa leitura
+// devolvesse o usuário ao cache de segundo nível logo depois de uma alteração (que acabou de removê-lo),
+// o estado antigo ficaria em cache por até 'cache.segundo-nivel.ttl-segundos', mesmo depois de a réplica alcançar o primário.
+// Por isso essas transações usam CacheMode.GET: leem do cache, mas nada do que carregam é gravado nele.
+// O cache passa a ser preenchido só pelas leituras e escritas no primário (transações de escrita).
+// O modo anterior da sessão é restaurado no fim da transação (com open-in-view, a sessão continua na requisição).
+public class DialetoJpaReplicas extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Object dadosTransacao = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return dadosTransacao;
+        }
+        Session sessao = entityManager.unwrap(Session.class);
+        CacheMode anterior = sessao.getCacheMode();
+        sessao.setCacheMode(CacheMode.GET);
+        return new LeituraSemGravarNoCache(dadosTransacao, sessao, anterior);
+    }
+
+    @Override
+    public void cleanupTransaction(Object dadosTransacao) {
+        if (dadosTransacao instanceof LeituraSemGravarNoCache leitura) {
+            leitura.sessao().setCacheMode(leitura.anterior());
+            super.cleanupTransaction(leitura.dadosTransacao());
+            return;
+        }
+        super.cleanupTransaction(dadosTransacao);
+    }
+
+    private record LeituraSemGravarNoCache(Object dadosTransacao, Session sessao, CacheMode anterior) {
+    }
+}
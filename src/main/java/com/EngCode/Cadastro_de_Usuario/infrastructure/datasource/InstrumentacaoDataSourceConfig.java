@@ -0,0 +1,48 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.datasource;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// BLOCÃO 1: PROXY JDBC PARA MEDIR AS INSTRUÇÕES SQL
+// -------------------------------------------------------------------------
+@Configuration
+// Envolve o DataSource da aplicação (bean "dataSource": o Hikari padrão do Spring Boot, ou o proxy de
+// réplicas do ReplicasConfig) com o datasource-proxy. Toda instrução executada pelo JPA, pelo
+// JdbcTemplate ou pela inicialização do schema passa pelo MonitorConsultas.
+// Os pools continuam publicando as próprias métricas (hikaricp.*, incluindo a espera por conexão).
+public class InstrumentacaoDataSourceConfig {
+
+    static final String BEAN_DATASOURCE = "dataSource";
+
+    @Bean
+    // static: BeanPostProcessors são criados antes dos demais beans. O MonitorConsultas (e o MeterRegistry)
+    // só são obtidos no momento de envolver o DataSource, para não serem inicializados cedo demais.
+    public static BeanPostProcessor instrumentacaoDataSource(ObjectProvider<MonitorConsultas> monitorConsultas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!BEAN_DATASOURCE.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(BEAN_DATASOURCE)
+                        .listener(monitorConsultas.getObject())
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    // Limita a quantidade de formatos de SQL distintos (tag 'sql' do Timer banco.sql). Acima do limite,
+    // novos formatos deixam de gerar séries, protegendo a memória e o servidor de métricas.
+    public MeterFilter limiteFormatosSql(@Value("${monitoramento.sql.max-formatos:500}") int maxFormatos) {
+        return MeterFilter.maximumAllowableTags("banco.sql", "sql", maxFormatos, MeterFilter.deny());
+    }
+}
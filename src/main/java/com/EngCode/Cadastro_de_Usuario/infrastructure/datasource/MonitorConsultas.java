@@ -0,0 +1,142 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// BLOCÃO 1: MÉTRICAS POR INSTRUÇÃO SQL E LOG DE CONSULTAS LENTAS
+// -------------------------------------------------------------------------
+@Component
+// Ouvinte do proxy JDBC (datasource-proxy, ver InstrumentacaoDataSourceConfig), chamado a cada instrução executada:
+// - registra o tempo no Timer 'banco.sql', com a tag 'sql' = formato da instrução (parâmetros como '?',
+//   espaços normalizados e listas "in (?, ?, ...)" reduzidas a "in (?)"), ou seja, uma série por tipo de consulta;
+// - instruções acima do limite vão para o log 'banco.consultas-lentas', escrito em uma thread própria
+//   (a requisição não espera o log). Os valores dos parâmetros nunca são registrados (podem conter dados pessoais).
+// O tempo medido é o da execução da instrução no banco (sem a leitura do ResultSet pela aplicação).
+public class MonitorConsultas implements QueryExecutionListener {
+
+    private static final Logger LOG_CONSULTAS_LENTAS = LoggerFactory.getLogger("banco.consultas-lentas");
+
+    private static final String INICIO = MonitorConsultas.class.getName() + ".inicio";
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern LISTA_IN = Pattern.compile("\\bin \\(\\?(?:, ?\\?)+\\)", Pattern.CASE_INSENSITIVE);
+    // Tamanho máximo do formato usado como tag (SQLs maiores são cortados).
+    private static final int TAMANHO_MAXIMO_FORMATO = 300;
+
+    private final MeterRegistry meterRegistry;
+    private final long limiteLentaNanos;
+    // SQL recebido → formato normalizado (evita repetir as expressões regulares em toda execução).
+    private final Cache<String, String> formatos = Caffeine.newBuilder().maximumSize(2_000).build();
+    private final ThreadPoolExecutor registroConsultasLentas;
+    private final Counter consultasLentas;
+    private final Counter registrosDescartados;
+
+    public MonitorConsultas(MeterRegistry meterRegistry,
+                            @Value("${monitoramento.sql.limite-lenta-ms:200}") long limiteLentaMs,
+                            @Value("${monitoramento.sql.fila-log-lentas:1000}") int filaLogLentas) {
+        this.meterRegistry = meterRegistry;
+        this.limiteLentaNanos = TimeUnit.MILLISECONDS.toNanos(limiteLentaMs);
+        this.consultasLentas = Counter.builder("banco.sql.lentas")
+                .description("Instruções SQL acima do limite de consulta lenta")
+                .register(meterRegistry);
+        this.registrosDescartados = Counter.builder("banco.sql.lentas.descartadas")
+                .description("Registros de consulta lenta descartados com a fila do log cheia")
+                .register(meterRegistry);
+        // Uma thread e fila limitada: com a fila cheia o registro é descartado (e contado), nunca bloqueia a requisição.
+        this.registroConsultasLentas = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(filaLogLentas),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "log-consultas-lentas");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (tarefa, executor) -> registrosDescartados.increment());
+    }
+
+    // BLOCÃO 2: MEDIÇÃO
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        execucao.addCustomValue(INICIO, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        Long inicio = execucao.getCustomValue(INICIO, Long.class);
+        if (inicio == null || consultas.isEmpty()) {
+            return;
+        }
+        long duracaoNanos = System.nanoTime() - inicio;
+        // Em um lote, todas as instruções têm o mesmo SQL (só mudam os parâmetros).
+        String formato = formatos.get(consultas.get(0).getQuery(), MonitorConsultas::formato);
+
+        Timer.builder("banco.sql")
+                .description("Tempo de execução das instruções SQL, por formato de instrução")
+                .tag("sql", formato)
+                .tag("lote", String.valueOf(execucao.isBatch()))
+                .tag("resultado", execucao.isSuccess() ? "sucesso" : "erro")
+                .register(meterRegistry)
+                .record(duracaoNanos, TimeUnit.NANOSECONDS);
+
+        if (duracaoNanos >= limiteLentaNanos) {
+            consultasLentas.increment();
+            registrarConsultaLenta(execucao, formato, duracaoNanos);
+        }
+    }
+
+    // BLOCÃO 3: LOG ESTRUTURADO DE CONSULTAS LENTAS
+    // -------------------------------------------------------------------------
+
+    private void registrarConsultaLenta(ExecutionInfo execucao, String formato, long duracaoNanos) {
+        // Os dados são copiados aqui: o ExecutionInfo pertence à thread da requisição.
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(duracaoNanos);
+        int tamanhoLote = execucao.isBatch() ? execucao.getBatchSize() : 1;
+        boolean sucesso = execucao.isSuccess();
+        String thread = Thread.currentThread().getName();
+        String conexao = execucao.getConnectionId();
+        registroConsultasLentas.execute(() -> LOG_CONSULTAS_LENTAS.atWarn()
+                // Pares chave/valor: viram campos próprios com o log estruturado (logging.structured.format.console).
+                .addKeyValue("sql", formato)
+                .addKeyValue("duracao_ms", duracaoMs)
+                .addKeyValue("tamanho_lote", tamanhoLote)
+                .addKeyValue("sucesso", sucesso)
+                .addKeyValue("thread_origem", thread)
+                .addKeyValue("conexao", conexao)
+                .log("Consulta lenta ({} ms): {}", duracaoMs, formato));
+    }
+
+    /**
+     * MÉTODO: formato(String)
+     * FUNÇÃO: Normaliza um SQL para uso como tag: espaços simples, listas "in (?, ?, ...)" como "in (?)",
+     * minúsculas e tamanho limitado. Consultas que só diferem no tamanho da lista ficam na mesma série.
+     */
+    static String formato(String sql) {
+        String formato = ESPACOS.matcher(sql.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        formato = LISTA_IN.matcher(formato).replaceAll("in (?)");
+        return formato.length() > TAMANHO_MAXIMO_FORMATO ? formato.substring(0, TAMANHO_MAXIMO_FORMATO) : formato;
+    }
+
+    @PreDestroy
+    // Encerra a thread do log junto com o contexto do Spring (registros ainda na fila são escritos).
+    public void encerrar() {
+        registroConsultasLentas.shutdown();
+    }
+}
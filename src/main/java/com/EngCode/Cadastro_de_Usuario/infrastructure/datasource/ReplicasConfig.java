@@ -0,0 +1,104 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// BLOCÃO 1: ROTEAMENTO DE LEITURAS PARA RÉPLICAS
+// -------------------------------------------------------------------------
+@Configuration
+@ConditionalOnProperty(name = "banco.replicas.habilitado", havingValue = "true")
+// Ativo apenas com banco.replicas.habilitado=true; caso contrário o Spring Boot cria o DataSource único de sempre.
+// O DataSource da aplicação passa a ser um LazyConnectionDataSourceProxy: a conexão física só é obtida na
+// primeira instrução SQL, quando já se sabe se a transação é somente leitura (o Hibernate marca a conexão
+// com setReadOnly(true) ao iniciar um @Transactional(readOnly = true)). Nesse caso ela vem do RoteadorReplicas;
+// nos demais casos (escritas, JdbcTemplate fora de transação, migrações do Flyway), do pool primário.
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    // Pool do primário, com as mesmas propriedades spring.datasource.* e spring.datasource.hikari.* de sempre.
+    public HikariDataSource dataSourcePrimario(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primario = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean
+    // Um pool Hikari por URL de réplica, alternados pelo RoteadorReplicas.
+    public RoteadorReplicas roteadorReplicas(@Qualifier("dataSourcePrimario") HikariDataSource primario,
+                                             DataSourceProperties dataSourceProperties,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${banco.replicas.urls}") List<String> urls,
+                                             @Value("${banco.replicas.usuario:}") String usuario,
+                                             @Value("${banco.replicas.senha:}") String senha,
+                                             @Value("${banco.replicas.pool-maximo:10}") int poolMaximo,
+                                             @Value("${banco.replicas.atraso-maximo-ms:1000}") long atrasoMaximoMs) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            // Sem credenciais próprias, as réplicas usam as mesmas do primário.
+            replica.setUsername(usuario.isBlank() ? dataSourceProperties.determineUsername() : usuario);
+            replica.setPassword(usuario.isBlank() ? dataSourceProperties.determinePassword() : senha);
+            replica.setMaximumPoolSize(poolMaximo);
+            replica.setReadOnly(true);
+            // Não bloqueia a subida do serviço se a réplica estiver fora do ar (as leituras vão para o primário).
+            replica.setInitializationFailTimeout(-1);
+            // Métricas hikaricp.* (espera por conexão, conexões ativas...) com a tag pool=replica-N:
+            // os pools das réplicas não são beans, então o Spring Boot não os registra sozinho.
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("banco.replicas.habilitado=true exige ao menos uma URL em banco.replicas.urls.");
+        }
+        return new RoteadorReplicas(primario, replicas, atrasoMaximoMs, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    // DataSource usado pelo JPA, pelo JdbcTemplate e pela inicialização do schema.
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") HikariDataSource primario,
+                                 RoteadorReplicas roteadorReplicas) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primario);
+        proxy.setReadOnlyDataSource(roteadorReplicas);
+        return proxy;
+    }
+
+    @Bean
+    // Troca o dialeto JPA do Hibernate pelo DialetoJpaReplicas: leituras em transações somente leitura (que podem vir
+    // de uma réplica atrasada) não preenchem o cache de segundo nível. Estático: roda antes da criação dos demais beans.
+    public static BeanPostProcessor dialetoJpaReplicas() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String nome) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean fabrica) {
+                    fabrica.setJpaDialect(new DialetoJpaReplicas());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// BLOCÃO 1: DATASOURCE DE LEITURA (RÉPLICAS COM FALLBACK PARA O PRIMÁRIO)
+// -------------------------------------------------------------------------
+@Slf4j
+// Entrega as conexões das transações somente leitura (@Transactional(readOnly = true)).
+// - Alterna entre as réplicas saudáveis (round-robin).
+// - Uma réplica é saudável se respondeu à última verificação com atraso de replicação dentro do limite.
+// - Sem réplica saudável, ou se a réplica escolhida recusar a conexão, usa o primário: a leitura
+//   nunca falha por causa de uma réplica.
+public class RoteadorReplicas extends AbstractDataSource {
+
+    // Atraso de replicação em ms. Zero quando a réplica já aplicou tudo o que recebeu (ou quando a
+    // instância não é uma réplica, ex: apontando para o próprio primário em desenvolvimento).
+    private static final String SQL_ATRASO = """
+            select coalesce(case
+                when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                else extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000
+            end, 0)""";
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final long atrasoMaximoMs;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public RoteadorReplicas(DataSource primario, List<HikariDataSource> replicas, long atrasoMaximoMs,
+                            MeterRegistry meterRegistry) {
+        this.primario = primario;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.atrasoMaximoMs = atrasoMaximoMs;
+        for (Replica replica : this.replicas) {
+            Gauge.builder("banco.replica.atraso", replica, r -> r.atrasoMs)
+                    .tag("replica", replica.dataSource.getPoolName())
+                    .baseUnit("milliseconds")
+                    .description("Atraso de replicação medido na última verificação (-1 = indisponível)")
+                    .register(meterRegistry);
+        }
+    }
+
+    // BLOCÃO 2: ESCOLHA DA CONEXÃO
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int total = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), total);
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            if (!replica.saudavel) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // Réplica fora do ar: sai do rodízio até a próxima verificação bem-sucedida.
+                replica.marcarIndisponivel();
+                log.warn("Réplica {} indisponível; tentando a próxima (ou o primário).", replica.dataSource.getPoolName(), e);
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Use getConnection() (credenciais definidas em cada pool).");
+    }
+
+    // BLOCÃO 3: VERIFICAÇÃO DO ATRASO DE REPLICAÇÃO
+    // -------------------------------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${banco.replicas.verificacao-ms:1000}")
+    // Mede o atraso de cada réplica e atualiza quais podem receber leituras.
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection conexao = replica.dataSource.getConnection();
+                 Statement statement = conexao.createStatement();
+                 ResultSet resultado = statement.executeQuery(SQL_ATRASO)) {
+                resultado.next();
+                long atraso = (long) resultado.getDouble(1);
+                boolean saudavel = atraso <= atrasoMaximoMs;
+                if (saudavel != replica.saudavel) {
+                    log.info("Réplica {} {} (atraso {} ms, limite {} ms)", replica.dataSource.getPoolName(),
+                            saudavel ? "volta ao rodízio de leitura" : "sai do rodízio de leitura", atraso, atrasoMaximoMs);
+                }
+                replica.atrasoMs = atraso;
+                replica.saudavel = saudavel;
+            } catch (SQLException e) {
+                replica.marcarIndisponivel();
+            }
+        }
+    }
+
+    @PreDestroy
+    // Fecha os pools das réplicas junto com o contexto do Spring (o primário é fechado pelo próprio Spring).
+    public void encerrar() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    // Estado de uma réplica, lido pelas threads das requisições e escrito pela verificação periódica.
+    private static class Replica {
+        private final HikariDataSource dataSource;
+        // Começa fora do rodízio: entra depois da primeira verificação com atraso aceitável.
+        private volatile boolean saudavel = false;
+        private volatile long atrasoMs = -1;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void marcarIndisponivel() {
+            saudavel = false;
+            atrasoMs = -1;
+        }
+    }
+}
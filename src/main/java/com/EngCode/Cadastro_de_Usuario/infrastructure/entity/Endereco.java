@@ -2,6 +2,9 @@ package com.EngCode.Cadastro_de_Usuario.infrastructure.entity;
 
 import jakarta.persistence.*; // Importa todas as anotações do JPA (para Spring Boot 3+).
 import lombok.*; // Importa o Lombok.
+import org.hibernate.annotations.Cache; // Cache de segundo nível.
+import org.hibernate.annotations.CacheConcurrencyStrategy; // Estratégia de concorrência do cache.
+import org.hibernate.annotations.ColumnDefault; // Valor padrão da coluna no DDL (linhas já existentes).
 
 // BLOCÃO 1: ANOTAÇÕES LOMBOK (Estrutura da Classe)
 // -------------------------------------------------------------------------
@@ -22,15 +25,20 @@ import lombok.*; // Importa o Lombok.
 // Marca esta classe como uma Entidade JPA, ou seja, um objeto que representa uma tabela.
 @Table(name = "endereco")
 // Especifica que esta Entity está mapeada para a tabela chamada "endereco" no banco de dados.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegioesCache.ENDERECO)
+// Cache de segundo nível (ver Usuario): usado ao percorrer a coleção 'enderecos' de um usuário em cache.
 public class Endereco {
 
     // BLOCÃO 3: CHAVE PRIMÁRIA E CONFIGURAÇÃO DE GERAÇÃO
     // -------------------------------------------------------------------------
     @Id
     // Marca o campo 'id' como a chave primária (Primary Key) da tabela.
-    @GeneratedValue (strategy = GenerationType.AUTO)
+    @GeneratedValue (strategy = GenerationType.SEQUENCE, generator = Sequencias.ENDERECO)
+    @SequenceGenerator(name = Sequencias.ENDERECO, sequenceName = Sequencias.ENDERECO,
+            allocationSize = Sequencias.TAMANHO_ALOCACAO)
     // Define a estratégia de geração de valor para a chave primária.
-    // GenerationType.AUTO deixa o Hibernate escolher a melhor estratégia para o banco de dados (PostgreSQL, no seu caso).
+    // Sequência explícita (a mesma 'endereco_seq' que o AUTO já criava), com blocos de IDs para os INSERTs em lote.
     private Long id;
 
     // BLOCÃO 4: ATRIBUTOS E COLUNAS
@@ -55,6 +63,12 @@ public class Endereco {
     @Column (name = "cep", length = 9)
     private String cep;
 
+    @Version
+    // Controle de concorrência otimista (ver Usuario): incrementada a cada alteração e usada como ETag.
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // BLOCÃO 5: CHAVE ESTRANGEIRA (RELACIONAMENTO MANUAL)
     // -------------------------------------------------------------------------
     @Column (name = "usuario_id")
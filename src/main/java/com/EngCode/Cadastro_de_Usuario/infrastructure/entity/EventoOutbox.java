@@ -0,0 +1,75 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.entity;
+
+import jakarta.persistence.*; // Importa todas as anotações do JPA (para Spring Boot 3+).
+import lombok.*; // Importa o Lombok.
+import org.hibernate.annotations.JdbcTypeCode; // Tipo JDBC explícito (jsonb).
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+// BLOCÃO 1: ANOTAÇÕES LOMBOK (Estrutura da Classe)
+// -------------------------------------------------------------------------
+@Builder
+// Gera o Padrão Builder, usado pelo EventosUsuario para criar os registros.
+@Getter
+// Gera os métodos 'get' para leitura dos atributos.
+@Setter
+// Gera os métodos 'set' para modificação dos atributos.
+@AllArgsConstructor
+// Gera um construtor com todos os atributos.
+@NoArgsConstructor
+// Gera o construtor vazio, que é obrigatório para o JPA/Hibernate.
+
+// BLOCÃO 2: ANOTAÇÕES JPA (Mapeamento da Tabela)
+// -------------------------------------------------------------------------
+@Entity
+// Marca esta classe como uma Entidade JPA.
+@Table(name = "evento_outbox")
+// Outbox transacional: cada alteração de usuário grava aqui um evento NA MESMA transação da alteração.
+// Se a transação for desfeita, o evento também é; se for confirmada, o evento será publicado
+// (pelo PublicadorOutbox) mesmo que a aplicação caia logo depois.
+public class EventoOutbox {
+
+    // BLOCÃO 3: CHAVE PRIMÁRIA
+    // -------------------------------------------------------------------------
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = Sequencias.EVENTO_OUTBOX)
+    @SequenceGenerator(name = Sequencias.EVENTO_OUTBOX, sequenceName = Sequencias.EVENTO_OUTBOX, allocationSize = 1)
+    // A ordem dos ids é a ordem de publicação. Aqui a sequência NÃO reserva blocos: com blocos por nó,
+    // um evento gravado depois em outro nó poderia receber um id menor. Com um id por evento, obtido depois
+    // da escrita que trava a linha alterada, duas alterações do mesmo registro ficam na ordem em que foram confirmadas.
+    private Long id;
+
+    // BLOCÃO 4: ATRIBUTOS E COLUNAS
+    // -------------------------------------------------------------------------
+    @Column(name = "usuario_id", nullable = false)
+    // Usuário a que o evento se refere: chave de ordenação (eventos do mesmo usuário saem em ordem).
+    private Long usuarioId;
+
+    @Column(name = "tipo", length = 40, nullable = false)
+    // Tipo do evento (ver TipoEventoUsuario), ex: USUARIO_ATUALIZADO.
+    private String tipo;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false)
+    // Dados do evento em JSON (jsonb no Postgres). Nunca contém a senha.
+    private String payload;
+
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+
+    @Column(name = "publicado_em")
+    // Preenchido quando o destino confirmou o recebimento; nulo enquanto pendente.
+    private Instant publicadoEm;
+
+    @Column(name = "tentativas", nullable = false)
+    // Envios que falharam até agora (define a espera até a próxima tentativa).
+    private int tentativas;
+
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    // O evento só é enviado a partir deste instante (espera crescente após falhas).
+    private Instant proximaTentativaEm;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+}
@@ -0,0 +1,24 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.entity;
+
+// BLOCÃO 1: REGIÕES DO CACHE DE SEGUNDO NÍVEL
+// -------------------------------------------------------------------------
+// Nomes das regiões (caches JCache) usadas pelo Hibernate para Usuario, Endereco e Telefone.
+// Cada região é criada com tamanho e tempo de vida próprios em CacheSegundoNivelConfig; uma região
+// anotada aqui e não criada lá faz a aplicação falhar na subida (missing_cache_strategy=fail).
+public final class RegioesCache {
+
+    // Entidades (estado de cada linha, pela chave primária).
+    public static final String USUARIO = "usuario";
+    public static final String ENDERECO = "endereco";
+    public static final String TELEFONE = "telefone";
+
+    // ID natural: e-mail → id do usuário (usado por UsuarioRepository.buscarPorEmail).
+    public static final String USUARIO_EMAIL = "usuario-email";
+
+    // Coleções: ids dos endereços e dos telefones de cada usuário.
+    public static final String USUARIO_ENDERECOS = "usuario-enderecos";
+    public static final String USUARIO_TELEFONES = "usuario-telefones";
+
+    private RegioesCache() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.entity;
+
+// BLOCÃO 1: SEQUÊNCIAS DAS CHAVES PRIMÁRIAS
+// -------------------------------------------------------------------------
+// Nomes e tamanho de alocação das sequências usadas por Usuario, Endereco e Telefone.
+// Com sequências "pooled", o Hibernate reserva um bloco de IDs por chamada ao banco e
+// conhece o ID antes do INSERT, o que permite agrupar os INSERTs em lotes JDBC
+// (com IDENTITY o ID só existe depois de cada INSERT, e o lote fica desativado).
+public final class Sequencias {
+
+    // Quantidade de IDs reservados por chamada à sequência.
+    // Deve ser igual ao INCREMENT BY das sequências no banco (o JPA exige uma constante aqui).
+    public static final int TAMANHO_ALOCACAO = 50;
+
+    public static final String USUARIO = "usuario_seq";
+    public static final String ENDERECO = "endereco_seq";
+    public static final String TELEFONE = "telefone_seq";
+    public static final String EVENTO_OUTBOX = "evento_outbox_seq";
+
+    private Sequencias() {
+    }
+}
@@ -2,6 +2,9 @@ package com.EngCode.Cadastro_de_Usuario.infrastructure.entity;
 
 import jakarta.persistence.*; // Importa todas as anotações do JPA (para Spring Boot 3+).
 import lombok.*; // Importa o Lombok, essencial para código conciso.
+import org.hibernate.annotations.Cache; // Cache de segundo nível.
+import org.hibernate.annotations.CacheConcurrencyStrategy; // Estratégia de concorrência do cache.
+import org.hibernate.annotations.ColumnDefault; // Valor padrão da coluna no DDL (linhas já existentes).
 
 // BLOCÃO 1: ANOTAÇÕES LOMBOK E ESTRUTURA
 // -------------------------------------------------------------------------
@@ -22,14 +25,19 @@ import lombok.*; // Importa o Lombok, essencial para código conciso.
 // Marca esta classe como uma Entidade JPA, indicando que ela está mapeada para uma tabela no banco.
 @Table(name = "telefone")
 // Especifica o nome exato da tabela no banco de dados (neste caso, "telefone").
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegioesCache.TELEFONE)
+// Cache de segundo nível (ver Usuario): usado ao percorrer a coleção 'telefones' de um usuário em cache.
 public class Telefone {
 
     // BLOCÃO 3: CHAVE PRIMÁRIA E CONFIGURAÇÃO
     // -------------------------------------------------------------------------
     @Id
     // Marca o campo 'id' como a chave primária (Primary Key - PK) da tabela.
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    // Define a estratégia de geração de valor para a PK. AUTO deixa o Hibernate escolher a mais eficiente para o banco (PostgreSQL).
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = Sequencias.TELEFONE)
+    @SequenceGenerator(name = Sequencias.TELEFONE, sequenceName = Sequencias.TELEFONE,
+            allocationSize = Sequencias.TAMANHO_ALOCACAO)
+    // Define a estratégia de geração de valor para a PK: a mesma 'telefone_seq' que o AUTO já criava, agora explícita.
     private Long id;
 
     // BLOCÃO 4: ATRIBUTOS E COLUNAS
@@ -42,6 +50,12 @@ public class Telefone {
     // Mapeia o atributo 'ddd' para a coluna 'ddd' e define o tamanho máximo.
     private String ddd;
 
+    @Version
+    // Controle de concorrência otimista (ver Usuario): incrementada a cada alteração e usada como ETag.
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // BLOCÃO 5: CHAVE ESTRANGEIRA (RELACIONAMENTO)
     // -------------------------------------------------------------------------
     @Column (name = "usuario_id")
@@ -0,0 +1,48 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.entity;
+
+import jakarta.persistence.*; // Importa todas as anotações do JPA (para Spring Boot 3+).
+import lombok.*; // Importa o Lombok.
+
+import java.time.Instant;
+
+// BLOCÃO 1: ANOTAÇÕES LOMBOK (Estrutura da Classe)
+// -------------------------------------------------------------------------
+@Builder
+// Gera o Padrão Builder para criar os registros.
+@Getter
+// Gera os métodos 'get' para leitura dos atributos.
+@Setter
+// Gera os métodos 'set' para modificação dos atributos.
+@AllArgsConstructor
+// Gera um construtor com todos os atributos.
+@NoArgsConstructor
+// Gera o construtor vazio, que é obrigatório para o JPA/Hibernate.
+
+// BLOCÃO 2: ANOTAÇÕES JPA (Mapeamento da Tabela)
+// -------------------------------------------------------------------------
+@Entity
+// Marca esta classe como uma Entidade JPA.
+@Table(name = "token_revogado")
+// Tabela com as revogações de tokens JWT. Cada linha revoga um token específico (chave "jti:<id>")
+// ou todos os tokens de um usuário emitidos até 'revogado_em' (chave "usuario:<email>").
+public class TokenRevogado {
+
+    // BLOCÃO 3: CHAVE PRIMÁRIA
+    // -------------------------------------------------------------------------
+    @Id
+    // A própria chave da revogação é a PK: a consulta exata é um lookup por ID.
+    @Column(name = "chave", length = 150)
+    private String chave;
+
+    // BLOCÃO 4: ATRIBUTOS E COLUNAS
+    // -------------------------------------------------------------------------
+    @Column(name = "revogado_em", nullable = false)
+    // Momento da revogação, no relógio do banco (gravado por TokenRevogadoRepository.registrar).
+    // Para revogações por usuário, tokens emitidos até este instante são inválidos.
+    private Instant revogadoEm;
+
+    @Column(name = "expira_em", nullable = false)
+    // Depois deste instante o token (ou todos os tokens do usuário) já expirou por conta própria,
+    // então o registro pode ser removido pela limpeza periódica.
+    private Instant expiraEm;
+}
@@ -5,9 +5,17 @@ package com.EngCode.Cadastro_de_Usuario.infrastructure.entity;
 
 import jakarta.persistence.*; // Anotações de Persistência (JPA/Hibernate) para mapear o banco.
 import lombok.*; // Anotações do Lombok (Builder, Getters, Setters).
+import org.hibernate.annotations.BatchSize; // Carga em lote de coleções (leituras de vários usuários).
+import org.hibernate.annotations.Cache; // Cache de segundo nível (entidade e coleções).
+import org.hibernate.annotations.CacheConcurrencyStrategy; // Estratégia de concorrência do cache.
+import org.hibernate.annotations.ColumnDefault; // Valor padrão da coluna no DDL (linhas já existentes).
+import org.hibernate.annotations.NaturalId; // ID natural (o e-mail).
+import org.hibernate.annotations.NaturalIdCache; // Cache do ID natural (e-mail → id).
+import org.hibernate.annotations.SQLRestriction; // Condição aplicada a todas as leituras da Entity (exclusão lógica).
 import org.springframework.security.core.GrantedAuthority; // Interface de permissões do Spring Security.
 import org.springframework.security.core.userdetails.UserDetails; // Interface essencial para o Login/Autenticação.
 
+import java.time.Instant; // Momento da exclusão lógica.
 import java.util.Collection; // Usado por GrantedAuthority.
 import java.util.List; // Usado para listas de Endereços e Telefones.
 
@@ -28,24 +36,44 @@ import java.util.List; // Usado para listas de Endereços e Telefones.
 // Marca a classe como uma Entidade JPA, indicando que ela representa uma tabela no banco.
 @Table(name = "usuario")
 // Especifica que esta Entity está mapeada para a tabela chamada "usuario".
+// O índice único parcial uk_usuario_email (migração V2, só usuários não excluídos) é quem garante a unicidade
+// do e-mail, inclusive com cadastros simultâneos em vários nós.
+@SQLRestriction("excluido_em is null")
+// Exclusão lógica: usuários com 'excluido_em' preenchido não aparecem em nenhuma leitura do Hibernate
+// (busca por id, pelo e-mail, JPQL e consultas derivadas). A remoção física é feita depois, pelo ExpurgoUsuarios.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegioesCache.USUARIO)
+// Cache de segundo nível: buscas pelo id (ou pelo e-mail, via ID natural) não vão ao banco enquanto a linha estiver em cache.
+// READ_WRITE: as alterações feitas pelo Hibernate atualizam o cache no commit; as feitas por SQL direto
+// (PATCH via JDBC) são removidas do cache pela UsuarioService.
+@NaturalIdCache(region = RegioesCache.USUARIO_EMAIL)
+// Cache do ID natural: resolve e-mail → id sem consulta; o estado do usuário vem então do cache da entidade.
 
 public class Usuario implements UserDetails {
     // Implementa a interface UserDetails. Isso é OBRIGATÓRIO para que o Spring Security
     // possa carregar os dados de login (e-mail e senha) e autenticar o usuário.
 
+    // Nome da constraint de unicidade do e-mail (usado para traduzir a violação em HTTP 409).
+    public static final String UK_EMAIL = "uk_usuario_email";
+
     // BLOCÃO 3: CHAVE PRIMÁRIA E ATRIBUTOS BÁSICOS
     // -------------------------------------------------------------------------
     @Id
     // Marca o campo 'id' como a chave primária (Primary Key - PK) da tabela.
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    // Define a estratégia de geração de valor da PK. IDENTITY é ideal para PostgreSQL,
-    // indicando que o banco de dados gerencia o auto-incremento.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = Sequencias.USUARIO)
+    @SequenceGenerator(name = Sequencias.USUARIO, sequenceName = Sequencias.USUARIO,
+            allocationSize = Sequencias.TAMANHO_ALOCACAO)
+    // Define a estratégia de geração de valor da PK: sequência com blocos de IDs reservados em memória.
+    // Diferente de IDENTITY, o ID é conhecido antes do INSERT, então o cadastro (usuário + endereços +
+    // telefones em cascata) pode ser enviado em lotes JDBC.
     private Long id;
 
     @Column(name = "nome" , length = 100)
     // Mapeia o atributo 'nome' para a coluna 'nome', com tamanho 100.
     private String nome;
 
+    @NaturalId(mutable = true)
+    // O e-mail é o ID natural do usuário (único e usado como login). É "mutável" porque o PATCH permite trocá-lo.
     @Column (name = "email", length = 100)
     // Mapeia o atributo 'email' (usado como login) para a coluna 'email'.
     private String email;
@@ -54,6 +82,25 @@ public class Usuario implements UserDetails {
     // Mapeia o atributo 'senha'. Aqui é onde o hash criptografado é armazenado.
     private String senha;
 
+    @Version
+    // Controle de concorrência otimista: incrementada a cada alteração. Um UPDATE feito pelo Hibernate com uma
+    // versão antiga não altera nada e falha (ObjectOptimisticLockingFailureException) em vez de sobrescrever.
+    // Também é o ETag das respostas (If-Match nas atualizações, ver UsuarioControler).
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    // O valor padrão preenche as linhas que já existiam quando a coluna foi criada.
+    private Long versao;
+
+    @Column(name = "excluido_em")
+    // Momento da exclusão lógica (nulo = usuário ativo). Preenchido apenas pela exclusão (UsuarioRepository.marcarExcluidos).
+    private Instant excluidoEm;
+
+    @ColumnDefault("false")
+    @Column(name = "administrador", nullable = false)
+    // Perfil de administrador (ROLE_ADMIN). Não vem de nenhum DTO nem do PATCH: só é alterado direto no banco
+    // (migração V3), então trocar ou recadastrar um e-mail não transfere o perfil.
+    private boolean administrador;
+
     // BLOCÃO 4: RELACIONAMENTOS UM-PARA-MUITOS (One-to-Many)
     // -------------------------------------------------------------------------
 
@@ -62,12 +109,18 @@ public class Usuario implements UserDetails {
     // cascade = CascadeType.ALL significa que se você deletar o Usuario, todos os Enderecos relacionados também serão deletados.
     @JoinColumn(name = "usuario_id", referencedColumnName = "id")
     // Define a Chave Estrangeira (FK). "usuario_id" é o nome da coluna na tabela Endereco que guarda o ID do Usuario (referenciando o 'id' desta classe).
+    @BatchSize(size = 50)
+    // Ao ler vários usuários, a primeira coleção acessada carrega as dos demais (até 50) em uma única consulta "IN (...)".
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegioesCache.USUARIO_ENDERECOS)
+    // Cache da coleção: guarda os ids dos endereços do usuário; cada Endereco vem do cache da entidade.
     private List<Endereco> enderecos;
 
     @OneToMany (cascade = CascadeType.ALL)
     @JoinColumn (name = "usuario_id", referencedColumnName = "id")
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegioesCache.USUARIO_TELEFONES)
     private List<Telefone> telefones;
-    // O mesmo relacionamento e regras de cascade se aplicam à lista de Telefones.
+    // O mesmo relacionamento, regras de cascade, carga em lote e cache se aplicam à lista de Telefones.
 
     // BLOCÃO 5: IMPLEMENTAÇÃO DA INTERFACE USERDETAILS (SEGURANÇA)
     // -------------------------------------------------------------------------
@@ -77,7 +130,7 @@ public class Usuario implements UserDetails {
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // Retorna a lista de autoridades/permissões do usuário (Ex: "ROLE_ADMIN", "ROLE_USER").
-        // Aqui está vazio (List.of()), indicando que as permissões básicas ainda não foram implementadas, mas a estrutura está pronta.
+        // Aqui está vazio (List.of()): as permissões do login são montadas pelo UserDetailsServiceImpl (PerfisAcesso).
         return List.of();
     }
 
@@ -0,0 +1,30 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions;
+// Define o pacote para as classes de exceção.
+
+// BLOCÃO 1: DEFINIÇÃO DA CLASSE
+// -------------------------------------------------------------------------
+
+public class MuitasTentativasException extends RuntimeException {
+// Exceção não verificada (unchecked) lançada pelo limitador de tentativas de login.
+// FUNÇÃO: Sinaliza que o cliente (IP) ou a conta (e-mail) excedeu o limite de tentativas,
+// ou que a conta está temporariamente bloqueada após falhas seguidas.
+// O GlobalExceptionHandler a mapeia para o Status HTTP 429 (Too Many Requests) com Retry-After.
+
+    // BLOCÃO 2: ATRIBUTOS
+    // -------------------------------------------------------------------------
+
+    private final long segundosParaNovaTentativa;
+    // Valor enviado no header Retry-After da resposta.
+
+    // BLOCÃO 3: CONSTRUTORES
+    // -------------------------------------------------------------------------
+
+    public MuitasTentativasException(String mensagem, long segundosParaNovaTentativa) {
+        super(mensagem);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+
+    public long getSegundosParaNovaTentativa() {
+        return segundosParaNovaTentativa;
+    }
+}
@@ -0,0 +1,30 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions;
+// Define o pacote para as classes de exceção.
+
+// BLOCÃO 1: DEFINIÇÃO DA CLASSE
+// -------------------------------------------------------------------------
+
+public class PrecondicaoFalhouException extends RuntimeException {
+// Exceção não verificada (unchecked) lançada quando o header If-Match de uma atualização não
+// corresponde à versão atual do registro (outra requisição o alterou depois da leitura do cliente).
+// O GlobalExceptionHandler a mapeia para o Status HTTP 412 (Precondition Failed), com o ETag atual,
+// para que o cliente releia o registro e decida o que fazer, em vez de sobrescrevê-lo.
+
+    // BLOCÃO 2: ATRIBUTOS
+    // -------------------------------------------------------------------------
+
+    private final long versaoAtual;
+    // Versão atual do registro, enviada no header ETag da resposta 412.
+
+    // BLOCÃO 3: CONSTRUTORES
+    // -------------------------------------------------------------------------
+
+    public PrecondicaoFalhouException(String mensagem, long versaoAtual) {
+        super(mensagem);
+        this.versaoAtual = versaoAtual;
+    }
+
+    public long getVersaoAtual() {
+        return versaoAtual;
+    }
+}
@@ -0,0 +1,37 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions;
+// Define o pacote para as classes de exceção.
+
+// BLOCÃO 1: DEFINIÇÃO DA CLASSE
+// -------------------------------------------------------------------------
+
+public class ServicoIndisponivelException extends RuntimeException {
+// Exceção não verificada (unchecked) que sinaliza sobrecarga temporária do serviço.
+// FUNÇÃO: É lançada quando um recurso limitado (ex: a fila de hashing de senhas) está cheio.
+// O GlobalExceptionHandler a mapeia para o Status HTTP 503 (Service Unavailable) com o
+// header Retry-After, para que o cliente tente novamente depois em vez de esperar.
+
+    // BLOCÃO 2: ATRIBUTOS
+    // -------------------------------------------------------------------------
+
+    private final long segundosParaNovaTentativa;
+    // Valor enviado no header Retry-After da resposta.
+
+    // BLOCÃO 3: CONSTRUTORES
+    // -------------------------------------------------------------------------
+
+    public ServicoIndisponivelException(String mensagem, long segundosParaNovaTentativa) {
+        // Construtor Básico: mensagem de erro + tempo sugerido para o cliente tentar novamente.
+        super(mensagem);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+
+    public ServicoIndisponivelException(String mensagem, long segundosParaNovaTentativa, Throwable throwable) {
+        // Construtor Completo: preserva a causa original (ex: RejectedExecutionException).
+        super(mensagem, throwable);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+
+    public long getSegundosParaNovaTentativa() {
+        return segundosParaNovaTentativa;
+    }
+}
@@ -0,0 +1,99 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.expurgo;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.cache.InvalidacaoCacheSegundoNivel;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.ExpurgoUsuariosRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.sharding.RoteamentoShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// BLOCÃO 1: REMOÇÃO FÍSICA, EM SEGUNDO PLANO, DOS USUÁRIOS EXCLUÍDOS
+// -------------------------------------------------------------------------
+@Slf4j
+@Component
+// A exclusão de usuários (UsuarioService) só marca 'excluido_em'. Este componente apaga, a cada 'expurgo.intervalo-ms',
+// UM lote de até 'expurgo.tamanho-lote' usuários excluídos (endereços, telefones e a linha do usuário) em uma
+// transação curta. A vazão máxima é, portanto, tamanho-lote / intervalo (ex: 100 a cada 500 ms = 200 usuários/s):
+// uma exclusão em massa vira uma sequência de transações pequenas e espaçadas, em vez de um pico de bloqueios e I/O.
+// - Um nó por vez: cada lote roda com trava consultiva do Postgres; nos demais nós o ciclo é ignorado.
+// - Com o sharding, cada shard recebe um lote por ciclo.
+// Métrica: usuarios.expurgados (usuários removidos fisicamente).
+public class ExpurgoUsuarios {
+
+    // Chave da trava consultiva (pg_try_advisory_xact_lock) que elege o nó do expurgo.
+    private static final long CHAVE_TRAVA = 0x6578707572676FL;
+
+    private final ExpurgoUsuariosRepository expurgoUsuariosRepository;
+    private final InvalidacaoCacheSegundoNivel invalidacaoCache;
+    private final RoteamentoShards roteamentoShards;
+    private final TransactionTemplate transacao;
+    private final boolean habilitado;
+    private final int tamanhoLote;
+    private final Counter expurgados;
+
+    public ExpurgoUsuarios(ExpurgoUsuariosRepository expurgoUsuariosRepository,
+                           InvalidacaoCacheSegundoNivel invalidacaoCache,
+                           RoteamentoShards roteamentoShards,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${expurgo.habilitado:true}") boolean habilitado,
+                           @Value("${expurgo.tamanho-lote:100}") int tamanhoLote) {
+        this.expurgoUsuariosRepository = expurgoUsuariosRepository;
+        this.invalidacaoCache = invalidacaoCache;
+        this.roteamentoShards = roteamentoShards;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.tamanhoLote = Math.max(tamanhoLote, 1);
+        this.expurgados = Counter.builder("usuarios.expurgados")
+                .description("Usuários excluídos removidos fisicamente pelo expurgo em segundo plano")
+                .register(meterRegistry);
+    }
+
+    // BLOCÃO 2: CICLO DO EXPURGO
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: expurgarLote()
+     * FUNÇÃO: Apaga um lote de usuários excluídos em cada shard.
+     */
+    @Scheduled(fixedDelayString = "${expurgo.intervalo-ms:500}", initialDelayString = "${expurgo.intervalo-ms:500}")
+    public void expurgarLote() {
+        if (!habilitado) {
+            return;
+        }
+        for (int shard = 0; shard < roteamentoShards.quantidade(); shard++) {
+            try {
+                Integer removidos = roteamentoShards.noShard(shard, () -> transacao.execute(status -> expurgar()));
+                if (removidos != null && removidos > 0) {
+                    expurgados.increment(removidos);
+                    log.debug("Expurgo: {} usuários excluídos removidos do shard {}", removidos, shard);
+                }
+            } catch (RuntimeException e) {
+                // Banco (ou shard) indisponível, por exemplo: o próximo ciclo tenta de novo; os demais shards seguem.
+                log.warn("Falha no expurgo de usuários excluídos (shard {}): {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    // Retorna quantos usuários foram apagados (0 se outro nó detém a trava ou se não há excluídos).
+    private int expurgar() {
+        if (!expurgoUsuariosRepository.obterTravaDaTransacao(CHAVE_TRAVA)) {
+            return 0;
+        }
+        List<Long> ids = expurgoUsuariosRepository.travarLoteExcluido(tamanhoLote);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Filhos antes do pai (FK usuario_id); só os itens apagados saem do cache de segundo nível.
+        expurgoUsuariosRepository.apagarEnderecos(ids).forEach(invalidacaoCache::enderecoAlterado);
+        expurgoUsuariosRepository.apagarTelefones(ids).forEach(invalidacaoCache::telefoneAlterado);
+        return expurgoUsuariosRepository.apagarUsuarios(ids);
+    }
+}
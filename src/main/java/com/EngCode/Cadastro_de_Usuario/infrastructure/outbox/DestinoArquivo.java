@@ -0,0 +1,85 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.outbox;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.EventoOutbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// BLOCÃO 1: DESTINO EM ARQUIVO (NDJSON)
+// -------------------------------------------------------------------------
+@Component
+@ConditionalOnProperty(name = "outbox.destino", havingValue = "arquivo", matchIfMissing = true)
+// Acrescenta cada lote ao fim de um arquivo, um evento JSON por linha (NDJSON). Útil em desenvolvimento
+// e como log local de alterações. O lote só é confirmado depois do force(), ou seja, já gravado em disco.
+public class DestinoArquivo implements DestinoEventos {
+
+    private final ObjectMapper objectMapper;
+    private final Path caminho;
+    private FileChannel arquivo;
+
+    public DestinoArquivo(ObjectMapper objectMapper,
+                          @Value("${outbox.arquivo.caminho:eventos-usuario.ndjson}") String caminho) {
+        this.objectMapper = objectMapper;
+        this.caminho = Path.of(caminho);
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoOutbox> eventos) {
+        StringBuilder linhas = new StringBuilder();
+        for (EventoOutbox evento : eventos) {
+            try {
+                linhas.append(objectMapper.writeValueAsString(DestinoEventos.paraJson(objectMapper, evento))).append('\n');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Falha ao gerar o JSON do evento " + evento.getId() + ".", e);
+            }
+        }
+        try {
+            FileChannel canal = abrir();
+            ByteBuffer dados = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+            while (dados.hasRemaining()) {
+                canal.write(dados);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            fechar();
+            throw new UncheckedIOException("Falha ao gravar os eventos em " + caminho, e);
+        }
+    }
+
+    // Abre o arquivo na primeira gravação (ou após uma falha) e o mantém aberto entre os lotes.
+    private FileChannel abrir() throws IOException {
+        if (arquivo == null || !arquivo.isOpen()) {
+            Path pasta = caminho.toAbsolutePath().getParent();
+            if (pasta != null) {
+                Files.createDirectories(pasta);
+            }
+            arquivo = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return arquivo;
+    }
+
+    @PreDestroy
+    public synchronized void fechar() {
+        if (arquivo != null) {
+            try {
+                arquivo.close();
+            } catch (IOException e) {
+                // O conteúdo já confirmado foi gravado com force(); nada a fazer.
+            }
+            arquivo = null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.outbox;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.EventoOutbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+
+// BLOCÃO 1: DESTINO DOS EVENTOS PUBLICADOS
+// -------------------------------------------------------------------------
+// Para onde o PublicadorOutbox envia os eventos. Há um destino ativo por vez, escolhido por 'outbox.destino'
+// (DestinoArquivo ou DestinoWebhook); outro destino (ex: um broker de mensagens) é só mais uma implementação.
+// A entrega é "pelo menos uma vez": se o nó cair depois do envio e antes de marcar o lote como publicado,
+// o lote é reenviado. Os consumidores descartam repetições pelo 'id' do evento.
+public interface DestinoEventos {
+
+    /**
+     * MÉTODO: publicar(List)
+     * FUNÇÃO: Entrega o lote, na ordem recebida. Deve lançar exceção se o destino não confirmou
+     * o recebimento: o lote inteiro fica pendente e é reenviado depois.
+     */
+    void publicar(List<EventoOutbox> eventos);
+
+    /**
+     * MÉTODO: paraJson(ObjectMapper, EventoOutbox)
+     * FUNÇÃO: Formato de um evento para os consumidores: id, usuarioId, tipo, criadoEm e os dados.
+     */
+    static ObjectNode paraJson(ObjectMapper objectMapper, EventoOutbox evento) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("id", evento.getId());
+        json.put("usuarioId", evento.getUsuarioId());
+        json.put("tipo", evento.getTipo());
+        json.put("criadoEm", evento.getCriadoEm().toString());
+        try {
+            json.set("dados", objectMapper.readTree(evento.getPayload()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento " + evento.getId() + " com JSON inválido.", e);
+        }
+        return json;
+    }
+}
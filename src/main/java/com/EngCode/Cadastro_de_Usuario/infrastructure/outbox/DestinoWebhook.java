@@ -0,0 +1,53 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.outbox;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.EventoOutbox;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+// BLOCÃO 1: DESTINO HTTP (WEBHOOK)
+// -------------------------------------------------------------------------
+@Component
+@ConditionalOnProperty(name = "outbox.destino", havingValue = "webhook")
+// Envia cada lote em um POST, como um array JSON na ordem dos eventos, para 'outbox.webhook.url'.
+// Qualquer resposta fora da faixa 2xx (ou o tempo limite) conta como falha e o lote é reenviado depois.
+public class DestinoWebhook implements DestinoEventos {
+
+    private final ObjectMapper objectMapper;
+    private final RestClient restClient;
+    private final String url;
+
+    public DestinoWebhook(ObjectMapper objectMapper,
+                          RestClient.Builder restClientBuilder,
+                          @Value("${outbox.webhook.url}") String url,
+                          @Value("${outbox.webhook.timeout-ms:5000}") int timeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        this.objectMapper = objectMapper;
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.url = url;
+    }
+
+    @Override
+    public void publicar(List<EventoOutbox> eventos) {
+        ArrayNode lote = objectMapper.createArrayNode();
+        for (EventoOutbox evento : eventos) {
+            lote.add(DestinoEventos.paraJson(objectMapper, evento));
+        }
+        // retrieve().toBodilessEntity() lança RestClientResponseException para respostas 4xx/5xx.
+        restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(lote)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,174 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.outbox;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.EventoOutbox;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.EventoOutboxRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.sharding.RoteamentoShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// BLOCÃO 1: PUBLICAÇÃO DOS EVENTOS DA OUTBOX EM SEGUNDO PLANO
+// -------------------------------------------------------------------------
+@Slf4j
+@Component
+// A cada 'outbox.intervalo-ms', lê os eventos pendentes em lotes (em ordem de id) e os entrega ao destino
+// configurado (DestinoEventos). Enquanto os lotes vierem cheios, continua no mesmo ciclo, até esvaziar a fila.
+// - Um nó por vez: cada lote roda em uma transação com trava consultiva do Postgres; nos demais nós o ciclo é ignorado.
+// - Falha no envio: o lote recebe uma espera crescente (base × 2^tentativas, até o máximo) e o erro é registrado.
+//   Enquanto isso, os eventos seguintes dos MESMOS usuários também esperam (ordem por usuário preservada).
+// - Os eventos publicados são apagados depois de 'outbox.retencao-horas' (limpeza em lotes pequenos).
+// - Com o sharding, cada shard tem a própria outbox (gravada na transação do usuário): o ciclo passa por todos.
+// Métricas: outbox.eventos{resultado=publicado|falha} e outbox.atraso (da gravação até a publicação).
+public class PublicadorOutbox {
+
+    // Chave da trava consultiva (pg_try_advisory_xact_lock) que elege o nó publicador de cada lote.
+    public static final long CHAVE_TRAVA = 0x6F7574626F78L;
+    // Tamanho máximo da mensagem de erro guardada (coluna ultimo_erro).
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+    private static final int LOTE_LIMPEZA = 1000;
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final DestinoEventos destino;
+    private final RoteamentoShards roteamentoShards;
+    private final TransactionTemplate transacao;
+    private final boolean habilitado;
+    private final int tamanhoLote;
+    private final long esperaBaseMs;
+    private final long esperaMaximaMs;
+    private final Duration retencao;
+    private final Counter publicados;
+    private final Counter falhas;
+    private final Timer atraso;
+
+    public PublicadorOutbox(EventoOutboxRepository eventoOutboxRepository,
+                            DestinoEventos destino,
+                            RoteamentoShards roteamentoShards,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${outbox.publicador.habilitado:true}") boolean habilitado,
+                            @Value("${outbox.tamanho-lote:200}") int tamanhoLote,
+                            @Value("${outbox.espera-base-ms:1000}") long esperaBaseMs,
+                            @Value("${outbox.espera-maxima-ms:300000}") long esperaMaximaMs,
+                            @Value("${outbox.retencao-horas:72}") long retencaoHoras) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.destino = destino;
+        this.roteamentoShards = roteamentoShards;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.tamanhoLote = Math.max(tamanhoLote, 1);
+        this.esperaBaseMs = Math.max(esperaBaseMs, 1);
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.retencao = Duration.ofHours(retencaoHoras);
+        this.publicados = Counter.builder("outbox.eventos")
+                .tag("resultado", "publicado")
+                .description("Eventos da outbox entregues ao destino")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("outbox.eventos")
+                .tag("resultado", "falha")
+                .description("Envios de eventos da outbox que falharam (serão repetidos)")
+                .register(meterRegistry);
+        this.atraso = Timer.builder("outbox.atraso")
+                .description("Tempo entre a gravação do evento e a sua publicação")
+                .register(meterRegistry);
+    }
+
+    // BLOCÃO 2: CICLO DE PUBLICAÇÃO
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: publicarPendentes()
+     * FUNÇÃO: Publica lotes, em cada shard, até a fila de pendentes esvaziar (ou um envio falhar).
+     */
+    @Scheduled(fixedDelayString = "${outbox.intervalo-ms:1000}", initialDelayString = "${outbox.intervalo-ms:1000}")
+    public void publicarPendentes() {
+        if (!habilitado) {
+            return;
+        }
+        for (int shard = 0; shard < roteamentoShards.quantidade(); shard++) {
+            try {
+                roteamentoShards.noShard(shard, () -> {
+                    Integer enviados;
+                    do {
+                        enviados = transacao.execute(status -> publicarLote());
+                    } while (enviados != null && enviados == tamanhoLote);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                // Banco (ou shard) indisponível, por exemplo: o próximo ciclo tenta de novo; os demais shards seguem.
+                log.warn("Falha no ciclo de publicação da outbox (shard {}): {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    // Retorna quantos eventos foram publicados (0 se outro nó detém a trava, se não há pendentes ou se o envio falhou).
+    private int publicarLote() {
+        if (!eventoOutboxRepository.obterTravaDaTransacao(CHAVE_TRAVA)) {
+            return 0;
+        }
+        List<EventoOutbox> lote = eventoOutboxRepository.buscarLotePendente(Instant.now(), tamanhoLote);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = lote.stream().map(EventoOutbox::getId).toList();
+        try {
+            destino.publicar(lote);
+        } catch (RuntimeException e) {
+            int tentativas = lote.get(0).getTentativas();
+            long espera = Math.min(esperaMaximaMs, esperaBaseMs << Math.min(tentativas, 20));
+            eventoOutboxRepository.adiarLote(ids, Instant.now().plusMillis(espera), resumo(e));
+            falhas.increment(lote.size());
+            log.warn("Falha ao publicar {} eventos da outbox (tentativa {}); nova tentativa em {} ms: {}",
+                    lote.size(), tentativas + 1, espera, e.getMessage());
+            return 0;
+        }
+        Instant agora = Instant.now();
+        eventoOutboxRepository.marcarPublicados(ids, agora);
+        publicados.increment(lote.size());
+        lote.forEach(evento -> atraso.record(Duration.between(evento.getCriadoEm(), agora)));
+        return lote.size();
+    }
+
+    private static String resumo(Exception e) {
+        String mensagem = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return mensagem.length() > TAMANHO_MAXIMO_ERRO ? mensagem.substring(0, TAMANHO_MAXIMO_ERRO) : mensagem;
+    }
+
+    // BLOCÃO 3: LIMPEZA DOS EVENTOS JÁ PUBLICADOS
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: limparPublicados()
+     * FUNÇÃO: Apaga os eventos publicados há mais tempo que a retenção, em lotes (transações curtas), em cada shard.
+     */
+    @Scheduled(cron = "${outbox.limpeza-cron:0 */10 * * * *}")
+    public void limparPublicados() {
+        if (!habilitado) {
+            return;
+        }
+        Instant limite = Instant.now().minus(retencao);
+        for (int shard = 0; shard < roteamentoShards.quantidade(); shard++) {
+            roteamentoShards.noShard(shard, () -> {
+                int removidos;
+                do {
+                    Integer quantidade = transacao.execute(status -> {
+                        List<Long> ids = eventoOutboxRepository.buscarIdsPublicadosAntes(limite, Limit.of(LOTE_LIMPEZA));
+                        return ids.isEmpty() ? 0 : eventoOutboxRepository.deletarPorIds(ids);
+                    });
+                    removidos = quantidade == null ? 0 : quantidade;
+                } while (removidos == LOTE_LIMPEZA);
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Sequencias;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// BLOCÃO 1: ALINHAMENTO DAS SEQUÊNCIAS COM OS DADOS EXISTENTES
+// -------------------------------------------------------------------------
+@Slf4j
+@Component
+@RequiredArgsConstructor
+// A tabela 'usuario' usava IDENTITY; a sequência 'usuario_seq' (migração V1) começa em 1
+// e colidiria com os IDs já gravados. Na inicialização, cada sequência é avançada até o maior ID
+// da sua tabela (nunca recua, então é seguro com vários nós subindo ao mesmo tempo).
+public class AlinhadorSequencias implements ApplicationRunner {
+
+    private static final Map<String, String> TABELAS = Map.of(
+            Sequencias.USUARIO, "usuario",
+            Sequencias.ENDERECO, "endereco",
+            Sequencias.TELEFONE, "telefone");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TABELAS.forEach(this::alinhar);
+    }
+
+    /**
+     * MÉTODO: alinhar(String, String)
+     * FUNÇÃO: Se o último valor da sequência estiver abaixo do maior ID da tabela, posiciona a sequência
+     * nesse ID. O próximo bloco reservado pelo otimizador "pooled" começa logo após ele.
+     */
+    private void alinhar(String sequencia, String tabela) {
+        // Os nomes vêm das constantes acima (não de entrada do usuário), então a concatenação é segura.
+        Long maiorId = jdbcTemplate.queryForObject("select max(id) from " + tabela, Long.class);
+        Long ultimoValor = jdbcTemplate.queryForObject("select last_value from " + sequencia, Long.class);
+        if (maiorId != null && ultimoValor != null && ultimoValor < maiorId) {
+            jdbcTemplate.queryForObject("select setval(cast(? as regclass), greatest(?, (select last_value from " + sequencia + ")))",
+                    Long.class, sequencia, maiorId);
+            log.info("Sequência {} alinhada ao maior id da tabela {} ({})", sequencia, tabela, maiorId);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Endereco;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Telefone;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// BLOCÃO 1: ATUALIZAÇÃO PARCIAL (PATCH) EM UMA ÚNICA INSTRUÇÃO
+// -------------------------------------------------------------------------
+@Repository
+@RequiredArgsConstructor
+// Aplica um PATCH com um único "UPDATE tabela SET <só as colunas enviadas> WHERE chave = ? RETURNING ...".
+// Substitui o ciclo carregar → montar uma Entity nova → save (SELECT + merge + UPDATE de todas as colunas):
+// uma ida ao banco, só as colunas alteradas são escritas e a linha atualizada volta na mesma instrução.
+// Os nomes de coluna vêm do UsuarioConverter e são conferidos contra a lista de colunas permitidas
+// de cada tabela; os valores seguem sempre como parâmetros.
+// Versão (@Version): todo UPDATE incrementa 'versao', como o Hibernate faria. Com versões esperadas
+// (header If-Match), o UPDATE só acontece se a versão atual for uma delas: a checagem e a escrita são
+// a mesma instrução, sem janela de corrida e sem bloquear a linha além do próprio UPDATE.
+// Usuários excluídos (exclusão lógica, 'excluido_em' preenchido) não são atualizados nem encontrados.
+public class AtualizacaoParcialRepository {
+
+    private static final Set<String> COLUNAS_USUARIO = Set.of("nome", "email", "senha");
+    private static final Set<String> COLUNAS_ENDERECO = Set.of("rua", "numero", "complemento", "cidade", "estado", "cep");
+    private static final Set<String> COLUNAS_TELEFONE = Set.of("numero", "ddd");
+
+    // Chave do usuário: o e-mail, apenas entre os não excluídos (o SQL direto não recebe a @SQLRestriction da Entity).
+    private static final String CHAVE_USUARIO = "email = :chave and excluido_em is null";
+    // Chave do endereço/telefone: o id, e só se o item pertencer ao usuário do Token (ativo). Um id de outro usuário
+    // é tratado como inexistente (404), sem alterar nada nem revelar a versão do item.
+    private static final String CHAVE_ID_DO_USUARIO =
+            "id = :chave and usuario_id = (select id from usuario where email = :email and excluido_em is null)";
+
+    private static final RowMapper<Usuario> USUARIO = (rs, linha) -> Usuario.builder()
+            .id(rs.getLong("id"))
+            .nome(rs.getString("nome"))
+            .email(rs.getString("email"))
+            .senha(rs.getString("senha"))
+            .versao(rs.getLong("versao"))
+            .build();
+
+    private static final RowMapper<Endereco> ENDERECO = (rs, linha) -> Endereco.builder()
+            .id(rs.getLong("id"))
+            .rua(rs.getString("rua"))
+            .numero(rs.getObject("numero", Long.class))
+            .complemento(rs.getString("complemento"))
+            .cidade(rs.getString("cidade"))
+            .estado(rs.getString("estado"))
+            .cep(rs.getString("cep"))
+            .usuario_id(rs.getObject("usuario_id", Long.class))
+            .versao(rs.getLong("versao"))
+            .build();
+
+    private static final RowMapper<Telefone> TELEFONE = (rs, linha) -> Telefone.builder()
+            .id(rs.getLong("id"))
+            .numero(rs.getString("numero"))
+            .ddd(rs.getString("ddd"))
+            .usuario_id(rs.getObject("usuario_id", Long.class))
+            .versao(rs.getLong("versao"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // BLOCÃO 2: OPERAÇÕES POR TABELA
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: atualizarUsuario(String, Map, Collection)
+     * FUNÇÃO: Atualiza as colunas informadas do usuário com o e-mail dado e retorna a linha resultante
+     * (vazio se o e-mail não existir ou se a versão atual não estiver entre as esperadas).
+     * 'versoesEsperadas' nulo significa sem condição de versão.
+     */
+    public Optional<Usuario> atualizarUsuario(String email, Map<String, Object> colunas, Collection<Long> versoesEsperadas) {
+        return atualizar("usuario", COLUNAS_USUARIO, CHAVE_USUARIO, chave(email), colunas, versoesEsperadas,
+                "id, nome, email, senha, versao", USUARIO);
+    }
+
+    /**
+     * MÉTODO: atualizarEndereco(String, Long, Map, Collection)
+     * FUNÇÃO: Atualiza as colunas informadas do endereço do usuário com o e-mail dado e retorna a linha resultante
+     * (vazio se o endereço não existir ou for de outro usuário).
+     */
+    public Optional<Endereco> atualizarEndereco(String email, Long id, Map<String, Object> colunas,
+                                                Collection<Long> versoesEsperadas) {
+        return atualizar("endereco", COLUNAS_ENDERECO, CHAVE_ID_DO_USUARIO, chave(id).addValue("email", email),
+                colunas, versoesEsperadas,
+                "id, rua, numero, complemento, cidade, estado, cep, usuario_id, versao", ENDERECO);
+    }
+
+    /**
+     * MÉTODO: atualizarTelefone(String, Long, Map, Collection)
+     * FUNÇÃO: Atualiza as colunas informadas do telefone do usuário com o e-mail dado e retorna a linha resultante
+     * (vazio se o telefone não existir ou for de outro usuário).
+     */
+    public Optional<Telefone> atualizarTelefone(String email, Long id, Map<String, Object> colunas,
+                                                Collection<Long> versoesEsperadas) {
+        return atualizar("telefone", COLUNAS_TELEFONE, CHAVE_ID_DO_USUARIO, chave(id).addValue("email", email),
+                colunas, versoesEsperadas,
+                "id, numero, ddd, usuario_id, versao", TELEFONE);
+    }
+
+    /**
+     * MÉTODO: regravarSenha(String, String, String)
+     * FUNÇÃO: Troca o hash da senha do usuário somente se o hash gravado ainda for 'senhaAtual', e retorna o id
+     * do usuário (vazio se a senha já foi trocada por outra requisição ou se o usuário não existe mais).
+     * CONCEITO: Comparar e trocar na mesma instrução: uma regravação atrasada nunca sobrescreve uma senha mais nova.
+     * A versão não muda: o hash não faz parte do ETag, e a regravação não deve fazer um PUT com If-Match falhar.
+     */
+    public Optional<Long> regravarSenha(String email, String senhaAtual, String novaSenha) {
+        return jdbcTemplate.queryForList("update usuario set senha = :nova where " + CHAVE_USUARIO
+                        + " and senha = :atual returning id",
+                chave(email).addValue("atual", senhaAtual).addValue("nova", novaSenha),
+                Long.class).stream().findFirst();
+    }
+
+    // BLOCÃO 2.1: VERSÃO ATUAL (resposta quando a atualização não encontra a linha esperada)
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: versaoDoUsuario(String) / versaoDoEndereco(String, Long) / versaoDoTelefone(String, Long)
+     * FUNÇÃO: Versão atual do registro, ou vazio se ele não existir (ou, no endereço/telefone, for de outro usuário).
+     * Distingue "não encontrado" (404) de "alterado por outra requisição" (412) quando uma atualização
+     * condicional não altera nada.
+     */
+    public Optional<Long> versaoDoUsuario(String email) {
+        return versao("usuario", CHAVE_USUARIO, chave(email));
+    }
+
+    public Optional<Long> versaoDoEndereco(String email, Long id) {
+        return versao("endereco", CHAVE_ID_DO_USUARIO, chave(id).addValue("email", email));
+    }
+
+    public Optional<Long> versaoDoTelefone(String email, Long id) {
+        return versao("telefone", CHAVE_ID_DO_USUARIO, chave(id).addValue("email", email));
+    }
+
+    private Optional<Long> versao(String tabela, String condicaoChave, MapSqlParameterSource chave) {
+        return jdbcTemplate.queryForList("select versao from " + tabela + " where " + condicaoChave,
+                chave, Long.class).stream().findFirst();
+    }
+
+    private static MapSqlParameterSource chave(Object valor) {
+        return new MapSqlParameterSource("chave", valor);
+    }
+
+    // BLOCÃO 3: MONTAGEM DA INSTRUÇÃO
+    // -------------------------------------------------------------------------
+
+    private <T> Optional<T> atualizar(String tabela, Set<String> permitidas, String condicaoChave,
+                                      MapSqlParameterSource parametros, Map<String, Object> colunas,
+                                      Collection<Long> versoesEsperadas, String retorno, RowMapper<T> mapper) {
+        String condicao = condicaoChave;
+        if (versoesEsperadas != null) {
+            if (versoesEsperadas.isEmpty()) {
+                // Nenhuma versão aceitável (ex: If-Match só com ETags fracos): nada a alterar.
+                return Optional.empty();
+            }
+            condicao += " and versao in (:versoes)";
+            parametros.addValue("versoes", versoesEsperadas);
+        }
+        String sql;
+        if (colunas.isEmpty()) {
+            // PATCH vazio: nada a escrever (a versão não muda), apenas devolve a linha atual.
+            sql = "select " + retorno + " from " + tabela + " where " + condicao;
+        } else {
+            for (String coluna : colunas.keySet()) {
+                if (!permitidas.contains(coluna)) {
+                    throw new IllegalStateException("Coluna não permitida na atualização de " + tabela + ": " + coluna);
+                }
+            }
+            colunas.forEach(parametros::addValue);
+            sql = "update " + tabela + " set "
+                    + colunas.keySet().stream().map(coluna -> coluna + " = :" + coluna).collect(Collectors.joining(", "))
+                    + ", versao = versao + 1"
+                    + " where " + condicao + " returning " + retorno;
+        }
+        return jdbcTemplate.query(sql, parametros, mapper).stream().findFirst();
+    }
+}
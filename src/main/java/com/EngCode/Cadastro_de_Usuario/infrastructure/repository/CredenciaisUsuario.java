@@ -0,0 +1,9 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+// BLOCÃO 1: PROJEÇÃO DAS CREDENCIAIS (login)
+// -------------------------------------------------------------------------
+// E-mail, hash da senha e perfil lidos direto do banco pela própria consulta ("select new ..."). Uma projeção nunca
+// passa pelo cache de segundo nível (nem o lê nem o preenche): o login sempre confere a senha e o perfil atuais,
+// mesmo que outro nó tenha trocado a senha ou o e-mail, ou excluído o usuário, há menos tempo que o TTL do cache.
+public record CredenciaisUsuario(String email, String senha, boolean administrador) {
+}
@@ -0,0 +1,9 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+// BLOCÃO 1: PROJEÇÃO POR CONSTRUTOR (somente leitura)
+// -------------------------------------------------------------------------
+// Colunas de um endereço lidas direto para este record (sem Entity e sem contexto de persistência).
+// 'usuarioId' permite ler os endereços de vários usuários em uma consulta e agrupá-los depois.
+public record EnderecoLeitura(Long usuarioId, Long id, String rua, Long numero, String complemento,
+                              String cidade, String estado, String cep, Long versao) {
+}
@@ -5,8 +5,13 @@ package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Endereco;
 // Importa a Entidade JPA que este repositório irá gerenciar.
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 // Importa a interface principal do Spring Data JPA.
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
 // Importa a anotação @Repository.
 
 @Repository
@@ -25,4 +30,14 @@ public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
 
     // Esta interface está vazia, mas já possui todo o CRUD por herança.
     // Se você precisasse de métodos específicos (ex: buscar por CEP), eles seriam definidos aqui.
-}
\ No newline at end of file
+
+    @Query("""
+            select new com.EngCode.Cadastro_de_Usuario.infrastructure.repository.EnderecoLeitura(x.usuario_id, x.id, x.rua, x.numero, x.complemento, x.cidade, x.estado, x.cep, x.versao)
+            from Endereco x
+            where x.usuario_id in :usuarios
+            order by x.usuario_id, x.id""")
+    List<EnderecoLeitura> buscarLeituraPorUsuarios(@Param("usuarios") Collection<Long> usuarios);
+    // FUNÇÃO: Itens de um ou vários usuários em UMA consulta, direto na projeção EnderecoLeitura (sem Entities),
+    // em ordem de usuário e de id (ex: resposta do PATCH do usuário, páginas da exportação).
+    // @Query explícita: o nome do campo 'usuario_id' (com '_') não funciona em consultas derivadas do nome do método.
+}
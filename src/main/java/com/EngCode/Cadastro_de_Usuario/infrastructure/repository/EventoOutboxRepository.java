@@ -0,0 +1,66 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+// Define o pacote onde o repositório reside (camada de acesso ao banco de dados).
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.EventoOutbox;
+// Importa a Entidade JPA que este repositório gerencia.
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+// Marca a interface como um componente de Repositório gerenciado pelo Spring.
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+// 1. EventoOutbox: Entidade mapeada.
+// 2. Long: Tipo da Chave Primária.
+
+    @Query(value = "select pg_try_advisory_xact_lock(:chave)", nativeQuery = true)
+    boolean obterTravaDaTransacao(@Param("chave") long chave);
+    // FUNÇÃO: Trava consultiva do Postgres, liberada no fim da transação. Só o nó que a obtém publica
+    // naquele ciclo: com vários nós, os eventos continuam saindo em ordem e sem envio em dobro.
+
+    @Query(value = """
+            select e.* from evento_outbox e
+            where e.publicado_em is null
+              and e.proxima_tentativa_em <= :agora
+              and not exists (select 1 from evento_outbox anterior
+                              where anterior.usuario_id = e.usuario_id
+                                and anterior.publicado_em is null
+                                and anterior.id < e.id
+                                and anterior.proxima_tentativa_em > :agora)
+            order by e.id
+            limit :limite""", nativeQuery = true)
+    List<EventoOutbox> buscarLotePendente(@Param("agora") Instant agora, @Param("limite") int limite);
+    // FUNÇÃO: Próximo lote de eventos pendentes, em ordem de id.
+    // CONCEITO: Um evento cujo envio falhou (aguardando a próxima tentativa) segura os eventos seguintes
+    // do MESMO usuário, para que não sejam entregues fora de ordem; os demais usuários seguem normalmente.
+    // Os índices parciais da migração V2 (apenas linhas pendentes) mantêm a consulta pequena.
+
+    @Modifying
+    @Query("update EventoOutbox e set e.publicadoEm = :agora where e.id in :ids")
+    int marcarPublicados(@Param("ids") Collection<Long> ids, @Param("agora") Instant agora);
+    // FUNÇÃO: Marca o lote como publicado em uma instrução.
+
+    @Modifying
+    @Query("""
+            update EventoOutbox e
+            set e.tentativas = e.tentativas + 1, e.proximaTentativaEm = :proxima, e.ultimoErro = :erro
+            where e.id in :ids""")
+    int adiarLote(@Param("ids") Collection<Long> ids, @Param("proxima") Instant proxima, @Param("erro") String erro);
+    // FUNÇÃO: Registra a falha de envio do lote e agenda a próxima tentativa.
+
+    @Query("select e.id from EventoOutbox e where e.publicadoEm < :limite order by e.id")
+    List<Long> buscarIdsPublicadosAntes(@Param("limite") Instant limite, Limit quantidade);
+    // FUNÇÃO: Ids dos eventos já publicados há mais tempo que a retenção (limpeza em lotes pequenos).
+
+    @Modifying
+    @Query("delete from EventoOutbox e where e.id in :ids")
+    int deletarPorIds(@Param("ids") Collection<Long> ids);
+    // FUNÇÃO: Remove os eventos informados em uma instrução.
+}
@@ -0,0 +1,70 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+// BLOCÃO 1: REMOÇÃO FÍSICA DOS USUÁRIOS EXCLUÍDOS
+// -------------------------------------------------------------------------
+@Repository
+@RequiredArgsConstructor
+// Instruções do ExpurgoUsuarios, em SQL direto: os usuários excluídos (exclusão lógica) não são mais visíveis
+// pelo Hibernate (@SQLRestriction da Entity Usuario), e um DELETE em JPQL esvaziaria regiões inteiras do
+// cache de segundo nível a cada lote. Aqui os DELETEs devolvem os ids apagados (RETURNING), para que apenas
+// esses itens sejam removidos do cache. Todas devem rodar na mesma transação (filhos antes do pai, FK usuario_id).
+public class ExpurgoUsuariosRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * MÉTODO: obterTravaDaTransacao(long)
+     * FUNÇÃO: Trava consultiva do Postgres, liberada no fim da transação. Com vários nós, só um expurga por vez,
+     * e a vazão configurada vale para o banco inteiro (e não para cada nó).
+     */
+    public boolean obterTravaDaTransacao(long chave) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(:chave)",
+                new MapSqlParameterSource("chave", chave), Boolean.class));
+    }
+
+    /**
+     * MÉTODO: travarLoteExcluido(int)
+     * FUNÇÃO: Ids dos próximos usuários excluídos (os mais antigos primeiro), bloqueados até o fim da transação.
+     * 'skip locked': uma linha bloqueada por outra operação fica para o próximo lote, sem espera.
+     */
+    public List<Long> travarLoteExcluido(int limite) {
+        return jdbcTemplate.queryForList("""
+                        select id from usuario
+                        where excluido_em is not null
+                        order by excluido_em, id
+                        limit :limite
+                        for update skip locked""",
+                new MapSqlParameterSource("limite", limite), Long.class);
+    }
+
+    /**
+     * MÉTODO: apagarEnderecos(Collection) / apagarTelefones(Collection)
+     * FUNÇÃO: Apaga os endereços (ou telefones) dos usuários informados e retorna os ids apagados.
+     */
+    public List<Long> apagarEnderecos(Collection<Long> idsUsuarios) {
+        return jdbcTemplate.queryForList("delete from endereco where usuario_id in (:ids) returning id",
+                new MapSqlParameterSource("ids", idsUsuarios), Long.class);
+    }
+
+    public List<Long> apagarTelefones(Collection<Long> idsUsuarios) {
+        return jdbcTemplate.queryForList("delete from telefone where usuario_id in (:ids) returning id",
+                new MapSqlParameterSource("ids", idsUsuarios), Long.class);
+    }
+
+    /**
+     * MÉTODO: apagarUsuarios(Collection)
+     * FUNÇÃO: Apaga as linhas dos usuários informados (apenas os já excluídos logicamente). Retorna quantas foram apagadas.
+     */
+    public int apagarUsuarios(Collection<Long> idsUsuarios) {
+        return jdbcTemplate.update("delete from usuario where id in (:ids) and excluido_em is not null",
+                new MapSqlParameterSource("ids", idsUsuarios));
+    }
+}
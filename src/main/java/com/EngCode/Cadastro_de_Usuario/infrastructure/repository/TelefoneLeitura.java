@@ -0,0 +1,8 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+// BLOCÃO 1: PROJEÇÃO POR CONSTRUTOR (somente leitura)
+// -------------------------------------------------------------------------
+// Colunas de um telefone lidas direto para este record (sem Entity e sem contexto de persistência).
+// 'usuarioId' permite ler os telefones de vários usuários em uma consulta e agrupá-los depois.
+public record TelefoneLeitura(Long usuarioId, Long id, String numero, String ddd, Long versao) {
+}
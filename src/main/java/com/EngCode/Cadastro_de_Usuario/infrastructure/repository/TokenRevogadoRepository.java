@@ -0,0 +1,58 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+// Define o pacote onde o repositório reside (camada de acesso ao banco de dados).
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.TokenRevogado;
+// Importa a Entidade JPA que este repositório gerencia.
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+// Marca a interface como um componente de Repositório gerenciado pelo Spring.
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+// 1. TokenRevogado: Entidade mapeada.
+// 2. String: Tipo da Chave Primária (a chave da revogação).
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into token_revogado (chave, revogado_em, expira_em)
+            values (:chave, clock_timestamp(), :expiraEm)
+            on conflict (chave) do update set revogado_em = excluded.revogado_em, expira_em = excluded.expira_em""",
+            nativeQuery = true)
+    // FUNÇÃO: Grava (ou renova) a revogação com 'revogado_em' vindo do relógio do BANCO, e não do nó.
+    // Assim a sincronização entre os nós compara instantes de um único relógio (ver agoraNoBanco).
+    int registrar(@Param("chave") String chave, @Param("expiraEm") Instant expiraEm);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into token_revogado (chave, revogado_em, expira_em)
+            values (:chave, clock_timestamp(), :expiraEm)
+            on conflict (chave) do nothing""",
+            nativeQuery = true)
+    // FUNÇÃO: Grava a revogação apenas se a chave ainda não existir. Retorna 1 para quem gravou e 0 se ela
+    // já estava revogada: entre chamadas concorrentes, em qualquer nó, só uma recebe 1 (chave primária).
+    int registrarSeAusente(@Param("chave") String chave, @Param("expiraEm") Instant expiraEm);
+
+    @Query(value = "select clock_timestamp()", nativeQuery = true)
+    // FUNÇÃO: Instante atual no relógio do banco: a marca d'água da sincronização incremental do filtro.
+    Instant agoraNoBanco();
+
+    @Query("select t.chave from TokenRevogado t where t.revogadoEm > :desde")
+    // FUNÇÃO: Retorna apenas as chaves revogadas após um instante. Usado para carregar e
+    // sincronizar o Filtro de Bloom em memória sem trazer as entidades completas.
+    List<String> buscarChavesRevogadasDesde(@Param("desde") Instant desde);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevogado t where t.expiraEm < :agora")
+    // FUNÇÃO: Remove em uma única instrução as revogações cujos tokens já expiraram.
+    int deletarExpirados(@Param("agora") Instant agora);
+}
@@ -0,0 +1,9 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+// BLOCÃO 1: PROJEÇÃO POR CONSTRUTOR (somente leitura)
+// -------------------------------------------------------------------------
+// Colunas de um usuário lidas direto para este record pela própria consulta ("select new ..."): o Hibernate
+// não cria a Entity Usuario, não a registra no contexto de persistência e não guarda a cópia usada no dirty checking.
+// A senha não faz parte da projeção (a leitura para exportação nunca a envia).
+public record UsuarioLeitura(Long id, String nome, String email, Long versao) {
+}
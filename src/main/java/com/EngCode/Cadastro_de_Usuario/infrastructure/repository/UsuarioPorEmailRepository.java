@@ -0,0 +1,31 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+
+import java.util.Optional;
+
+// BLOCÃO 1: BUSCA PELO E-MAIL (ID NATURAL)
+// -------------------------------------------------------------------------
+// Fragmento do UsuarioRepository: o Spring Data junta este método aos da interface principal,
+// usando a implementação em UsuarioPorEmailRepositoryImpl.
+public interface UsuarioPorEmailRepository {
+
+    /**
+     * MÉTODO: buscarPorEmail(String)
+     * FUNÇÃO: Busca o usuário pelo e-mail através do ID natural.
+     * CONCEITO: Diferente de uma consulta derivada (findByEmail, sempre um SELECT), a busca pelo ID natural
+     * consulta antes o cache de segundo nível (e-mail → id, e depois o usuário pelo id); só vai ao banco
+     * se o usuário não estiver em cache. Usuários excluídos (exclusão lógica) não são encontrados.
+     */
+    Optional<Usuario> buscarPorEmail(String email);
+
+    /**
+     * MÉTODO: buscarComEnderecosPorEmail(String)
+     * FUNÇÃO: Mesma busca pelo ID natural, para quem vai ler as coleções (ex: GET do usuário).
+     * CONCEITO: Em cache, nada muda (usuário e coleções vêm do cache de segundo nível, sem SQL). Fora dele, o
+     * usuário vem em UM SELECT já com os endereços (fetch join pelo grafo de entidade), em vez de um SELECT
+     * para o usuário e outro para a coleção. Os telefones ficam de fora do grafo: duas listas (bags) não podem
+     * vir no mesmo JOIN (MultipleBagFetchException e produto cartesiano), então custam uma consulta, ou nenhuma em cache.
+     */
+    Optional<Usuario> buscarComEnderecosPorEmail(String email);
+}
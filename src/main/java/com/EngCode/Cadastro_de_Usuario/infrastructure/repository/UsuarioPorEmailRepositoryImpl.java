@@ -0,0 +1,40 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.graph.RootGraph;
+
+import java.util.Optional;
+
+// BLOCÃO 1: IMPLEMENTAÇÃO DO FRAGMENTO (API DE ID NATURAL DO HIBERNATE)
+// -------------------------------------------------------------------------
+// O sufixo "Impl" é a convenção do Spring Data para localizar a implementação do fragmento.
+class UsuarioPorEmailRepositoryImpl implements UsuarioPorEmailRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Usuario> buscarPorEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Usuario.class)
+                .loadOptional(email)
+                // A @SQLRestriction já exclui os usuários excluídos da consulta; o filtro cobre também uma entrada
+                // lida do cache antes de a exclusão ser confirmada.
+                .filter(usuario -> usuario.getExcluidoEm() == null);
+    }
+
+    @Override
+    public Optional<Usuario> buscarComEnderecosPorEmail(String email) {
+        Session sessao = entityManager.unwrap(Session.class);
+        RootGraph<Usuario> comEnderecos = sessao.createEntityGraph(Usuario.class);
+        comEnderecos.addAttributeNodes("enderecos");
+        return sessao.bySimpleNaturalId(Usuario.class)
+                // Grafo de busca (fetch graph): aplicado só quando o usuário vem do banco.
+                .withFetchGraph(comEnderecos)
+                .loadOptional(email)
+                .filter(usuario -> usuario.getExcluidoEm() == null);
+    }
+}
@@ -4,25 +4,44 @@ package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
 
 import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
 // Importa a Entidade JPA que este repositório gerencia.
+import jakarta.persistence.QueryHint;
+// Importa a anotação @QueryHint (dicas repassadas ao Hibernate/JDBC, ex: fetch size).
+import org.hibernate.jpa.HibernateHints;
+// Importa as constantes das dicas do Hibernate.
+import org.springframework.data.domain.Limit;
+// Importa a classe Limit (quantidade máxima de linhas de uma consulta).
 import org.springframework.data.jpa.repository.JpaRepository;
 // Importa a interface principal do Spring Data JPA.
+import org.springframework.data.jpa.repository.Modifying;
+// Importa a anotação @Modifying (marca consultas que alteram dados: UPDATE/DELETE).
+import org.springframework.data.jpa.repository.Query;
+// Importa a anotação @Query (consultas JPQL escritas manualmente).
+import org.springframework.data.jpa.repository.QueryHints;
+// Importa a anotação @QueryHints (agrupa as dicas de uma consulta).
+import org.springframework.data.repository.query.Param;
+// Importa a anotação @Param (nomeia os parâmetros da consulta).
 import org.springframework.stereotype.Repository;
 // Importa a anotação @Repository.
-import org.springframework.transaction.annotation.Transactional;
-// Importa a anotação @Transactional.
 
+import java.time.Instant;
+// Importa a classe Instant (momento da exclusão lógica).
+import java.util.Collection;
+// Importa a interface Collection (parâmetro da carga em lote de telefones).
+import java.util.List;
+// Importa a interface List (retorno da carga em lote).
 import java.util.Optional;
-// Importa a classe Optional, usada para lidar com resultados que podem ser nulos.
+// Importa a classe Optional (retorno de consultas que podem não encontrar o usuário).
 
 // BLOCÃO 1: ESTRUTURA E HERANÇA
 // -------------------------------------------------------------------------
 @Repository
 // Marca a interface como um componente de Repositório gerenciado pelo Spring.
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioPorEmailRepository {
 // Repositórios são interfaces. Ao estender JpaRepository:
 // 1. Usuario: Entidade mapeada.
 // 2. Long: Tipo da Chave Primária (ID) da Entidade Usuario.
 // FUNÇÃO: O Spring gera automaticamente os métodos CRUD (save, findById, findAll, etc.).
+// UsuarioPorEmailRepository: acrescenta buscarPorEmail (ID natural, atendido pelo cache de segundo nível).
 
     // BLOCÃO 2: QUERY METHODS (Consultas Derivadas)
     // -------------------------------------------------------------------------
@@ -30,24 +49,102 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     boolean existsByEmail(String email);
     // FUNÇÃO: Método de consulta derivado (Query Method). O Spring lê o nome
     // ('existsByEmail') e cria o SQL: 'SELECT COUNT(*) > 0 FROM usuario WHERE email = ?'.
-    // É usado na camada Service para verificar rapidamente se o e-mail já existe.
-
-    Optional<Usuario> findByEmail (String email);
-    // FUNÇÃO: Método de consulta derivado que busca um usuário pelo e-mail.
+    // É usado apenas na pré-checagem opcional de disponibilidade do e-mail; o cadastro confia no índice único.
 
+    // A busca de um usuário pelo e-mail é buscarPorEmail (fragmento UsuarioPorEmailRepository): diferente de
+    // um "findByEmail" derivado, que sempre executa um SELECT, ela passa antes pelo cache de segundo nível.
     // Optional é uma classe do java util serve para evitar o retorno de informações nulas
     // CONCEITO: O retorno é encapsulado em Optional. Isso força o código que chama
     // a lidar explicitamente com a possibilidade de o resultado ser nulo, prevenindo
     // NullPointerExceptions (com métodos como .orElseThrow()).
 
+    @Query("""
+            select new com.EngCode.Cadastro_de_Usuario.infrastructure.repository.CredenciaisUsuario(u.email, u.senha, u.administrador)
+            from Usuario u
+            where u.email = :email""")
+    Optional<CredenciaisUsuario> buscarCredenciaisPorEmail(@Param("email") String email);
+    // FUNÇÃO: Credenciais do usuário ativo com o e-mail, para o login. Consulta direta ao banco, sem o cache de
+    // segundo nível (que é local a cada nó e só é invalidado no nó que fez a alteração).
+
+    @Query("select u.administrador from Usuario u where u.email = :email")
+    Optional<Boolean> buscarAdministradorPorEmail(@Param("email") String email);
+    // FUNÇÃO: Perfil de administrador do usuário ativo com o e-mail (vazio se não existir). Consulta direta ao banco,
+    // sem o cache de segundo nível: usada na renovação do token, que copia o perfil para o novo access token.
+
+    @Query("select u.email from Usuario u where u.email in :emails")
+    List<String> buscarEmailsExistentes(@Param("emails") Collection<String> emails);
+    // FUNÇÃO: Retorna, em UMA consulta, quais e-mails de um lote já estão cadastrados (usado na importação em lote).
+
+    @Query("select u.id as id, u.email as email from Usuario u where u.email in :emails")
+    List<UsuarioResumo> buscarIdsPorEmails(@Param("emails") Collection<String> emails);
+    // FUNÇÃO: Id e e-mail dos usuários existentes do lote (exclusão em lote: eventos de exclusão e revogação de tokens).
+    // Apenas getId() e getEmail() da projeção são preenchidos.
+
+    // BLOCÃO 2.1: PAGINAÇÃO POR CHAVE (keyset) COM PROJEÇÃO
+    // -------------------------------------------------------------------------
+    // CONCEITO: Usada pela exportação, que percorre a tabela inteira. A consulta preenche o record UsuarioLeitura
+    // (projeção por construtor): nenhuma Entity é criada, o contexto de persistência fica vazio e o cache de
+    // segundo nível não é consultado nem preenchido. Endereços e telefones da página vêm dos métodos
+    // buscarLeituraPorUsuarios de EnderecoRepository e TelefoneRepository (uma consulta para cada).
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioLeitura(u.id, u.nome, u.email, u.versao)
+            from Usuario u
+            where u.id > :ultimoId
+            order by u.id""")
+    List<UsuarioLeitura> buscarPaginaAposId(@Param("ultimoId") long ultimoId, Limit limite);
+    // FUNÇÃO: Próxima página de usuários depois do último ID visto (WHERE id > ? ORDER BY id LIMIT ?).
+    // CONCEITO: Diferente de OFFSET, o custo não cresce com a posição na tabela: o banco desce direto no índice da PK.
+    // O fetch size faz o driver ler o resultado em blocos (cursor no servidor), sem acumular tudo de uma vez.
+
+    // BLOCÃO 2.3: BUSCA POR PREFIXO (projeção + paginação por chave)
+    // -------------------------------------------------------------------------
+    // CONCEITO: As consultas comparam lower(coluna) com a collation "C" (ordem de bytes), a mesma dos índices
+    // ix_usuario_nome_prefixo e ix_usuario_email_prefixo (migração V2). Assim o banco usa o índice tanto para o
+    // LIKE 'prefixo%' quanto para a ordenação e o "(chave, id) > (última chave, último id)" da paginação:
+    // a consulta lê apenas as linhas da página, em qualquer posição do resultado.
+    // Consultas nativas não recebem a @SQLRestriction da Entity: o filtro dos excluídos é escrito nelas.
+
+    @Query(value = """
+            select u.id as id, u.nome as nome, u.email as email, lower(u.nome) as chave
+            from usuario u
+            where lower(u.nome) collate "C" like :prefixo
+              and u.excluido_em is null
+              and (lower(u.nome) collate "C", u.id) > (:ultimaChave, :ultimoId)
+            order by lower(u.nome) collate "C", u.id
+            limit :limite""", nativeQuery = true)
+    List<UsuarioResumo> buscarPorPrefixoDoNome(@Param("prefixo") String prefixo,
+                                               @Param("ultimaChave") String ultimaChave,
+                                               @Param("ultimoId") long ultimoId,
+                                               @Param("limite") int limite);
+    // FUNÇÃO: Usuários cujo nome começa com o prefixo (sem diferenciar maiúsculas), após o cursor informado.
+
+    @Query(value = """
+            select u.id as id, u.nome as nome, u.email as email, lower(u.email) as chave
+            from usuario u
+            where lower(u.email) collate "C" like :prefixo
+              and u.excluido_em is null
+              and (lower(u.email) collate "C", u.id) > (:ultimaChave, :ultimoId)
+            order by lower(u.email) collate "C", u.id
+            limit :limite""", nativeQuery = true)
+    List<UsuarioResumo> buscarPorPrefixoDoEmail(@Param("prefixo") String prefixo,
+                                                @Param("ultimaChave") String ultimaChave,
+                                                @Param("ultimoId") long ultimoId,
+                                                @Param("limite") int limite);
+    // FUNÇÃO: Mesma busca, pelo prefixo do e-mail.
+
     // BLOCÃO 3: OPERAÇÕES DE MODIFICAÇÃO
     // -------------------------------------------------------------------------
 
-    @Transactional //Ajuda a não causar erro na hora de deletar
-        // CONCEITO: A anotação @Transactional é NECESSÁRIA em métodos que modificam dados
-        // e que foram definidos por um nome (Query Method), como este (deleteByEmail).
-        // Ela garante que a operação seja executada como uma transação atômica no banco.
-    void deleteByEmail (String email);
-    // FUNÇÃO: Método de consulta derivado que remove um usuário com base no e-mail.
-    // O 'void' indica que o método não retorna dados.
-}
\ No newline at end of file
+    // CONCEITO: Exclusão lógica em conjunto (set-based). A exclusão não apaga nada na requisição: um único UPDATE
+    // marca 'excluido_em' dos usuários, que deixam de aparecer nas leituras (@SQLRestriction da Entity).
+    // Endereços, telefones e a linha do usuário são apagados depois, em lotes, pelo ExpurgoUsuarios.
+    // Por ser JPQL, o Hibernate esvazia sozinho a região de usuários (e a do ID natural) do cache de segundo nível no commit.
+
+    @Modifying
+    @Query("update Usuario u set u.excluidoEm = :agora, u.versao = u.versao + 1 where u.id in :ids")
+    int marcarExcluidos(@Param("ids") Collection<Long> ids, @Param("agora") Instant agora);
+    // FUNÇÃO: Marca os usuários informados como excluídos (e incrementa a versão, como qualquer alteração).
+    // Retorna quantos foram marcados.
+}
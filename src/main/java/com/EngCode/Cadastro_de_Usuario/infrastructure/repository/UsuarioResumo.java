@@ -0,0 +1,19 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.repository;
+// Define o pacote onde a projeção reside (junto dos repositórios que a retornam).
+
+// BLOCÃO 1: PROJEÇÃO (Interface-based Projection do Spring Data)
+// -------------------------------------------------------------------------
+public interface UsuarioResumo {
+// FUNÇÃO: Visão "leve" de um usuário: o Spring Data devolve apenas estas colunas,
+// sem criar a Entity Usuario, sem contexto de persistência e sem carregar endereços/telefones.
+// Os nomes dos getters correspondem aos aliases (as id, as nome, as email) das consultas.
+
+    Long getId();
+
+    String getNome();
+
+    String getEmail();
+
+    String getChave();
+    // Valor da coluna ordenada (lower(nome) ou lower(email)) calculado pelo banco: compõe o cursor da próxima página.
+}
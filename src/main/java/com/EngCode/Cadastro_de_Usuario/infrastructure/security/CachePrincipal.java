@@ -0,0 +1,58 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// BLOCÃO 1: CACHE OPCIONAL DE PRINCIPAIS (UserDetails)
+// -------------------------------------------------------------------------
+@Component
+// Mantém em memória os UserDetails carregados pelo filtro JWT, evitando uma ida ao banco
+// (UsuarioRepository.buscarPorEmail) a cada requisição autenticada.
+// O cache é limitado em tamanho e tempo de vida, e a UsuarioService invalida as entradas
+// sempre que um usuário é atualizado ou removido.
+public class CachePrincipal {
+
+    private final boolean habilitado;
+    private final Cache<String, UserDetails> principais;
+
+    public CachePrincipal(@Value("${seguranca.principal.cache.habilitado:true}") boolean habilitado,
+                          @Value("${seguranca.principal.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                          @Value("${seguranca.principal.cache.ttl-segundos:300}") long ttlSegundos) {
+        this.habilitado = habilitado;
+        this.principais = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .build();
+    }
+
+    // BLOCÃO 2: OPERAÇÕES
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: carregar(String, Function)
+     * FUNÇÃO: Retorna o principal em cache ou o carrega com a função informada.
+     * Com o cache desabilitado, apenas delega para a função (comportamento original).
+     */
+    public UserDetails carregar(String email, Function<String, UserDetails> carregador) {
+        if (!habilitado) {
+            return carregador.apply(email);
+        }
+        return principais.get(email, carregador);
+    }
+
+    /**
+     * MÉTODO: invalidar(String)
+     * FUNÇÃO: Remove o principal do cache (chamado após update ou delete do usuário).
+     */
+    public void invalidar(String email) {
+        if (email != null) {
+            principais.invalidate(email);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+// BLOCÃO 1: ENCODER DE SENHAS COM ALGORITMO CONFIGURÁVEL E CUSTO CALIBRADO
+// -------------------------------------------------------------------------
+@Slf4j
+@Component
+// Monta o DelegatingPasswordEncoder da aplicação. Os hashes ganham o prefixo {id}
+// ({bcrypt}, {scrypt} ou {argon2}), então hashes de algoritmos diferentes convivem no banco.
+// Na inicialização, o custo do algoritmo escolhido é calibrado para a latência-alvo
+// configurada no hardware atual. Hashes com algoritmo diferente ou custo menor são
+// regravados de forma transparente no próximo login (ver UserDetailsServiceImpl.updatePassword).
+public class CalibradorHashSenha {
+
+    // Senha usada apenas para medir o tempo de hash durante a calibração.
+    private static final String SENHA_CALIBRACAO = "calibracao-do-custo-de-hash";
+
+    // Pisos de segurança: a calibração nunca escolhe um custo abaixo destes valores.
+    private static final int BCRYPT_CUSTO_MINIMO = 10;
+    private static final int BCRYPT_CUSTO_MAXIMO = 16;
+    private static final int SCRYPT_LOG2_MINIMO = 14;
+    private static final int SCRYPT_LOG2_MAXIMO = 17; // 2^17 * 8 * 128 bytes = 128 MiB por hash
+    private static final int ARGON2_ITERACOES_MINIMAS = 2;
+    private static final int ARGON2_ITERACOES_MAXIMAS = 10;
+    private static final int ARGON2_MEMORIA_KIB = 19456; // Recomendação OWASP (19 MiB)
+
+    private final PasswordEncoder encoder;
+
+    public CalibradorHashSenha(@Value("${seguranca.hash.algoritmo:bcrypt}") String algoritmo,
+                               @Value("${seguranca.hash.calibrar:true}") boolean calibrar,
+                               @Value("${seguranca.hash.latencia-alvo-ms:250}") long latenciaAlvoMs) {
+        String idParaEncode = algoritmo.toLowerCase();
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", idParaEncode.equals("bcrypt") && calibrar
+                ? calibrar("bcrypt", BCRYPT_CUSTO_MINIMO, BCRYPT_CUSTO_MAXIMO, latenciaAlvoMs, this::bcrypt)
+                : bcrypt(BCRYPT_CUSTO_MINIMO));
+        encoders.put("scrypt", idParaEncode.equals("scrypt") && calibrar
+                ? calibrar("scrypt", SCRYPT_LOG2_MINIMO, SCRYPT_LOG2_MAXIMO, latenciaAlvoMs, this::scrypt)
+                : scrypt(SCRYPT_LOG2_MINIMO));
+        encoders.put("argon2", idParaEncode.equals("argon2") && calibrar
+                ? calibrar("argon2", ARGON2_ITERACOES_MINIMAS, ARGON2_ITERACOES_MAXIMAS, latenciaAlvoMs, this::argon2)
+                : argon2(ARGON2_ITERACOES_MINIMAS));
+
+        if (!encoders.containsKey(idParaEncode)) {
+            throw new IllegalStateException("Algoritmo de hash não suportado: " + algoritmo
+                    + " (use bcrypt, scrypt ou argon2).");
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idParaEncode, encoders);
+        // Hashes antigos, gravados antes dos prefixos {id}, são BCrypt puros.
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+        this.encoder = delegating;
+    }
+
+    // BLOCÃO 2: ACESSO AO ENCODER
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: getEncoder()
+     * FUNÇÃO: Retorna o encoder calibrado. Ele roda na thread chamadora; o bean PasswordEncoder
+     * da aplicação o envolve no PasswordEncoderIsolado.
+     */
+    public PasswordEncoder getEncoder() {
+        return encoder;
+    }
+
+    // BLOCÃO 3: CALIBRAÇÃO
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: calibrar(...)
+     * FUNÇÃO: Aumenta o custo a partir do mínimo enquanto o hash couber na latência-alvo
+     * e devolve o encoder com o maior custo aceito.
+     */
+    private PasswordEncoder calibrar(String algoritmo, int custoMinimo, int custoMaximo, long latenciaAlvoMs,
+                                     IntFunction<PasswordEncoder> fabrica) {
+        int custoEscolhido = custoMinimo;
+        long tempoEscolhidoMs = medir(fabrica.apply(custoMinimo));
+
+        for (int custo = custoMinimo + 1; custo <= custoMaximo; custo++) {
+            long tempoMs = medir(fabrica.apply(custo));
+            if (tempoMs > latenciaAlvoMs) {
+                break;
+            }
+            custoEscolhido = custo;
+            tempoEscolhidoMs = tempoMs;
+        }
+
+        log.info("Hash de senha calibrado: algoritmo={} custo={} latencia={}ms alvo={}ms",
+                algoritmo, custoEscolhido, tempoEscolhidoMs, latenciaAlvoMs);
+        return fabrica.apply(custoEscolhido);
+    }
+
+    // Mede o menor tempo de duas execuções (a primeira também serve de aquecimento).
+    private long medir(PasswordEncoder encoder) {
+        long melhor = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long inicio = System.nanoTime();
+            encoder.encode(SENHA_CALIBRACAO);
+            melhor = Math.min(melhor, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return melhor;
+    }
+
+    // Fábricas de cada algoritmo a partir do parâmetro de custo calibrado.
+    private PasswordEncoder bcrypt(int custo) {
+        return new BCryptPasswordEncoder(custo);
+    }
+
+    private PasswordEncoder scrypt(int log2CustoCpu) {
+        return new SCryptPasswordEncoder(1 << log2CustoCpu, 8, 1, 32, 16);
+    }
+
+    private PasswordEncoder argon2(int iteracoes) {
+        return new Argon2PasswordEncoder(16, 32, 1, ARGON2_MEMORIA_KIB, iteracoes);
+    }
+}
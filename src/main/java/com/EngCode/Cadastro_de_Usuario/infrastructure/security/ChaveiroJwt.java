@@ -0,0 +1,203 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.AlgorithmParameters;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// BLOCÃO 1: CHAVEIRO DE ASSINATURA DOS TOKENS (ES256 / EdDSA)
+// -------------------------------------------------------------------------
+@Slf4j
+@Component
+// Carrega de um keystore PKCS12 local as chaves assimétricas usadas nos tokens JWT.
+// - A chave do alias ativo assina os novos tokens; o alias vai no header 'kid'.
+// - Todas as chaves públicas do keystore continuam aceitas na verificação e são publicadas
+//   em /.well-known/jwks.json, para que outros serviços validem tokens localmente.
+// Rotação: adicione a nova chave ao keystore, troque o alias ativo e mantenha a antiga até
+// os tokens assinados com ela expirarem. O keystore é relido periodicamente.
+public class ChaveiroJwt {
+
+    // Curvas aceitas e o algoritmo JWS de cada uma (RFC 7518: ES256 = P-256, ES384 = P-384, ES512 = P-521).
+    private static final Map<ECParameterSpec, SignatureAlgorithm> CURVAS = Map.of(
+            parametrosDaCurva("secp256r1"), Jwts.SIG.ES256,
+            parametrosDaCurva("secp384r1"), Jwts.SIG.ES384,
+            parametrosDaCurva("secp521r1"), Jwts.SIG.ES512);
+
+    private final String caminhoKeystore;
+    private final char[] senhaKeystore;
+    private final String aliasAtivo;
+
+    // Snapshot imutável das chaves; trocado por inteiro a cada recarga.
+    private volatile Chaves chaves;
+
+    public ChaveiroJwt(@Value("${seguranca.jwt.keystore.caminho:}") String caminhoKeystore,
+                       @Value("${seguranca.jwt.keystore.senha:}") String senhaKeystore,
+                       @Value("${seguranca.jwt.keystore.alias-ativo:}") String aliasAtivo) {
+        this.caminhoKeystore = caminhoKeystore;
+        this.senhaKeystore = senhaKeystore.toCharArray();
+        this.aliasAtivo = aliasAtivo;
+    }
+
+    // BLOCÃO 2: ACESSO ÀS CHAVES
+    // -------------------------------------------------------------------------
+
+    // Identificador (kid) da chave que assina os novos tokens.
+    public String kidAtivo() {
+        return chaves.kidAtivo();
+    }
+
+    // Chave privada que assina os novos tokens.
+    public PrivateKey chavePrivadaAtiva() {
+        return chaves.privadaAtiva();
+    }
+
+    // Algoritmo JWS correspondente à chave ativa (ES256/ES384/ES512 ou EdDSA).
+    public SignatureAlgorithm algoritmoAtivo() {
+        return chaves.algoritmoAtivo();
+    }
+
+    // Chave pública para verificar um token a partir do 'kid' do header (null se desconhecido).
+    public PublicKey chavePublica(String kid) {
+        return kid == null ? null : chaves.publicas().get(kid);
+    }
+
+    /**
+     * MÉTODO: jwksJson()
+     * FUNÇÃO: Monta o documento JWKS (RFC 7517) com todas as chaves públicas do chaveiro.
+     */
+    public String jwksJson() {
+        return chaves.publicas().entrySet().stream()
+                .map(entrada -> Jwks.json(Jwks.builder().key(entrada.getValue()).id(entrada.getKey()).build()))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+    }
+
+    // BLOCÃO 3: CARGA E ROTAÇÃO
+    // -------------------------------------------------------------------------
+
+    @PostConstruct
+    public void inicializar() {
+        if (caminhoKeystore.isBlank()) {
+            // Sem keystore configurado (ex: desenvolvimento): gera uma chave ES256 em memória.
+            // Os tokens deixam de valer a cada reinício e não são compartilhados entre nós.
+            log.warn("seguranca.jwt.keystore.caminho não configurado: usando chave ES256 efêmera gerada em memória.");
+            this.chaves = chavesEfemeras();
+            return;
+        }
+        recarregar();
+    }
+
+    @Scheduled(fixedDelayString = "${seguranca.jwt.keystore.recarga-ms:60000}",
+            initialDelayString = "${seguranca.jwt.keystore.recarga-ms:60000}")
+    // Relê o keystore para aplicar rotações sem reiniciar o serviço.
+    public void recarregar() {
+        if (caminhoKeystore.isBlank()) {
+            return;
+        }
+        try (InputStream entrada = Files.newInputStream(Path.of(caminhoKeystore))) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(entrada, senhaKeystore);
+
+            Map<String, PublicKey> publicas = new LinkedHashMap<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (keyStore.isKeyEntry(alias) && keyStore.getCertificate(alias) != null) {
+                    PublicKey publica = keyStore.getCertificate(alias).getPublicKey();
+                    if (algoritmoPara(publica) != null) {
+                        publicas.put(alias, publica);
+                    } else {
+                        log.warn("Chave '{}' ignorada: apenas chaves EC (P-256, P-384, P-521) e Ed25519 são suportadas.", alias);
+                    }
+                }
+            }
+
+            Key privada = keyStore.getKey(aliasAtivo, senhaKeystore);
+            if (!(privada instanceof PrivateKey privadaAtiva) || !publicas.containsKey(aliasAtivo)) {
+                throw new IllegalStateException("Alias ativo '" + aliasAtivo + "' não encontrado ou sem chave EC/Ed25519.");
+            }
+
+            this.chaves = new Chaves(aliasAtivo, privadaAtiva, algoritmoPara(publicas.get(aliasAtivo)),
+                    Map.copyOf(publicas));
+        } catch (Exception e) {
+            if (this.chaves == null) {
+                // Na inicialização, um keystore inválido deve impedir a subida do serviço.
+                throw new IllegalStateException("Não foi possível carregar o keystore JWT: " + caminhoKeystore, e);
+            }
+            // Em recargas, mantém as chaves atuais e apenas registra o problema.
+            log.error("Falha ao recarregar o keystore JWT; mantendo as chaves atuais.", e);
+        }
+    }
+
+    // Define o algoritmo JWS a partir do tipo da chave (null se não suportado).
+    // Chaves EC: compara a curva inteira (equação, ponto gerador, ordem e cofator) com as curvas nomeadas da RFC 7518.
+    // Só o tamanho do campo não basta: outra curva de 256 bits (ex: secp256k1) não é P-256 e não pode virar ES256.
+    static SignatureAlgorithm algoritmoPara(Key chave) {
+        if (chave instanceof ECKey ecKey) {
+            ECParameterSpec parametros = ecKey.getParams();
+            return CURVAS.entrySet().stream()
+                    .filter(curva -> mesmaCurva(curva.getKey(), parametros))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(null);
+        }
+        String algoritmo = chave.getAlgorithm();
+        if ("EdDSA".equals(algoritmo) || "Ed25519".equals(algoritmo)) {
+            return Jwts.SIG.EdDSA;
+        }
+        return null;
+    }
+
+    private static boolean mesmaCurva(ECParameterSpec esperada, ECParameterSpec recebida) {
+        return esperada.getCurve().equals(recebida.getCurve())
+                && esperada.getGenerator().equals(recebida.getGenerator())
+                && esperada.getOrder().equals(recebida.getOrder())
+                && esperada.getCofactor() == recebida.getCofactor();
+    }
+
+    private static ECParameterSpec parametrosDaCurva(String nome) {
+        try {
+            AlgorithmParameters parametros = AlgorithmParameters.getInstance("EC");
+            parametros.init(new ECGenParameterSpec(nome));
+            return parametros.getParameterSpec(ECParameterSpec.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Curva " + nome + " indisponível na JVM.", e);
+        }
+    }
+
+    private static Chaves chavesEfemeras() {
+        try {
+            KeyPairGenerator gerador = KeyPairGenerator.getInstance("EC");
+            gerador.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair par = gerador.generateKeyPair();
+            String kid = "efemera-" + UUID.randomUUID();
+            return new Chaves(kid, par.getPrivate(), Jwts.SIG.ES256, Map.of(kid, par.getPublic()));
+        } catch (Exception e) {
+            throw new IllegalStateException("Não foi possível gerar a chave JWT efêmera.", e);
+        }
+    }
+
+    private record Chaves(String kidAtivo, PrivateKey privadaAtiva, SignatureAlgorithm algoritmoAtivo,
+                          Map<String, PublicKey> publicas) {
+    }
+}
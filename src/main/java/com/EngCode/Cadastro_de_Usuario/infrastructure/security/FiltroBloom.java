@@ -0,0 +1,86 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// BLOCÃO 1: FILTRO DE BLOOM THREAD-SAFE
+// -------------------------------------------------------------------------
+// Estrutura probabilística que responde "com certeza não contém" ou "talvez contenha".
+// É usada como caminho rápido da revogação de tokens: o caso comum (token não revogado)
+// é resolvido em memória, em nanossegundos, e só os "talvez" consultam o banco.
+// Os bits ficam em um AtomicLongArray, então inserções e consultas concorrentes dispensam locks.
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final int totalBits;
+    private final int quantidadeHashes;
+
+    /**
+     * CONSTRUTOR: FiltroBloom(long, double)
+     * FUNÇÃO: Dimensiona o filtro para a capacidade esperada e a taxa de falso-positivo desejada.
+     */
+    public FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        long capacidadeSegura = Math.max(capacidade, 1);
+        // Fórmulas clássicas: m = -n*ln(p)/(ln 2)^2 e k = m/n * ln 2
+        long m = (long) Math.ceil(-capacidadeSegura * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.totalBits = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) totalBits / capacidadeSegura * Math.log(2)));
+        this.bits = new AtomicLongArray((totalBits + 63) / 64);
+    }
+
+    // BLOCÃO 2: OPERAÇÕES
+    // -------------------------------------------------------------------------
+
+    public void adicionar(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            int indice = indice(h1 + i * h2);
+            long mascara = 1L << (indice & 63);
+            int palavra = indice >>> 6;
+            long atual;
+            do {
+                atual = bits.get(palavra);
+                if ((atual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+    }
+
+    public boolean talvezContenha(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            int indice = indice(h1 + i * h2);
+            if ((bits.get(indice >>> 6) & (1L << (indice & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // BLOCÃO 3: FUNÇÕES DE HASH (double hashing a partir de um hash de 64 bits)
+    // -------------------------------------------------------------------------
+
+    private int indice(int hashCombinado) {
+        return (hashCombinado & Integer.MAX_VALUE) % totalBits;
+    }
+
+    // FNV-1a de 64 bits seguido do finalizador do MurmurHash3, para espalhar bem os bits.
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,184 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.ServicoIndisponivelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// BLOCÃO 1: EXECUTOR DEDICADO PARA HASHING DE SENHAS
+// -------------------------------------------------------------------------
+@Component
+// O hashing de senha (BCrypt) é puramente CPU. Executá-lo nas threads do Tomcat faz com que
+// uma rajada de logins ocupe todos os workers e deixe as leituras simples (GET) esperando.
+// Este executor isola esse trabalho em um pool do tamanho dos núcleos, com fila limitada:
+// quando a fila enche, o chamador recebe na hora um 503 com Retry-After (backpressure).
+// O timeout limita apenas a espera do chamador: BCrypt, scrypt e Argon2 não respondem a interrupção, então um hash
+// que já começou ocupa a thread até terminar. Uma tarefa que estoura o timeout ainda na fila é descartada sem rodar;
+// uma que já estava rodando é contada em 'seguranca.hash.abandonadas' até acabar. Dimensione a fila para que uma
+// tarefa normalmente termine dentro do timeout: fila-maxima <= threads x (timeout-ms / latencia-alvo-ms - 1).
+// Timeouts frequentes indicam CPU saturada, não hashes presos.
+public class HashSenhaExecutor {
+
+    // Estados de uma tarefa: o timeout e a thread do pool disputam a transição por compareAndSet.
+    private static final int NA_FILA = 0;
+    private static final int EXECUTANDO = 1;
+    private static final int CONCLUIDA = 2;
+    private static final int ABANDONADA = 3;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final long retryAfterSegundos;
+
+    // Métricas: tempo de espera na fila e tempo de execução do hash (por operação).
+    private final Timer tempoEspera;
+    private final Timer tempoHashEncode;
+    private final Timer tempoHashMatches;
+    // Timeouts do chamador e hashes que continuam rodando depois dele.
+    private final Counter timeouts;
+    private final AtomicInteger abandonadasEmExecucao = new AtomicInteger();
+
+    public HashSenhaExecutor(MeterRegistry meterRegistry,
+                             @Value("${seguranca.hash.threads:0}") int threads,
+                             @Value("${seguranca.hash.fila-maxima:64}") int filaMaxima,
+                             @Value("${seguranca.hash.timeout-ms:5000}") long timeoutMs,
+                             @Value("${seguranca.hash.retry-after-segundos:1}") long retryAfterSegundos) {
+        // threads <= 0 significa "um por núcleo disponível".
+        int tamanhoPool = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(tamanhoPool, tamanhoPool, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(filaMaxima), new FabricaThreads(), new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSegundos = retryAfterSegundos;
+
+        Gauge.builder("seguranca.hash.fila", executor, e -> e.getQueue().size())
+                .description("Tarefas de hashing de senha aguardando na fila")
+                .register(meterRegistry);
+        Gauge.builder("seguranca.hash.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Threads de hashing de senha em execução")
+                .register(meterRegistry);
+        Gauge.builder("seguranca.hash.abandonadas", abandonadasEmExecucao, AtomicInteger::get)
+                .description("Hashes ainda em execução cujo chamador já desistiu (timeout)")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("seguranca.hash.timeouts")
+                .description("Chamadas que desistiram de esperar o hashing (seguranca.hash.timeout-ms)")
+                .register(meterRegistry);
+        this.tempoEspera = Timer.builder("seguranca.hash.espera")
+                .description("Tempo entre a submissão e o início do hashing")
+                .register(meterRegistry);
+        this.tempoHashEncode = Timer.builder("seguranca.hash.execucao")
+                .tag("operacao", "encode")
+                .description("Tempo de CPU gasto no hashing de senha")
+                .register(meterRegistry);
+        this.tempoHashMatches = Timer.builder("seguranca.hash.execucao")
+                .tag("operacao", "matches")
+                .description("Tempo de CPU gasto no hashing de senha")
+                .register(meterRegistry);
+    }
+
+    // BLOCÃO 2: EXECUÇÃO
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: encode(Supplier)
+     * FUNÇÃO: Executa um hash de nova senha no pool dedicado e aguarda o resultado.
+     */
+    public String encode(Supplier<String> tarefa) {
+        return executar(tempoHashEncode, tarefa);
+    }
+
+    /**
+     * MÉTODO: matches(Supplier)
+     * FUNÇÃO: Executa uma verificação de senha (login) no pool dedicado e aguarda o resultado.
+     */
+    public boolean matches(Supplier<Boolean> tarefa) {
+        return executar(tempoHashMatches, tarefa);
+    }
+
+    private <T> T executar(Timer tempoHash, Supplier<T> tarefa) {
+        final long submetidoEm = System.nanoTime();
+        AtomicInteger estado = new AtomicInteger(NA_FILA);
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                if (!estado.compareAndSet(NA_FILA, EXECUTANDO)) {
+                    return null; // Abandonada ainda na fila: ninguém espera o resultado.
+                }
+                tempoEspera.record(System.nanoTime() - submetidoEm, TimeUnit.NANOSECONDS);
+                try {
+                    return tempoHash.record(tarefa);
+                } finally {
+                    if (!estado.compareAndSet(EXECUTANDO, CONCLUIDA)) {
+                        abandonadasEmExecucao.decrementAndGet();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Fila cheia: falha rápida em vez de empilhar mais trabalho de CPU.
+            throw new ServicoIndisponivelException("Serviço sobrecarregado, tente novamente em instantes.",
+                    retryAfterSegundos, e);
+        }
+
+        try {
+            return futuro.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            abandonar(estado, futuro);
+            throw new ServicoIndisponivelException("Tempo de processamento da senha excedido.", retryAfterSegundos, e);
+        } catch (InterruptedException e) {
+            abandonar(estado, futuro);
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivelException("Processamento da senha interrompido.", retryAfterSegundos, e);
+        } catch (ExecutionException e) {
+            // Propaga a exceção original lançada pelo encoder.
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // O chamador desistiu. Na fila, a tarefa é cancelada e não roda. Em execução, ela não pode ser interrompida:
+    // fica contada até terminar (o incremento vem antes da troca de estado, para o decremento nunca o ultrapassar).
+    private void abandonar(AtomicInteger estado, Future<?> futuro) {
+        if (estado.compareAndSet(NA_FILA, ABANDONADA)) {
+            futuro.cancel(false);
+            return;
+        }
+        abandonadasEmExecucao.incrementAndGet();
+        if (!estado.compareAndSet(EXECUTANDO, ABANDONADA)) {
+            abandonadasEmExecucao.decrementAndGet(); // Terminou nesse meio-tempo.
+        }
+    }
+
+    @PreDestroy
+    // Encerra o pool junto com o contexto do Spring.
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    // Nomeia as threads do pool (facilita a leitura de thread dumps) e as marca como daemon.
+    private static class FabricaThreads implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "hash-senha-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,11 +21,25 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     // Define propriedades para armazenar instâncias de JwtUtil e UserDetailsService
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    // Cache opcional dos principais carregados do banco (modo com consulta ao banco)
+    private final CachePrincipal cachePrincipal;
+    // Revogação de tokens (Filtro de Bloom em memória + consulta exata nos positivos)
+    private final RevogacaoTokenService revogacaoTokenService;
+    // Permissões do usuário no modo stateless, em que o UserDetailsService não é consultado (perfil da claim 'adm')
+    private final PerfisAcesso perfisAcesso;
+    // Modo stateless: monta a autenticação apenas com as claims do token, sem consultar o banco
+    private final boolean stateless;
 
     // Construtor que inicializa as propriedades com instâncias fornecidas
-    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, CachePrincipal cachePrincipal,
+                            RevogacaoTokenService revogacaoTokenService, PerfisAcesso perfisAcesso,
+                            boolean stateless) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.cachePrincipal = cachePrincipal;
+        this.revogacaoTokenService = revogacaoTokenService;
+        this.perfisAcesso = perfisAcesso;
+        this.stateless = stateless;
     }
 
     // Método chamado uma vez por requisição para processar o filtro
@@ -37,15 +54,29 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             // Extrai o token JWT do cabeçalho
             final String token = authorizationHeader.substring(7);
+            // Verifica a assinatura uma única vez (ou lê do cache) e reaproveita as claims abaixo
+            final Claims claims;
+            try {
+                claims = jwtUtil.extrairClaimsVerificadas(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                // Token malformado, com assinatura inválida ou expirado: segue sem autenticar
+                chain.doFilter(request, response);
+                return;
+            }
+            // Refresh tokens só valem no endpoint de renovação, e tokens revogados não autenticam
+            if (jwtUtil.isRefreshToken(claims) || revogacaoTokenService.estaRevogado(claims)) {
+                chain.doFilter(request, response);
+                return;
+            }
             // Extrai o nome de usuário do token JWT
-            final String username = jwtUtil.extrairEmailToken(token);
+            final String username = claims.getSubject();
 
             // Se o nome de usuário não for nulo e o usuário não estiver autenticado ainda
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Carrega os detalhes do usuário a partir do nome de usuário
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                // Valida o token JWT
-                if (jwtUtil.validateToken(token, username)) {
+                // Carrega os detalhes do usuário (das claims no modo stateless, ou do banco/cache)
+                UserDetails userDetails = carregarPrincipal(username, claims);
+                // Valida o token JWT a partir das claims já verificadas
+                if (jwtUtil.validateToken(claims, username)) {
                     // Cria um objeto de autenticação com as informações do usuário
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
@@ -58,4 +89,17 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         // Continua a cadeia de filtros, permitindo que a requisição prossiga
         chain.doFilter(request, response);
     }
+
+    // Monta o principal da requisição.
+    // Stateless: usa somente o 'sub' e o perfil ('adm') do token já verificado (nenhuma consulta ao banco).
+    // Caso contrário: consulta o UserDetailsService, passando pelo cache de principais.
+    private UserDetails carregarPrincipal(String username, Claims claims) {
+        if (stateless) {
+            return User.withUsername(username)
+                    .password("")
+                    .authorities(perfisAcesso.autoridades(jwtUtil.isAdministrador(claims)))
+                    .build();
+        }
+        return cachePrincipal.carregar(username, userDetailsService::loadUserByUsername);
+    }
 }
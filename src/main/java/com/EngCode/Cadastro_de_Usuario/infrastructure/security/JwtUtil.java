@@ -1,40 +1,127 @@
 package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtUtil {
 
-    // Chave secreta usada para assinar e verificar tokens JWT
-    private final String secretKey = "sua-chave-secreta-super-segura-que-deve-ser-bem-longa";
+    // Chaveiro com as chaves assimétricas (ES256/EdDSA): a ativa assina, todas as publicadas verificam
+    private final ChaveiroJwt chaveiroJwt;
 
+    // Relógio da emissão: o 'iat' segue o relógio do banco, o mesmo que grava as revogações por usuário
+    private final RelogioDoBanco relogioDoBanco;
 
+    // O parser é imutável e thread-safe: criado uma única vez. A chave de verificação é localizada
+    // pelo 'kid' do header, então tokens assinados por chaves anteriores continuam válidos após a rotação.
+    private final JwtParser parser;
 
-    // Gera um token JWT com o nome de usuário e validade de 1 hora
-    public String generateToken(String username) {
+    // Claim que diferencia o access token (usado nas requisições) do refresh token (usado só para renovar).
+    public static final String CLAIM_TIPO = "tipo";
+    public static final String TIPO_ACCESS = "access";
+    public static final String TIPO_REFRESH = "refresh";
+    // Claim do access token com o perfil de administrador (lido da linha do usuário na emissão), usada no modo stateless.
+    public static final String CLAIM_ADMIN = "adm";
+
+    // Cache das claims já verificadas, indexado pelo digest SHA-256 do token (nunca guardamos o token em si).
+    // Cada entrada expira junto com o próprio token, então um token é verificado uma vez por nó durante sua vida útil.
+    private final Cache<String, Claims> claimsVerificadas;
+
+    // Validade dos tokens: access tokens curtos e refresh tokens longos (renovados em /usuario/token/refresh).
+    private final long validadeAccessMs;
+    private final long validadeRefreshMs;
+
+    public JwtUtil(ChaveiroJwt chaveiroJwt,
+                   RelogioDoBanco relogioDoBanco,
+                   @Value("${jwt.cache.tamanho-maximo:10000}") long tamanhoMaximoCache,
+                   @Value("${seguranca.jwt.access-ttl-minutos:15}") long accessTtlMinutos,
+                   @Value("${seguranca.jwt.refresh-ttl-horas:168}") long refreshTtlHoras) {
+        this.chaveiroJwt = chaveiroJwt;
+        this.relogioDoBanco = relogioDoBanco;
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return chaveiroJwt.chavePublica(header.getKeyId());
+                    }
+                })
+                .build();
+        this.claimsVerificadas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfter(new ExpiraComToken())
+                .build();
+        this.validadeAccessMs = TimeUnit.MINUTES.toMillis(accessTtlMinutos);
+        this.validadeRefreshMs = TimeUnit.HOURS.toMillis(refreshTtlHoras);
+    }
+
+    // Gera um access token JWT com o nome de usuário, o perfil e validade curta (seguranca.jwt.access-ttl-minutos)
+    public String generateToken(String username, boolean administrador) {
+        return gerarToken(username, TIPO_ACCESS, validadeAccessMs, administrador);
+    }
+
+    // Gera um refresh token JWT, aceito apenas no endpoint de renovação (seguranca.jwt.refresh-ttl-horas).
+    // Não carrega o perfil: a renovação o relê do banco.
+    public String gerarRefreshToken(String username) {
+        return gerarToken(username, TIPO_REFRESH, validadeRefreshMs, false);
+    }
+
+    private String gerarToken(String username, String tipo, long validadeMs, boolean administrador) {
+        long emitidoEm = relogioDoBanco.agora().toEpochMilli();
         return Jwts.builder()
+                .header().keyId(chaveiroJwt.kidAtivo()).and() // Identifica a chave de assinatura (kid)
+                .setId(UUID.randomUUID().toString()) // Identificador único (jti), usado na revogação individual
                 .setSubject(username) // Define o nome de usuário como o assunto do token
-                .setIssuedAt(new Date()) // Define a data e hora de emissão do token
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // Define a data e hora de expiração (1 hora a partir da emissão)
-                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256) // Converte a chave secreta em bytes e assina o token com ela
+                .claim(CLAIM_TIPO, tipo) // Access ou refresh
+                .claim(CLAIM_ADMIN, administrador) // Perfil de administrador (só vale em access tokens)
+                .setIssuedAt(new Date(emitidoEm)) // Emissão, no relógio do banco (comparada com 'revogado_em')
+                .setExpiration(new Date(emitidoEm + validadeMs)) // Define a data e hora de expiração
+                .signWith(chaveiroJwt.chavePrivadaAtiva(), chaveiroJwt.algoritmoAtivo()) // Assina com a chave privada ativa
                 .compact(); // Constrói o token JWT
     }
 
+    // Indica se as claims pertencem a um refresh token.
+    public boolean isRefreshToken(Claims claims) {
+        return TIPO_REFRESH.equals(claims.get(CLAIM_TIPO, String.class));
+    }
+
+    // Indica se as claims são de um access token emitido para um administrador.
+    public boolean isAdministrador(Claims claims) {
+        return TIPO_ACCESS.equals(claims.get(CLAIM_TIPO, String.class))
+                && Boolean.TRUE.equals(claims.get(CLAIM_ADMIN, Boolean.class));
+    }
+
     // Extrai as claims do token JWT (informações adicionais do token)
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8))) // Define a chave secreta para validar a assinatura do token
-                .build()
-                .parseClaimsJws(token) // Analisa o token JWT e obtém as claims
-                .getBody(); // Retorna o corpo das claims
+        return extrairClaimsVerificadas(token);
+    }
+
+    /**
+     * MÉTODO: extrairClaimsVerificadas(String)
+     * FUNÇÃO: Retorna as claims de um token cuja assinatura e expiração já foram validadas.
+     * CONCEITO: A verificação da assinatura só acontece na primeira vez que o token é visto; as chamadas
+     * seguintes (filtro, service) leem do cache. Tokens inválidos ou expirados lançam JwtException
+     * e nunca entram no cache.
+     */
+    public Claims extrairClaimsVerificadas(String token) {
+        return claimsVerificadas.get(digest(token), chave -> parser.parseSignedClaims(token).getPayload());
     }
 
     // Extrai o nome de usuário do token JWT
@@ -46,14 +133,51 @@ public class JwtUtil {
     // Verifica se o token JWT está expirado
     public boolean isTokenExpired(String token) {
         // Compara a data de expiração do token com a data atual
-        return extractClaims(token).getExpiration().before(new Date());
+        return isTokenExpired(extractClaims(token));
+    }
+
+    // Mesma verificação de expiração, mas a partir de claims já extraídas (sem novo parse).
+    public boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     // Valida o token JWT verificando o nome de usuário e se o token não está expirado
     public boolean validateToken(String token, String username) {
-        // Extrai o nome de usuário do token
-        final String extractedUsername = extrairEmailToken(token);
-        // Verifica se o nome de usuário do token corresponde ao fornecido e se o token não está expirado
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return validateToken(extractClaims(token), username);
+    }
+
+    // Valida claims já verificadas: confere o nome de usuário e a expiração.
+    public boolean validateToken(Claims claims, String username) {
+        return (claims.getSubject().equals(username) && !isTokenExpired(claims));
+    }
+
+    // Calcula o digest SHA-256 do token, usado como chave do cache.
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    // Política de expiração do cache: cada entrada vive até o 'exp' do próprio token.
+    private static class ExpiraComToken implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String chave, Claims claims, long tempoAtual) {
+            long restanteMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(restanteMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, Claims claims, long tempoAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
+
+        @Override
+        public long expireAfterRead(String chave, Claims claims, long tempoAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
     }
 }
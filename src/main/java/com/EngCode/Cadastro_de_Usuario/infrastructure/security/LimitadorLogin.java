@@ -0,0 +1,177 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.MuitasTentativasException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+// BLOCÃO 1: LIMITADOR DE TENTATIVAS DE LOGIN
+// -------------------------------------------------------------------------
+@Component
+// A verificação de senha é a operação mais cara do serviço. Este limitador roda ANTES do
+// AuthenticationManager.authenticate e combina duas proteções:
+// 1. Token buckets por IP e por e-mail (rajadas limitadas + taxa de recarga contínua).
+// 2. Bloqueio progressivo da conta após falhas seguidas (o tempo dobra a cada nova falha).
+// Cada balde é lock-free (CAS em um estado imutável) e os mapas são caches Caffeine limitados
+// em tamanho, com remoção das entradas ociosas: a memória não cresce com o número de atacantes.
+public class LimitadorLogin {
+
+    private final Cache<String, BaldeTokens> baldes;
+    private final Cache<String, AtomicReference<Falhas>> falhas;
+
+    private final long capacidadeIp;
+    private final double recargaIpPorNano;
+    private final long capacidadeEmail;
+    private final double recargaEmailPorNano;
+    private final int limiteFalhas;
+    private final long bloqueioBaseNanos;
+    private final long bloqueioMaximoNanos;
+    // Fonte de tempo dos baldes e bloqueios (System.nanoTime; substituída nos testes).
+    private final LongSupplier relogioNanos;
+
+    @Autowired
+    public LimitadorLogin(@Value("${seguranca.login.ip.capacidade:20}") long capacidadeIp,
+                          @Value("${seguranca.login.ip.recarga-por-minuto:20}") long recargaIpPorMinuto,
+                          @Value("${seguranca.login.email.capacidade:5}") long capacidadeEmail,
+                          @Value("${seguranca.login.email.recarga-por-minuto:5}") long recargaEmailPorMinuto,
+                          @Value("${seguranca.login.bloqueio.limite-falhas:5}") int limiteFalhas,
+                          @Value("${seguranca.login.bloqueio.base-segundos:30}") long bloqueioBaseSegundos,
+                          @Value("${seguranca.login.bloqueio.maximo-segundos:900}") long bloqueioMaximoSegundos,
+                          @Value("${seguranca.login.max-entradas:100000}") long maxEntradas,
+                          @Value("${seguranca.login.ociosidade-minutos:30}") long ociosidadeMinutos) {
+        this(capacidadeIp, recargaIpPorMinuto, capacidadeEmail, recargaEmailPorMinuto, limiteFalhas, bloqueioBaseSegundos,
+                bloqueioMaximoSegundos, maxEntradas, ociosidadeMinutos, System::nanoTime);
+    }
+
+    // Usado nos testes para avançar o tempo sem esperar.
+    LimitadorLogin(long capacidadeIp, long recargaIpPorMinuto, long capacidadeEmail, long recargaEmailPorMinuto,
+                   int limiteFalhas, long bloqueioBaseSegundos, long bloqueioMaximoSegundos, long maxEntradas,
+                   long ociosidadeMinutos, LongSupplier relogioNanos) {
+        this.relogioNanos = relogioNanos;
+        this.capacidadeIp = capacidadeIp;
+        this.recargaIpPorNano = recargaIpPorMinuto / (double) TimeUnit.MINUTES.toNanos(1);
+        this.capacidadeEmail = capacidadeEmail;
+        this.recargaEmailPorNano = recargaEmailPorMinuto / (double) TimeUnit.MINUTES.toNanos(1);
+        this.limiteFalhas = limiteFalhas;
+        this.bloqueioBaseNanos = TimeUnit.SECONDS.toNanos(bloqueioBaseSegundos);
+        this.bloqueioMaximoNanos = TimeUnit.SECONDS.toNanos(bloqueioMaximoSegundos);
+
+        Duration ociosidade = Duration.ofMinutes(ociosidadeMinutos);
+        this.baldes = Caffeine.newBuilder().maximumSize(maxEntradas).expireAfterAccess(ociosidade).build();
+        // O registro de falhas precisa viver pelo menos enquanto durar o maior bloqueio possível.
+        Duration retencaoFalhas = ociosidade.compareTo(Duration.ofSeconds(bloqueioMaximoSegundos)) > 0
+                ? ociosidade : Duration.ofSeconds(bloqueioMaximoSegundos);
+        this.falhas = Caffeine.newBuilder().maximumSize(maxEntradas).expireAfterAccess(retencaoFalhas).build();
+    }
+
+    // BLOCÃO 2: API USADA PELO LOGIN
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: verificar(String, String)
+     * FUNÇÃO: Consome uma tentativa do IP e do e-mail. Lança MuitasTentativasException (HTTP 429)
+     * se a conta estiver bloqueada ou se algum dos baldes estiver vazio.
+     */
+    public void verificar(String email, String ip) {
+        long agora = relogioNanos.getAsLong();
+        String chaveEmail = normalizar(email);
+
+        AtomicReference<Falhas> registro = falhas.getIfPresent(chaveEmail);
+        if (registro != null) {
+            long restante = registro.get().bloqueadoAte() - agora;
+            if (restante > 0) {
+                throw new MuitasTentativasException("Conta temporariamente bloqueada por tentativas de login inválidas.",
+                        segundos(restante));
+            }
+        }
+
+        long esperaIp = baldes.get("ip:" + ip, chave -> new BaldeTokens(capacidadeIp, agora))
+                .consumir(capacidadeIp, recargaIpPorNano, agora);
+        if (esperaIp > 0) {
+            throw new MuitasTentativasException("Muitas tentativas de login a partir deste endereço.", segundos(esperaIp));
+        }
+
+        long esperaEmail = baldes.get("email:" + chaveEmail, chave -> new BaldeTokens(capacidadeEmail, agora))
+                .consumir(capacidadeEmail, recargaEmailPorNano, agora);
+        if (esperaEmail > 0) {
+            throw new MuitasTentativasException("Muitas tentativas de login para esta conta.", segundos(esperaEmail));
+        }
+    }
+
+    /**
+     * MÉTODO: registrarFalha(String)
+     * FUNÇÃO: Conta uma falha de senha. A partir do limite, bloqueia a conta por um tempo que dobra
+     * a cada nova falha (até o máximo configurado).
+     */
+    public void registrarFalha(String email) {
+        long agora = relogioNanos.getAsLong();
+        falhas.get(normalizar(email), chave -> new AtomicReference<>(new Falhas(0, agora)))
+                .updateAndGet(atual -> {
+                    int total = atual.quantidade() + 1;
+                    if (total < limiteFalhas) {
+                        return new Falhas(total, atual.bloqueadoAte());
+                    }
+                    int expoente = Math.min(total - limiteFalhas, 20);
+                    long bloqueio = Math.min(bloqueioBaseNanos << expoente, bloqueioMaximoNanos);
+                    return new Falhas(total, agora + bloqueio);
+                });
+    }
+
+    /**
+     * MÉTODO: registrarSucesso(String)
+     * FUNÇÃO: Zera o histórico de falhas da conta após um login bem-sucedido.
+     */
+    public void registrarSucesso(String email) {
+        falhas.invalidate(normalizar(email));
+    }
+
+    // BLOCÃO 3: AUXILIARES
+    // -------------------------------------------------------------------------
+
+    private static String normalizar(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    // Estado das falhas de uma conta: total de falhas seguidas e fim do bloqueio (System.nanoTime).
+    private record Falhas(int quantidade, long bloqueadoAte) {
+    }
+
+    // Token bucket lock-free: o estado (tokens + instante da última recarga) é imutável e trocado por CAS.
+    private static class BaldeTokens {
+
+        private final AtomicReference<Estado> estado;
+
+        BaldeTokens(long capacidade, long agora) {
+            this.estado = new AtomicReference<>(new Estado(capacidade, agora));
+        }
+
+        // Retorna 0 se consumiu um token; caso contrário, os nanossegundos até o próximo token.
+        long consumir(long capacidade, double recargaPorNano, long agora) {
+            while (true) {
+                Estado atual = estado.get();
+                double tokens = Math.min(capacidade, atual.tokens() + Math.max(0, agora - atual.ultimaRecarga()) * recargaPorNano);
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / recargaPorNano);
+                }
+                if (estado.compareAndSet(atual, new Estado(tokens - 1, Math.max(agora, atual.ultimaRecarga())))) {
+                    return 0;
+                }
+            }
+        }
+
+        private record Estado(double tokens, long ultimaRecarga) {
+        }
+    }
+}
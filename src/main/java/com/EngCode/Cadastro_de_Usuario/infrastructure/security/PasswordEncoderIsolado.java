@@ -0,0 +1,35 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// BLOCÃO 1: DECORADOR DO PASSWORD ENCODER
+// -------------------------------------------------------------------------
+// Envolve o encoder real e despacha as operações caras (encode/matches) para o HashSenhaExecutor.
+// Como é o bean PasswordEncoder da aplicação, todos os usos passam por ele automaticamente:
+// o login (via AuthenticationManager/DaoAuthenticationProvider) e o cadastro/atualização na UsuarioService.
+public class PasswordEncoderIsolado implements PasswordEncoder {
+
+    private final PasswordEncoder delegado;
+    private final HashSenhaExecutor hashSenhaExecutor;
+
+    public PasswordEncoderIsolado(PasswordEncoder delegado, HashSenhaExecutor hashSenhaExecutor) {
+        this.delegado = delegado;
+        this.hashSenhaExecutor = hashSenhaExecutor;
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return hashSenhaExecutor.encode(() -> delegado.encode(senha));
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String senhaCodificada) {
+        return hashSenhaExecutor.matches(() -> delegado.matches(senha, senhaCodificada));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String senhaCodificada) {
+        // Apenas inspeciona o prefixo/custo do hash: barato, não precisa ir para o pool.
+        return delegado.upgradeEncoding(senhaCodificada);
+    }
+}
@@ -0,0 +1,41 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+// BLOCÃO 1: PERFIS DE ACESSO (ROLE_USER / ROLE_ADMIN)
+// -------------------------------------------------------------------------
+@Component
+// Define as permissões de cada usuário autenticado. Todo usuário recebe ROLE_USER; os marcados como administrador
+// na própria linha (coluna usuario.administrador) recebem também ROLE_ADMIN, exigida nas rotas /usuario/admin/**,
+// na importação e na busca. O perfil nunca é deduzido do e-mail, que o próprio usuário escolhe no cadastro e no PATCH.
+// - Com consulta ao banco: o perfil é lido a cada login (e a cada carga do principal no filtro JWT).
+// - Stateless: o perfil vai assinado no access token (claim 'adm'); remover o perfil vale a partir da próxima
+//   renovação do token, que relê a linha do usuário.
+public class PerfisAcesso {
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+    private static final List<GrantedAuthority> USUARIO = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<GrantedAuthority> ADMIN = List.of(
+            new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority(ROLE_ADMIN));
+
+    /**
+     * MÉTODO: autoridades(boolean)
+     * FUNÇÃO: Retorna as permissões de um usuário comum ou de um administrador.
+     */
+    public List<GrantedAuthority> autoridades(boolean administrador) {
+        return administrador ? ADMIN : USUARIO;
+    }
+
+    /**
+     * MÉTODO: administrador(Collection)
+     * FUNÇÃO: Indica se as permissões de um usuário autenticado incluem ROLE_ADMIN (usado na emissão do token).
+     */
+    public boolean administrador(Collection<? extends GrantedAuthority> autoridades) {
+        return autoridades.stream().anyMatch(autoridade -> ROLE_ADMIN.equals(autoridade.getAuthority()));
+    }
+}
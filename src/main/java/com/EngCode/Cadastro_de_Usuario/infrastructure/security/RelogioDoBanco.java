@@ -0,0 +1,60 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.TokenRevogadoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+// BLOCÃO 1: RELÓGIO DO BANCO, ESTIMADO NO NÓ
+// -------------------------------------------------------------------------
+@Component
+// A revogação de todos os tokens de um usuário compara o 'iat' do token com 'revogado_em', gravado pelo
+// relógio do banco (clock_timestamp()). Se o 'iat' viesse do relógio do nó, um nó adiantado em relação ao banco
+// emitiria tokens com 'iat' posterior à revogação, e eles sobreviveriam a ela.
+// Por isso o JwtUtil emite o 'iat' por este relógio: o horário do nó corrigido pelo desvio em relação ao banco,
+// medido a cada sincronização das revogações (RevogacaoTokenService), sem uma consulta a mais por token.
+// O erro que sobra é de no máximo metade da ida e volta da consulta de medição (milissegundos) mais a deriva
+// do relógio do nó entre duas medições, muito abaixo da precisão de segundos do 'iat'.
+public class RelogioDoBanco {
+
+    private final TokenRevogadoRepository tokenRevogadoRepository;
+    private final Clock relogioDoNo;
+
+    // Quanto o banco está à frente do nó (negativo se estiver atrás). Começa em zero até a primeira medição.
+    private volatile Duration desvio = Duration.ZERO;
+
+    @Autowired
+    public RelogioDoBanco(TokenRevogadoRepository tokenRevogadoRepository) {
+        this(tokenRevogadoRepository, Clock.systemUTC());
+    }
+
+    // Usado nos testes para simular um nó com o relógio adiantado ou atrasado.
+    RelogioDoBanco(TokenRevogadoRepository tokenRevogadoRepository, Clock relogioDoNo) {
+        this.tokenRevogadoRepository = tokenRevogadoRepository;
+        this.relogioDoNo = relogioDoNo;
+    }
+
+    /**
+     * MÉTODO: medir()
+     * FUNÇÃO: Lê o instante atual no banco, atualiza o desvio do nó e devolve o instante lido.
+     * CONCEITO: O instante do banco é comparado com o ponto médio da consulta no relógio do nó.
+     */
+    public Instant medir() {
+        Instant antes = relogioDoNo.instant();
+        Instant noBanco = tokenRevogadoRepository.agoraNoBanco();
+        Instant depois = relogioDoNo.instant();
+        desvio = Duration.between(antes.plus(Duration.between(antes, depois).dividedBy(2)), noBanco);
+        return noBanco;
+    }
+
+    /**
+     * MÉTODO: agora()
+     * FUNÇÃO: Instante atual no relógio do banco, sem consultá-lo.
+     */
+    public Instant agora() {
+        return relogioDoNo.instant().plus(desvio);
+    }
+}
@@ -0,0 +1,177 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.TokenRevogadoRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// BLOCÃO 1: REVOGAÇÃO DE TOKENS JWT
+// -------------------------------------------------------------------------
+@Slf4j
+@Service
+// Guarda as revogações no Postgres (tabela token_revogado) e mantém em cada nó um Filtro de Bloom
+// com as chaves revogadas. A checagem de toda requisição autenticada consulta primeiro o filtro:
+// se ele responder "não contém", o token é válido sem ir ao banco. Só os positivos (revogações reais
+// ou falsos-positivos raros) fazem a consulta exata por chave primária.
+public class RevogacaoTokenService {
+
+    private static final String PREFIXO_TOKEN = "jti:";
+    private static final String PREFIXO_USUARIO = "usuario:";
+    // Sobreposição entre as sincronizações: cobre revogações gravadas antes da marca d'água e confirmadas (commit) depois.
+    private static final Duration SOBREPOSICAO = Duration.ofSeconds(5);
+
+    private final TokenRevogadoRepository tokenRevogadoRepository;
+    private final RelogioDoBanco relogioDoBanco;
+    private final long capacidadeFiltro;
+    private final double taxaFalsoPositivo;
+    private final Duration validadeRefreshToken;
+
+    // O filtro é substituído por inteiro na reconstrução; 'volatile' garante a publicação segura.
+    private volatile FiltroBloom filtro;
+    // Marca d'água da sincronização incremental com o banco (revogações feitas por outros nós).
+    // Lida do relógio do banco, o mesmo que grava 'revogado_em': a diferença entre os relógios dos nós não afeta
+    // a sincronização. Já a comparação do 'iat' com 'revogado_em' depende do 'iat' emitido pelo RelogioDoBanco,
+    // cujo desvio é medido nessa mesma leitura.
+    private volatile Instant ultimaSincronizacao = Instant.EPOCH;
+
+    public RevogacaoTokenService(TokenRevogadoRepository tokenRevogadoRepository,
+                                 RelogioDoBanco relogioDoBanco,
+                                 @Value("${seguranca.revogacao.bloom.capacidade:100000}") long capacidadeFiltro,
+                                 @Value("${seguranca.revogacao.bloom.taxa-falso-positivo:0.01}") double taxaFalsoPositivo,
+                                 @Value("${seguranca.jwt.refresh-ttl-horas:168}") long refreshTtlHoras) {
+        this.tokenRevogadoRepository = tokenRevogadoRepository;
+        this.relogioDoBanco = relogioDoBanco;
+        this.capacidadeFiltro = capacidadeFiltro;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.validadeRefreshToken = Duration.ofHours(refreshTtlHoras);
+    }
+
+    // BLOCÃO 2: CONSULTA (caminho quente de toda requisição autenticada)
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: estaRevogado(Claims)
+     * FUNÇÃO: Indica se o token foi revogado individualmente (jti) ou junto com todos os tokens do usuário.
+     */
+    public boolean estaRevogado(Claims claims) {
+        String chaveToken = PREFIXO_TOKEN + claims.getId();
+        String chaveUsuario = PREFIXO_USUARIO + claims.getSubject();
+        FiltroBloom atual = filtro;
+
+        if (claims.getId() != null && atual.talvezContenha(chaveToken)
+                && tokenRevogadoRepository.existsById(chaveToken)) {
+            return true;
+        }
+        return atual.talvezContenha(chaveUsuario) && tokensDoUsuarioRevogados(claims);
+    }
+
+    /**
+     * MÉTODO: tokensDoUsuarioRevogados(Claims)
+     * FUNÇÃO: Consulta exata no banco, sem o filtro: indica se o token caiu junto com todos os tokens do usuário.
+     * CONCEITO: O filtro local só conhece as revogações de outros nós depois da próxima sincronização;
+     * a renovação de tokens não aceita essa janela e consulta direto a tabela.
+     */
+    public boolean tokensDoUsuarioRevogados(Claims claims) {
+        // Revogação por usuário: invalida apenas os tokens emitidos até o momento da revogação.
+        // 'iat' e 'revogado_em' estão no relógio do banco (ver RelogioDoBanco), então um nó adiantado não escapa.
+        // O 'iat' tem precisão de segundos, então tokens emitidos no mesmo segundo também caem.
+        return tokenRevogadoRepository.findById(PREFIXO_USUARIO + claims.getSubject())
+                .map(revogacao -> claims.getIssuedAt() == null
+                        || !claims.getIssuedAt().toInstant()
+                        .isAfter(revogacao.getRevogadoEm().truncatedTo(ChronoUnit.SECONDS)))
+                .orElse(false);
+    }
+
+    // BLOCÃO 3: REVOGAÇÃO
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: revogarToken(Claims)
+     * FUNÇÃO: Revoga um único token (logout).
+     */
+    public void revogarToken(Claims claims) {
+        if (claims.getId() == null) {
+            return;
+        }
+        registrar(PREFIXO_TOKEN + claims.getId(), claims.getExpiration().toInstant());
+    }
+
+    /**
+     * MÉTODO: consumirToken(Claims)
+     * FUNÇÃO: Revoga o token e indica se esta chamada foi o primeiro uso dele (rotação do refresh token).
+     * CONCEITO: Uso único decidido pelo banco. A linha de token_revogado é gravada com "on conflict do nothing":
+     * entre dois usos do mesmo token, no mesmo nó ou em nós diferentes, só um grava a linha e recebe true.
+     * O filtro local não entra na decisão (um replay em outro nó passaria por ele até a próxima sincronização).
+     */
+    public boolean consumirToken(Claims claims) {
+        if (claims.getId() == null) {
+            return false;
+        }
+        String chave = PREFIXO_TOKEN + claims.getId();
+        boolean primeiroUso = tokenRevogadoRepository.registrarSeAusente(chave, claims.getExpiration().toInstant()) == 1;
+        filtro.adicionar(chave);
+        return primeiroUso;
+    }
+
+    /**
+     * MÉTODO: revogarTokensDoUsuario(String)
+     * FUNÇÃO: Revoga todos os tokens (access e refresh) já emitidos para o e-mail (ex: usuário removido).
+     * O registro vive até o maior prazo possível de um token emitido agora (o do refresh token), contado no
+     * mesmo relógio da emissão.
+     */
+    public void revogarTokensDoUsuario(String email) {
+        registrar(PREFIXO_USUARIO + email, relogioDoBanco.agora().plus(validadeRefreshToken));
+    }
+
+    private void registrar(String chave, Instant expiraEm) {
+        // 'revogado_em' é preenchido pelo banco (clock_timestamp), não por Instant.now() do nó.
+        tokenRevogadoRepository.registrar(chave, expiraEm);
+        filtro.adicionar(chave);
+    }
+
+    // BLOCÃO 4: MANUTENÇÃO DO FILTRO
+    // -------------------------------------------------------------------------
+
+    @PostConstruct
+    // Carrega as revogações existentes na inicialização do nó.
+    public void inicializar() {
+        reconstruirFiltro();
+    }
+
+    @Scheduled(fixedDelayString = "${seguranca.revogacao.sincronizacao-ms:5000}",
+            initialDelayString = "${seguranca.revogacao.sincronizacao-ms:5000}")
+    // Traz para o filtro local as revogações feitas por outros nós desde a última sincronização.
+    public void sincronizar() {
+        Instant inicio = relogioDoBanco.medir();
+        // Pequena sobreposição para não perder registros gravados durante a consulta anterior.
+        List<String> novas = tokenRevogadoRepository.buscarChavesRevogadasDesde(ultimaSincronizacao.minus(SOBREPOSICAO));
+        FiltroBloom atual = filtro;
+        novas.forEach(atual::adicionar);
+        ultimaSincronizacao = inicio;
+    }
+
+    @Scheduled(cron = "${seguranca.revogacao.limpeza-cron:0 0 * * * *}")
+    // Remove as revogações de tokens já expirados e reconstrói o filtro (o Bloom não suporta remoção).
+    public void limparExpirados() {
+        int removidos = tokenRevogadoRepository.deletarExpirados(Instant.now());
+        reconstruirFiltro();
+        log.info("Limpeza de tokens revogados: {} registros expirados removidos", removidos);
+    }
+
+    private void reconstruirFiltro() {
+        Instant inicio = relogioDoBanco.medir();
+        List<String> chaves = tokenRevogadoRepository.buscarChavesRevogadasDesde(Instant.EPOCH);
+        FiltroBloom novo = new FiltroBloom(Math.max(capacidadeFiltro, chaves.size() * 2L), taxaFalsoPositivo);
+        chaves.forEach(novo::adicionar);
+        filtro = novo;
+        ultimaSincronizacao = inicio;
+    }
+}
@@ -5,6 +5,7 @@ package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType; // Tipo de esquema de segurança (para Swagger)
 import io.swagger.v3.oas.annotations.security.SecurityScheme; // Anotação para definir o esquema de segurança (para Swagger)
 import org.springframework.beans.factory.annotation.Autowired; // Injeção de dependência via construtor
+import org.springframework.beans.factory.annotation.Value; // Leitura de propriedades do application.properties
 import org.springframework.context.annotation.Bean; // Marca o método como um bean gerenciado pelo Spring
 import org.springframework.context.annotation.Configuration; // Marca a classe como uma fonte de configuração
 import org.springframework.http.HttpMethod; // Enum para métodos HTTP (POST, GET, etc.)
@@ -15,7 +16,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer; // Para desativar o CSRF
 import org.springframework.security.config.http.SessionCreationPolicy; // Política de criação de sessão
 import org.springframework.security.core.userdetails.UserDetailsService; // Interface para carregar dados do usuário
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // Implementação de criptografia
 import org.springframework.security.crypto.password.PasswordEncoder; // Interface de criptografia
 import org.springframework.security.web.SecurityFilterChain; // A cadeia de filtros de segurança
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter; // Filtro de autenticação padrão do Spring
@@ -38,12 +38,24 @@ public class SecurityConfig {
     // Instâncias de JwtUtil e UserDetailsService injetadas pelo Spring
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final CachePrincipal cachePrincipal;
+    private final RevogacaoTokenService revogacaoTokenService;
+    private final PerfisAcesso perfisAcesso;
+
+    // Quando 'true', o filtro JWT não consulta o banco: o principal é montado apenas com as claims do token.
+    private final boolean autenticacaoStateless;
 
     // Construtor para injeção das dependências 'final'.
     @Autowired
-    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService, CachePrincipal cachePrincipal,
+                          RevogacaoTokenService revogacaoTokenService, PerfisAcesso perfisAcesso,
+                          @Value("${seguranca.jwt.stateless:false}") boolean autenticacaoStateless) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.cachePrincipal = cachePrincipal;
+        this.revogacaoTokenService = revogacaoTokenService;
+        this.perfisAcesso = perfisAcesso;
+        this.autenticacaoStateless = autenticacaoStateless;
     }
 
     // BLOCÃO 3: CADEIA DE FILTROS DE SEGURANÇA (O Coração da Configuração)
@@ -54,7 +66,8 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 
         // Cria uma instância do nosso filtro personalizado.
-        JwtRequestFilter jwtRequestFilter = new JwtRequestFilter(jwtUtil, userDetailsService);
+        JwtRequestFilter jwtRequestFilter = new JwtRequestFilter(jwtUtil, userDetailsService, cachePrincipal,
+                revogacaoTokenService, perfisAcesso, autenticacaoStateless);
 
         http
                 .csrf(AbstractHttpConfigurer::disable) // Desativa a proteção CSRF (Cross-Site Request Forgery) porque não estamos usando sessões nem cookies (padrão em APIs RESTful).
@@ -64,14 +77,31 @@ public class SecurityConfig {
                         // Rotas Públicas: Permite acesso à documentação do Swagger.
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "swagger-ui.html").permitAll()
 
+                        // Rotas Públicas: Chaves públicas (JWKS) para validação dos tokens por outros serviços.
+                        .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
+
+                        // Rotas Públicas: Health check do Actuator (as métricas continuam exigindo Token).
+                        .requestMatchers("/actuator/health").permitAll()
+
                         // Rotas Públicas: Permite acesso aos endpoints de Login e Cadastro (POST /usuario).
                         .requestMatchers("/usuario/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/usuario").permitAll()
                         .requestMatchers(HttpMethod.POST, "/usuario/login").permitAll()
 
+                        // Rotas Públicas: Pré-checagem de disponibilidade do e-mail no formulário de cadastro.
+                        .requestMatchers(HttpMethod.GET, "/usuario/email/disponivel").permitAll()
+
+                        // Rotas Públicas: Renovação do access token (autenticada pelo próprio refresh token).
+                        .requestMatchers(HttpMethod.POST, "/usuario/token/refresh").permitAll()
+
                         // Rotas Públicas: Permite acesso à consulta de CEP (Geralmente rota aberta para o front-end).
                         .requestMatchers(HttpMethod.GET, "/usuario/endereco/**").permitAll()
 
+                        // Rotas Administrativas: exportação, importação em lote, busca de usuários e demais rotas /usuario/admin/** exigem ROLE_ADMIN.
+                        .requestMatchers("/usuario/admin/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/usuario/import").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/usuario/search").hasRole("ADMIN")
+
                         // Rotas Privadas (Padrão): Requer Token JWT para qualquer outra rota que comece com /usuario/.
                         .requestMatchers("/usuario/**").authenticated()
 
@@ -97,9 +127,12 @@ public class SecurityConfig {
 
     @Bean
     // BEAN: Configura o PasswordEncoder (Ferramenta de Criptografia).
-    public PasswordEncoder passwordEncoder() {
-        // FUNÇÃO: Define o algoritmo de criptografia. BCrypt é o padrão e mais seguro para senhas.
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(CalibradorHashSenha calibradorHashSenha, HashSenhaExecutor hashSenhaExecutor) {
+        // FUNÇÃO: Define o algoritmo de criptografia. O CalibradorHashSenha monta um DelegatingPasswordEncoder
+        // (bcrypt, scrypt ou argon2, com prefixo {id}) com o custo calibrado para a latência-alvo.
+        // O encoder é envolvido pelo PasswordEncoderIsolado, que executa o hashing no pool dedicado
+        // (HashSenhaExecutor) em vez das threads do Tomcat.
+        return new PasswordEncoderIsolado(calibradorHashSenha.getEncoder(), hashSenhaExecutor);
     }
 
     @Bean
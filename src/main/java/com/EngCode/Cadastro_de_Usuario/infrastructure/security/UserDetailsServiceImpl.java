@@ -1,32 +1,86 @@
 package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
 
 
-import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.cache.InvalidacaoCacheSegundoNivel;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.AtualizacaoParcialRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.CredenciaisUsuario;
 import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioRepository;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.sharding.RoteamentoShards;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     // Repositório para acessar dados de usuário no banco de dados
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    // Cache dos principais usados pelo filtro JWT (invalidado quando o hash da senha muda)
+    @Autowired
+    private CachePrincipal cachePrincipal;
+
+    // Permissões (ROLE_USER / ROLE_ADMIN) de cada usuário
+    @Autowired
+    private PerfisAcesso perfisAcesso;
+
+    // Regravação condicional do hash (UPDATE direto, comparando o hash atual)
+    @Autowired
+    private AtualizacaoParcialRepository atualizacaoParcialRepository;
+
+    // Remove o usuário do cache de segundo nível após a regravação por SQL direto
+    @Autowired
+    private InvalidacaoCacheSegundoNivel invalidacaoCacheSegundoNivel;
+
+    // Shard onde está o usuário de cada e-mail (banco único com o sharding desligado)
+    @Autowired
+    private RoteamentoShards roteamentoShards;
+
     // Implementação do método para carregar detalhes do usuário pelo e-mail
+    // Sempre no banco primário e fora do cache de segundo nível: o cache é local a cada nó (invalidado só no nó que
+    // alterou o usuário) e uma réplica pode estar atrasada. Com qualquer um dos dois, uma senha antiga, um e-mail
+    // já trocado ou um usuário excluído ainda autenticariam em outro nó. Sem @Transactional(readOnly = true),
+    // a conexão vem do primário (ver ReplicasConfig).
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        // Busca o usuário no banco de dados pelo e-mail
-        Usuario usuario = usuarioRepository.findByEmail(email)
+        // Busca as credenciais pelo e-mail, no shard do e-mail (projeção: uma consulta, sem cache)
+        CredenciaisUsuario credenciais = roteamentoShards.noShard(roteamentoShards.shardDoEmail(email),
+                () -> usuarioRepository.buscarCredenciaisPorEmail(email))
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
 
         // Cria e retorna um objeto UserDetails com base no usuário encontrado
         return org.springframework.security.core.userdetails.User
-                .withUsername(usuario.getEmail()) // Define o nome de usuário como o e-mail
-                .password(usuario.getSenha()) // Define a senha do usuário
+                .withUsername(credenciais.email()) // Define o nome de usuário como o e-mail
+                .password(credenciais.senha()) // Define a senha do usuário
+                .authorities(perfisAcesso.autoridades(credenciais.administrador())) // Define as permissões (perfil gravado na linha)
                 .build(); // Constrói o objeto UserDetails
     }
+
+    // Chamado pelo DaoAuthenticationProvider após um login bem-sucedido quando o PasswordEncoder
+    // indica que o hash armazenado usa outro algoritmo ou um custo menor (upgradeEncoding).
+    // Grava o novo hash, já gerado a partir da senha digitada, sem exigir migração em massa.
+    // Só grava se o hash no banco ainda for o que acabou de ser conferido (user.getPassword()): se a senha foi
+    // trocada nesse meio-tempo, a regravação é descartada em silêncio (ela vale para a senha antiga, não a nova).
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Optional<Long> idUsuario = roteamentoShards.noShard(roteamentoShards.shardDoEmail(user.getUsername()),
+                () -> atualizacaoParcialRepository.regravarSenha(user.getUsername(), user.getPassword(), newPassword));
+        if (idUsuario.isEmpty()) {
+            return user;
+        }
+        // SQL direto: a cópia em cache (cache de segundo nível e principal do filtro JWT) ainda tem o hash antigo.
+        invalidacaoCacheSegundoNivel.usuarioAlterado(idUsuario.get(), false);
+        cachePrincipal.invalidar(user.getUsername());
+
+        return org.springframework.security.core.userdetails.User
+                .withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
@@ -0,0 +1,80 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// BLOCÃO 1: ANEL DE HASH CONSISTENTE (E-MAIL → SHARD)
+// -------------------------------------------------------------------------
+// Cada shard ocupa vários pontos ("nós virtuais") em um anel de valores de 64 bits. O shard de um e-mail
+// é o dono do primeiro ponto igual ou posterior ao hash do e-mail (normalizado em minúsculas).
+// Ao acrescentar um shard, ele assume apenas os trechos do anel vizinhos aos seus pontos: só ~1/N dos
+// usuários muda de shard (com módulo simples, quase todos mudariam).
+// O hash é calculado aqui (e não com String.hashCode) para ser estável entre versões do Java e entre nós.
+public final class AnelShards {
+
+    private final int quantidade;
+    private final long[] posicoes;
+    private final int[] donos;
+
+    public AnelShards(int quantidade, int nosVirtuais) {
+        if (quantidade < 1 || nosVirtuais < 1) {
+            throw new IllegalArgumentException("O anel exige ao menos um shard e um nó virtual por shard.");
+        }
+        // Pontos em ordem sem sinal, a mesma da busca em shardDoEmail (a ordem natural de Long põe os negativos antes).
+        Map<Long, Integer> anel = new TreeMap<>(Long::compareUnsigned);
+        for (int shard = 0; shard < quantidade; shard++) {
+            for (int no = 0; no < nosVirtuais; no++) {
+                anel.putIfAbsent(hash("shard-" + shard + "#" + no), shard);
+            }
+        }
+        this.quantidade = quantidade;
+        this.posicoes = new long[anel.size()];
+        this.donos = new int[anel.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> ponto : anel.entrySet()) {
+            posicoes[i] = ponto.getKey();
+            donos[i++] = ponto.getValue();
+        }
+    }
+
+    /**
+     * MÉTODO: shardDoEmail(String)
+     * FUNÇÃO: Shard dono do e-mail (0 .. quantidade - 1). Maiúsculas e espaços nas pontas não mudam o resultado.
+     */
+    public int shardDoEmail(String email) {
+        long posicao = hash(email.trim().toLowerCase(Locale.ROOT));
+        // Busca binária sem sinal: o primeiro ponto >= posição; depois do último, volta ao início do anel.
+        int inicio = 0;
+        int fim = posicoes.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (Long.compareUnsigned(posicoes[meio], posicao) < 0) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return donos[inicio == posicoes.length ? 0 : inicio];
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8, com a mistura final do MurmurHash3 (espalha bits de textos parecidos).
+    static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,44 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.sharding;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+// BLOCÃO 1: SHARD DA THREAD ATUAL
+// -------------------------------------------------------------------------
+// Guarda em qual shard a thread atual está trabalhando. O RoteadorShards consulta este valor no momento
+// em que a conexão física é obtida (a primeira instrução SQL da transação, ver ShardsConfig).
+// Sem shard definido, as conexões vão para o shard principal (0), onde ficam as tabelas globais (ex: token_revogado).
+final class ContextoShard {
+
+    private static final ThreadLocal<Integer> ATUAL = new ThreadLocal<>();
+
+    private ContextoShard() {
+    }
+
+    static Integer atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * MÉTODO: executar(int, Supplier)
+     * FUNÇÃO: Executa a tarefa com o shard informado e restaura o anterior ao final.
+     * Uma transação já em andamento em outro shard não pode trocar de shard (a conexão dela já foi obtida).
+     */
+    static <T> T executar(int shard, Supplier<T> tarefa) {
+        Integer anterior = ATUAL.get();
+        if (anterior != null && anterior != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Transação aberta no shard " + anterior + " não pode acessar o shard " + shard + ".");
+        }
+        ATUAL.set(shard);
+        try {
+            return tarefa.get();
+        } finally {
+            if (anterior == null) {
+                ATUAL.remove();
+            } else {
+                ATUAL.set(anterior);
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.sharding;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.ServicoIndisponivelException;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.outbox.PublicadorOutbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// BLOCÃO 1: MOVIMENTAÇÃO DE USUÁRIOS ENTRE SHARDS (REBALANCEAMENTO ONLINE)
+// -------------------------------------------------------------------------
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banco.shards.habilitado", havingValue = "true")
+// Move um usuário, com endereços, telefones e eventos pendentes da outbox, de um shard para outro,
+// sem parar o serviço: um usuário por vez, em duas transações curtas (uma em cada shard).
+// - No shard de origem, as linhas do usuário ficam travadas (SELECT ... FOR UPDATE) durante a cópia:
+//   escritas concorrentes nele esperam e, depois, não o encontram mais (resposta 404; o cliente repete).
+// - O destino é confirmado antes da origem: se a origem falhar, o usuário fica nos dois shards e a próxima
+//   execução do rebalanceamento sobrescreve a cópia e conclui a remoção (a cópia é idempotente).
+// - Na troca de e-mail, a movimentação faz parte da transação do PATCH (moverNaTransacaoAtual): a troca e a
+//   movimentação são confirmadas juntas ou desfeitas juntas.
+// - Os ids não mudam (cada shard gera ids em uma faixa própria, ver ShardsConfig), então o cache de segundo
+//   nível e os ETags continuam válidos. Os eventos pendentes recebem novos ids do destino, na mesma ordem.
+public class RebalanceamentoShards {
+
+    private static final int TAMANHO_PAGINA = 500;
+
+    private final RoteadorShards roteador;
+    private final RoteamentoShards roteamento;
+    // DataSource da aplicação (o mesmo das transações do Spring), para usar a conexão da transação em andamento.
+    private final DataSource dataSource;
+    private final long pausaMs;
+    private final Counter usuariosMovidos;
+
+    public RebalanceamentoShards(RoteadorShards roteador,
+                                 RoteamentoShards roteamento,
+                                 DataSource dataSource,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${banco.shards.rebalanceamento.pausa-ms:10}") long pausaMs) {
+        this.roteador = roteador;
+        this.roteamento = roteamento;
+        this.dataSource = dataSource;
+        this.pausaMs = pausaMs;
+        this.usuariosMovidos = Counter.builder("banco.shards.movidos")
+                .description("Usuários movidos entre shards (rebalanceamento ou troca de e-mail)")
+                .register(meterRegistry);
+    }
+
+    public record Resultado(long verificados, long movidos, boolean concluido) {
+    }
+
+    // BLOCÃO 2: REBALANCEAMENTO
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: rebalancear(int)
+     * FUNÇÃO: Percorre os usuários de cada shard (paginação por id) e move os que pertencem a outro shard
+     * no anel atual, até 'limite' movimentações. 'concluido' indica que todos os shards foram percorridos.
+     * CONCEITO: Uma pausa entre as movimentações (banco.shards.rebalanceamento.pausa-ms) limita a carga extra.
+     */
+    public Resultado rebalancear(int limite) {
+        long verificados = 0;
+        long movidos = 0;
+        for (int shard = 0; shard < roteador.getQuantidade(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(roteador.dataSourceDoShard(shard));
+            long ultimoId = 0;
+            while (true) {
+                // Usuários excluídos (exclusão lógica) não são movidos: o expurgo os apaga no shard onde estão.
+                List<UsuarioDoShard> pagina = jdbcTemplate.query(
+                        "select id, email from usuario where id > ? and excluido_em is null order by id limit ?",
+                        (rs, linha) -> new UsuarioDoShard(rs.getLong("id"), rs.getString("email")), ultimoId, TAMANHO_PAGINA);
+                if (pagina.isEmpty()) {
+                    break;
+                }
+                for (UsuarioDoShard usuario : pagina) {
+                    verificados++;
+                    int dono = roteamento.shardDono(usuario.email());
+                    if (dono == shard) {
+                        continue;
+                    }
+                    if (movidos >= limite) {
+                        return new Resultado(verificados, movidos, false);
+                    }
+                    if (mover(usuario.id(), shard, dono)) {
+                        movidos++;
+                    }
+                    pausar();
+                }
+                ultimoId = pagina.get(pagina.size() - 1).id();
+            }
+        }
+        log.info("Rebalanceamento concluído: {} usuários verificados, {} movidos", verificados, movidos);
+        return new Resultado(verificados, movidos, true);
+    }
+
+    private record UsuarioDoShard(long id, String email) {
+    }
+
+    private void pausar() {
+        if (pausaMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pausaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rebalanceamento interrompido.", e);
+        }
+    }
+
+    // BLOCÃO 3: MOVIMENTAÇÃO DE UM USUÁRIO
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: mover(long, int, int)
+     * FUNÇÃO: Copia o usuário e suas linhas para o destino e as remove da origem. Retorna false se o
+     * usuário não estava mais na origem (ex: movido por outro nó).
+     */
+    public boolean mover(long idUsuario, int origem, int destino) {
+        try (Connection conexaoOrigem = roteador.dataSourceDoShard(origem).getConnection();
+             Connection conexaoDestino = roteador.dataSourceDoShard(destino).getConnection()) {
+            conexaoOrigem.setAutoCommit(false);
+            conexaoDestino.setAutoCommit(false);
+            try {
+                if (!copiarERemover(conexaoOrigem, conexaoDestino, idUsuario)) {
+                    conexaoOrigem.rollback();
+                    conexaoDestino.rollback();
+                    return false;
+                }
+                conexaoDestino.commit();
+                conexaoOrigem.commit();
+            } catch (SQLException | RuntimeException e) {
+                conexaoDestino.rollback();
+                conexaoOrigem.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao mover o usuário " + idUsuario + " do shard " + origem
+                    + " para o shard " + destino + ".", e);
+        }
+        usuariosMovidos.increment();
+        log.info("Usuário {} movido do shard {} para o shard {}", idUsuario, origem, destino);
+        return true;
+    }
+
+    /**
+     * MÉTODO: moverNaTransacaoAtual(long, int, int)
+     * FUNÇÃO: Move o usuário como parte da transação do Spring em andamento no shard de origem (ex: a troca de e-mail):
+     * as escritas já feitas nela (o novo e-mail, o evento da outbox) vão junto para o destino.
+     * CONCEITO: O destino é confirmado aqui; a origem, com o commit da própria transação. Se ela for desfeita
+     * (erro depois desta chamada ou falha no commit), a cópia no destino é removida (compensação), e o usuário
+     * continua só na origem, sem a alteração. Uma falha aqui desfaz o destino e é lançada: a transação da origem
+     * também é desfeita. Um e-mail já cadastrado no destino viola o índice único dele (DataIntegrityViolationException).
+     */
+    public void moverNaTransacaoAtual(long idUsuario, int origem, int destino) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("moverNaTransacaoAtual exige uma transação aberta no shard de origem.");
+        }
+        // Conexão da transação em andamento (já no shard de origem): não é fechada aqui.
+        Connection conexaoOrigem = DataSourceUtils.getConnection(dataSource);
+        try (Connection conexaoDestino = roteador.dataSourceDoShard(destino).getConnection()) {
+            conexaoDestino.setAutoCommit(false);
+            try {
+                if (!copiarERemover(conexaoOrigem, conexaoDestino, idUsuario)) {
+                    throw new IllegalStateException("Usuário " + idUsuario + " não encontrado no shard " + origem + ".");
+                }
+                conexaoDestino.commit();
+            } catch (SQLException | RuntimeException e) {
+                conexaoDestino.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            // SQLState 23xxx: violação de integridade no destino (ex: o novo e-mail já está cadastrado lá).
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                throw new DataIntegrityViolationException("Usuário " + idUsuario + " não pôde ser gravado no shard " + destino + ".", e);
+            }
+            throw new ServicoIndisponivelException("Não foi possível mover o usuário para o shard " + destino
+                    + "; tente novamente.", 1, e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    usuariosMovidos.increment();
+                    log.info("Usuário {} movido do shard {} para o shard {}", idUsuario, origem, destino);
+                } else {
+                    desfazerCopia(idUsuario, origem, destino);
+                }
+            }
+        });
+    }
+
+    // Compensação de moverNaTransacaoAtual quando a transação da origem não confirmou. Com o resultado do commit
+    // desconhecido (ex: conexão perdida durante o commit), a cópia só é removida se o usuário ainda estiver na origem.
+    private void desfazerCopia(long idUsuario, int origem, int destino) {
+        try {
+            if (!Boolean.TRUE.equals(new JdbcTemplate(roteador.dataSourceDoShard(origem)).queryForObject(
+                    "select exists(select 1 from usuario where id = ?)", Boolean.class, idUsuario))) {
+                log.warn("Usuário {} não está mais no shard {}: a cópia no shard {} foi mantida.", idUsuario, origem, destino);
+                return;
+            }
+            try (Connection conexao = roteador.dataSourceDoShard(destino).getConnection()) {
+                conexao.setAutoCommit(false);
+                remover(conexao, "delete from evento_outbox where usuario_id = ? and publicado_em is null", idUsuario);
+                remover(conexao, "delete from endereco where usuario_id = ?", idUsuario);
+                remover(conexao, "delete from telefone where usuario_id = ?", idUsuario);
+                remover(conexao, "delete from usuario where id = ?", idUsuario);
+                conexao.commit();
+            }
+            log.info("Movimentação do usuário {} para o shard {} desfeita: a transação no shard {} não confirmou.",
+                    idUsuario, destino, origem);
+        } catch (SQLException | RuntimeException e) {
+            // O usuário ficou nos dois shards (no destino com o novo e-mail): exige correção manual.
+            log.error("Falha ao desfazer a cópia do usuário {} no shard {}; remova-a manualmente.", idUsuario, destino, e);
+        }
+    }
+
+    // Trava a outbox e as linhas do usuário na origem, copia-as para o destino e as remove da origem, sem confirmar
+    // nenhuma das duas conexões. Retorna false se o usuário não estava na origem.
+    private static boolean copiarERemover(Connection conexaoOrigem, Connection conexaoDestino, long idUsuario) throws SQLException {
+        // A publicação da outbox na origem espera o fim da movimentação (os eventos pendentes vão junto).
+        try (PreparedStatement trava = conexaoOrigem.prepareStatement("select pg_advisory_xact_lock(?)")) {
+            trava.setLong(1, PublicadorOutbox.CHAVE_TRAVA);
+            trava.execute();
+        }
+        // Pai antes dos filhos na cópia (FK usuario_id); filhos antes do pai na remoção.
+        if (copiar(conexaoOrigem, conexaoDestino, "usuario", "id", idUsuario) == 0) {
+            return false;
+        }
+        copiar(conexaoOrigem, conexaoDestino, "endereco", "usuario_id", idUsuario);
+        copiar(conexaoOrigem, conexaoDestino, "telefone", "usuario_id", idUsuario);
+        copiarEventosPendentes(conexaoOrigem, conexaoDestino, idUsuario);
+
+        remover(conexaoOrigem, "delete from evento_outbox where usuario_id = ? and publicado_em is null", idUsuario);
+        remover(conexaoOrigem, "delete from endereco where usuario_id = ?", idUsuario);
+        remover(conexaoOrigem, "delete from telefone where usuario_id = ?", idUsuario);
+        remover(conexaoOrigem, "delete from usuario where id = ?", idUsuario);
+        return true;
+    }
+
+    // Copia (e trava na origem) as linhas da tabela com coluna = valor. Todas as colunas são copiadas como estão,
+    // e uma cópia anterior interrompida é sobrescrita (ON CONFLICT pelo id). Os nomes vêm de constantes desta classe.
+    private static int copiar(Connection origem, Connection destino, String tabela, String coluna, long valor) throws SQLException {
+        try (PreparedStatement leitura = origem.prepareStatement(
+                "select * from " + tabela + " where " + coluna + " = ? for update")) {
+            leitura.setLong(1, valor);
+            try (ResultSet linhas = leitura.executeQuery()) {
+                ResultSetMetaData colunas = linhas.getMetaData();
+                int total = colunas.getColumnCount();
+                List<String> nomes = new ArrayList<>(total);
+                for (int i = 1; i <= total; i++) {
+                    nomes.add(colunas.getColumnName(i));
+                }
+                String insert = "insert into " + tabela + " (" + String.join(", ", nomes) + ") values ("
+                        + String.join(", ", nomes.stream().map(nome -> "?").toList()) + ") on conflict (id) do update set "
+                        + String.join(", ", nomes.stream().filter(nome -> !nome.equals("id"))
+                        .map(nome -> nome + " = excluded." + nome).toList());
+                int copiadas = 0;
+                try (PreparedStatement escrita = destino.prepareStatement(insert)) {
+                    while (linhas.next()) {
+                        for (int i = 1; i <= total; i++) {
+                            escrita.setObject(i, linhas.getObject(i));
+                        }
+                        escrita.addBatch();
+                        copiadas++;
+                    }
+                    if (copiadas > 0) {
+                        escrita.executeBatch();
+                    }
+                }
+                return copiadas;
+            }
+        }
+    }
+
+    // Os eventos pendentes recebem ids da sequência do destino, em ordem: ficam antes dos próximos eventos
+    // do usuário gravados no destino (a ordem por usuário da outbox é mantida).
+    private static void copiarEventosPendentes(Connection origem, Connection destino, long idUsuario) throws SQLException {
+        try (PreparedStatement leitura = origem.prepareStatement("""
+                select tipo, payload, criado_em, tentativas, proxima_tentativa_em, ultimo_erro from evento_outbox
+                where usuario_id = ? and publicado_em is null order by id for update""");
+             PreparedStatement escrita = destino.prepareStatement("""
+                     insert into evento_outbox (id, usuario_id, tipo, payload, criado_em, tentativas, proxima_tentativa_em, ultimo_erro)
+                     values (nextval('evento_outbox_seq'), ?, ?, ?, ?, ?, ?, ?)""")) {
+            leitura.setLong(1, idUsuario);
+            try (ResultSet eventos = leitura.executeQuery()) {
+                while (eventos.next()) {
+                    escrita.setLong(1, idUsuario);
+                    escrita.setString(2, eventos.getString("tipo"));
+                    escrita.setObject(3, eventos.getObject("payload"));
+                    escrita.setObject(4, eventos.getObject("criado_em"));
+                    escrita.setInt(5, eventos.getInt("tentativas"));
+                    escrita.setObject(6, eventos.getObject("proxima_tentativa_em"));
+                    escrita.setString(7, eventos.getString("ultimo_erro"));
+                    // Um por vez (e não em lote): o nextval precisa seguir a ordem dos eventos.
+                    escrita.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private static void remover(Connection conexao, String sql, long idUsuario) throws SQLException {
+        try (PreparedStatement remocao = conexao.prepareStatement(sql)) {
+            remocao.setLong(1, idUsuario);
+            remocao.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// BLOCÃO 1: DATASOURCE ROTEADO POR SHARD
+// -------------------------------------------------------------------------
+// Um pool Hikari por shard (o shard 0 é o banco de spring.datasource.*). Cada conexão vem do pool do
+// shard definido na thread (ContextoShard); sem shard definido, do shard principal.
+public class RoteadorShards extends AbstractRoutingDataSource {
+
+    public static final int SHARD_PRINCIPAL = 0;
+
+    private final List<HikariDataSource> shards;
+
+    public RoteadorShards(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> destinos = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            destinos.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(shards.get(SHARD_PRINCIPAL));
+        // Um shard inexistente é erro de programação: nunca cair silenciosamente no shard principal.
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ContextoShard.atual();
+        return shard == null ? SHARD_PRINCIPAL : shard;
+    }
+
+    /**
+     * MÉTODO: dataSourceDoShard(int)
+     * FUNÇÃO: Pool de um shard específico, fora do roteamento e das transações do Spring
+     * (usado na criação do schema, na verificação de e-mails e na movimentação de usuários entre shards).
+     */
+    public DataSource dataSourceDoShard(int shard) {
+        return shards.get(shard);
+    }
+
+    public int getQuantidade() {
+        return shards.size();
+    }
+
+    @PreDestroy
+    // O pool do shard principal é um bean (fechado pelo Spring); os demais são fechados aqui.
+    public void fechar() {
+        shards.stream().skip(1).forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,205 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.sharding;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.IllegalArgumentException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// BLOCÃO 1: ROTEAMENTO DAS OPERAÇÕES PARA O SHARD DO USUÁRIO
+// -------------------------------------------------------------------------
+@Component
+// Ponto único usado pelos serviços para escolher o shard. Com o sharding desligado (padrão), tudo roda
+// no banco único, sem nenhum custo adicional: shardDoEmail devolve 0 e noShard apenas executa a tarefa.
+// - Operações de um usuário (cadastro, login, PATCH, endereços e telefones) rodam no shard do e-mail
+//   (o e-mail do token, nas rotas autenticadas: /usuario/endereco?id= e /usuario/telefone?id= não precisam
+//   procurar o id em todos os shards).
+// - Operações sobre vários usuários (busca, exportação, exclusão e importação em lote) são divididas por shard.
+public class RoteamentoShards {
+
+    private final RoteadorShards roteador;
+    private final AnelShards anel;
+    // Anel antes do último shard acrescentado, enquanto o rebalanceamento não termina (ver shardDoEmail).
+    private final AnelShards anelAnterior;
+    private final List<JdbcTemplate> consultasDiretas = new ArrayList<>();
+    private final ObjectProvider<RebalanceamentoShards> rebalanceamento;
+    private final ExecutorService consultasEspalhadas;
+
+    public RoteamentoShards(ObjectProvider<RoteadorShards> roteador,
+                            ObjectProvider<RebalanceamentoShards> rebalanceamento,
+                            @Value("${banco.shards.nos-virtuais:160}") int nosVirtuais,
+                            @Value("${banco.shards.quantidade-anterior:0}") int quantidadeAnterior) {
+        this.roteador = roteador.getIfAvailable();
+        this.rebalanceamento = rebalanceamento;
+        if (this.roteador == null) {
+            this.anel = null;
+            this.anelAnterior = null;
+            this.consultasEspalhadas = null;
+            return;
+        }
+        int quantidade = this.roteador.getQuantidade();
+        this.anel = new AnelShards(quantidade, nosVirtuais);
+        this.anelAnterior = quantidadeAnterior > 0 && quantidadeAnterior < quantidade
+                ? new AnelShards(quantidadeAnterior, nosVirtuais) : null;
+        for (int shard = 0; shard < quantidade; shard++) {
+            consultasDiretas.add(new JdbcTemplate(this.roteador.dataSourceDoShard(shard)));
+        }
+        AtomicInteger contador = new AtomicInteger();
+        this.consultasEspalhadas = Executors.newFixedThreadPool(quantidade * 2, runnable -> {
+            Thread thread = new Thread(runnable, "shards-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean habilitado() {
+        return roteador != null;
+    }
+
+    public int quantidade() {
+        return habilitado() ? roteador.getQuantidade() : 1;
+    }
+
+    // BLOCÃO 2: ESCOLHA DO SHARD
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: shardDoEmail(String)
+     * FUNÇÃO: Shard onde o usuário com este e-mail está (ou será cadastrado).
+     * CONCEITO: Normalmente é só o cálculo do anel. Durante um rebalanceamento (banco.shards.quantidade-anterior),
+     * o usuário pode ainda não ter sido movido para o novo dono: se ele não estiver lá e estiver no dono
+     * anterior, o dono anterior é usado.
+     */
+    public int shardDoEmail(String email) {
+        if (!habilitado()) {
+            return RoteadorShards.SHARD_PRINCIPAL;
+        }
+        int dono = anel.shardDoEmail(email);
+        if (anelAnterior == null) {
+            return dono;
+        }
+        int donoAnterior = anelAnterior.shardDoEmail(email);
+        if (donoAnterior != dono && !existeEmail(dono, email) && existeEmail(donoAnterior, email)) {
+            return donoAnterior;
+        }
+        return dono;
+    }
+
+    /**
+     * MÉTODO: shardDono(String)
+     * FUNÇÃO: Shard definitivo do e-mail no anel atual (para onde o rebalanceamento move o usuário).
+     */
+    public int shardDono(String email) {
+        return habilitado() ? anel.shardDoEmail(email) : RoteadorShards.SHARD_PRINCIPAL;
+    }
+
+    /**
+     * MÉTODO: existeEmail(int, String)
+     * FUNÇÃO: Consulta direta (fora da transação atual) se o e-mail está cadastrado (e não excluído) no shard informado.
+     */
+    public boolean existeEmail(int shard, String email) {
+        return Boolean.TRUE.equals(consultasDiretas.get(shard).queryForObject(
+                "select exists(select 1 from usuario where email = ? and excluido_em is null)", Boolean.class, email));
+    }
+
+    // BLOCÃO 3: EXECUÇÃO NO SHARD
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: noShard(int, Supplier)
+     * FUNÇÃO: Executa a tarefa com o shard definido: as transações e consultas feitas dentro dela usam o shard.
+     * Uma transação aberta antes da chamada também serve, desde que a primeira instrução SQL aconteça aqui dentro.
+     */
+    public <T> T noShard(int shard, Supplier<T> tarefa) {
+        return habilitado() ? ContextoShard.executar(shard, tarefa) : tarefa.get();
+    }
+
+    /**
+     * MÉTODO: emCadaShard(IntFunction)
+     * FUNÇÃO: Executa a consulta em todos os shards, em paralelo, e devolve os resultados na ordem dos shards.
+     * Cada shard roda em uma thread própria, com transação e conexão próprias.
+     */
+    public <T> List<T> emCadaShard(IntFunction<T> consulta) {
+        if (!habilitado()) {
+            return List.of(consulta.apply(RoteadorShards.SHARD_PRINCIPAL));
+        }
+        List<CompletableFuture<T>> futuros = new ArrayList<>();
+        for (int shard = 0; shard < quantidade(); shard++) {
+            int numero = shard;
+            futuros.add(CompletableFuture.supplyAsync(
+                    () -> ContextoShard.executar(numero, () -> consulta.apply(numero)), consultasEspalhadas));
+        }
+        try {
+            return futuros.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * MÉTODO: agruparPorShard(Collection, Function)
+     * FUNÇÃO: Separa os itens (ex: e-mails de uma exclusão em lote, linhas de uma importação) pelo shard do e-mail.
+     */
+    public <E> Map<Integer, List<E>> agruparPorShard(Collection<E> itens, Function<E, String> email) {
+        Map<Integer, List<E>> grupos = new TreeMap<>();
+        for (E item : itens) {
+            grupos.computeIfAbsent(shardDoEmail(email.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return grupos;
+    }
+
+    // BLOCÃO 4: MOVIMENTAÇÃO ENTRE SHARDS
+    // -------------------------------------------------------------------------
+
+    /**
+     * MÉTODO: realocarSeNecessario(long, String, int)
+     * FUNÇÃO: Na transação da troca de e-mail (no shard atual), move o usuário para o shard do novo e-mail, se for outro.
+     * CONCEITO: A movimentação só vale se a transação confirmar; se ela for desfeita, o usuário fica no shard atual
+     * com o e-mail antigo (ver RebalanceamentoShards.moverNaTransacaoAtual).
+     */
+    public void realocarSeNecessario(long idUsuario, String email, int shardAtual) {
+        if (!habilitado()) {
+            return;
+        }
+        int destino = anel.shardDoEmail(email);
+        if (destino != shardAtual) {
+            rebalanceamento.getObject().moverNaTransacaoAtual(idUsuario, shardAtual, destino);
+        }
+    }
+
+    /**
+     * MÉTODO: rebalancear(int)
+     * FUNÇÃO: Move até 'limite' usuários que não estão no shard dono do seu e-mail (ex: após acrescentar um shard).
+     */
+    public RebalanceamentoShards.Resultado rebalancear(int limite) {
+        if (!habilitado()) {
+            throw new IllegalArgumentException("Sharding desabilitado (banco.shards.habilitado=false).");
+        }
+        return rebalanceamento.getObject().rebalancear(limite);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (consultasEspalhadas != null) {
+            consultasEspalhadas.shutdown();
+        }
+    }
+}
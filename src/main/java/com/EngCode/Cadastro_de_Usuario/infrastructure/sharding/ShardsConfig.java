@@ -0,0 +1,156 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.sharding;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Sequencias;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// BLOCÃO 1: SHARDING DOS DADOS DE USUÁRIO
+// -------------------------------------------------------------------------
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "banco.shards.habilitado", havingValue = "true")
+// Ativo apenas com banco.shards.habilitado=true. Os usuários (com endereços, telefones e eventos da outbox)
+// ficam distribuídos entre vários Postgres pelo hash do e-mail (AnelShards, via RoteamentoShards).
+// O DataSource da aplicação passa a ser um LazyConnectionDataSourceProxy sobre o RoteadorShards: a conexão
+// física só é obtida na primeira instrução SQL da transação, quando o serviço já definiu o shard do usuário.
+public class ShardsConfig {
+
+    // Cada shard gera ids na própria faixa (shard << 48): um usuário movido de shard mantém os ids,
+    // sem colidir com os gerados no destino, e o cache de segundo nível/outbox continuam com chaves únicas.
+    static final int BITS_ID_LOCAL = 48;
+
+    private static final Map<String, String> TABELAS = Map.of(
+            Sequencias.USUARIO, "usuario",
+            Sequencias.ENDERECO, "endereco",
+            Sequencias.TELEFONE, "telefone",
+            Sequencias.EVENTO_OUTBOX, "evento_outbox");
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    // Pool do shard principal (0), com as mesmas propriedades spring.datasource.* e spring.datasource.hikari.* de sempre.
+    public HikariDataSource dataSourceShardPrincipal(DataSourceProperties dataSourceProperties,
+                                                     @Value("${banco.replicas.habilitado:false}") boolean replicasHabilitadas,
+                                                     @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (replicasHabilitadas) {
+            throw new IllegalStateException("banco.shards.habilitado e banco.replicas.habilitado não podem ser usados juntos.");
+        }
+        if (openInView) {
+            // Com o Open Session in View, a conexão obtida na primeira transação é mantida até o fim da requisição:
+            // uma requisição que passa por mais de um shard (ex: exclusão + revogação de tokens) usaria o shard errado.
+            throw new IllegalStateException("banco.shards.habilitado=true exige spring.jpa.open-in-view=false.");
+        }
+        HikariDataSource principal = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        principal.setPoolName("shard-0");
+        return principal;
+    }
+
+    @Bean
+    // Um pool Hikari por URL adicional: a ordem em banco.shards.urls define o número do shard (1, 2, ...).
+    // Novos shards são sempre acrescentados ao final da lista (o número de um shard nunca muda).
+    public RoteadorShards roteadorShards(@Qualifier("dataSourceShardPrincipal") HikariDataSource principal,
+                                         DataSourceProperties dataSourceProperties,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${banco.shards.urls}") List<String> urls,
+                                         @Value("${banco.shards.usuario:}") String usuario,
+                                         @Value("${banco.shards.senha:}") String senha,
+                                         @Value("${banco.shards.pool-maximo:10}") int poolMaximo) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(principal);
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + shards.size());
+            shard.setJdbcUrl(url.trim());
+            // Sem credenciais próprias, os shards usam as mesmas do principal.
+            shard.setUsername(usuario.isBlank() ? dataSourceProperties.determineUsername() : usuario);
+            shard.setPassword(usuario.isBlank() ? dataSourceProperties.determinePassword() : senha);
+            shard.setMaximumPoolSize(poolMaximo);
+            // Métricas hikaricp.* com a tag pool=shard-N (os pools adicionais não são beans).
+            shard.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.add(shard);
+        }
+        if (shards.size() < 2) {
+            throw new IllegalStateException("banco.shards.habilitado=true exige ao menos uma URL em banco.shards.urls.");
+        }
+        return new RoteadorShards(shards);
+    }
+
+    @Bean
+    @Primary
+    // DataSource usado pelo JPA, pelo JdbcTemplate e pelo Flyway (este no shard principal).
+    public DataSource dataSource(RoteadorShards roteadorShards) {
+        return new LazyConnectionDataSourceProxy(roteadorShards);
+    }
+
+    // BLOCÃO 2: SCHEMA E FAIXAS DE IDS EM CADA SHARD
+    // -------------------------------------------------------------------------
+
+    @Bean
+    // O Flyway do Spring Boot migra o shard principal (DataSource da aplicação, sem shard definido). Os demais shards
+    // recebem as mesmas migrações, com a mesma configuração, antes de o JPA validar o schema (ddl-auto=validate).
+    public FlywayMigrationStrategy migracaoShards(RoteadorShards roteadorShards) {
+        return flyway -> {
+            flyway.migrate();
+            for (int shard = 1; shard < roteadorShards.getQuantidade(); shard++) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(roteadorShards.dataSourceDoShard(shard))
+                        .load()
+                        .migrate();
+                log.info("Migrações do schema aplicadas no shard {}", shard);
+            }
+        };
+    }
+
+    @Bean
+    // Roda depois de todos os beans (o schema de todos os shards já foi migrado) e antes de o servidor aceitar requisições.
+    public SmartInitializingSingleton inicializadorShards(RoteadorShards roteadorShards) {
+        return () -> {
+            for (int shard = 0; shard < roteadorShards.getQuantidade(); shard++) {
+                alinharFaixasDeIds(shard, roteadorShards.dataSourceDoShard(shard));
+            }
+        };
+    }
+
+    // Se a sequência estiver abaixo do início da faixa do shard (ou do maior id da tabela), posiciona-a ali.
+    // Nunca recua, então é seguro com vários nós subindo ao mesmo tempo (como no AlinhadorSequencias).
+    private static void alinharFaixasDeIds(int shard, DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long inicioFaixa = (long) shard << BITS_ID_LOCAL;
+        TABELAS.forEach((sequencia, tabela) -> {
+            // Os nomes vêm das constantes acima (não de entrada do usuário), então a concatenação é segura.
+            Long maiorId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + tabela, Long.class);
+            Long ultimoValor = jdbcTemplate.queryForObject("select last_value from " + sequencia, Long.class);
+            long alvo = Math.max(inicioFaixa, maiorId == null ? 0 : maiorId);
+            if (ultimoValor != null && ultimoValor < alvo) {
+                jdbcTemplate.queryForObject("select setval(cast(? as regclass), greatest(?, (select last_value from " + sequencia + ")))",
+                        Long.class, sequencia, alvo);
+                log.info("Sequência {} do shard {} posicionada em {}", sequencia, shard, alvo);
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+-- V1: esquema base, igual ao que o ddl-auto=update do Hibernate criava a partir das Entities.
+-- Escrito com "if not exists": em um banco criado pelo ddl-auto (Flyway com baseline na versão 0),
+-- só o que faltar é criado. A partir daqui o schema muda apenas por migrações, e o Hibernate só o valida.
+
+-- Sequências dos ids (Sequencias): o incremento é o allocationSize das Entities (o Hibernate valida os dois).
+create sequence if not exists usuario_seq start with 1 increment by 50;
+create sequence if not exists endereco_seq start with 1 increment by 50;
+create sequence if not exists telefone_seq start with 1 increment by 50;
+-- Outbox: um id por evento, na ordem do commit (allocationSize = 1).
+create sequence if not exists evento_outbox_seq start with 1 increment by 1;
+
+create table if not exists usuario (
+    id          bigint       not null,
+    nome        varchar(100),
+    email       varchar(100),
+    senha       varchar(255),
+    versao      bigint       default 0 not null,
+    excluido_em timestamp(6) with time zone,
+    primary key (id)
+);
+
+create table if not exists endereco (
+    id          bigint       not null,
+    rua         varchar(255),
+    numero      bigint,
+    complemento varchar(30),
+    cidade      varchar(150),
+    estado      varchar(2),
+    cep         varchar(9),
+    versao      bigint       default 0 not null,
+    usuario_id  bigint,
+    primary key (id)
+);
+
+create table if not exists telefone (
+    id         bigint      not null,
+    numero     varchar(10),
+    ddd        varchar(3),
+    versao     bigint      default 0 not null,
+    usuario_id bigint,
+    primary key (id)
+);
+
+create table if not exists token_revogado (
+    chave       varchar(150)                not null,
+    revogado_em timestamp(6) with time zone not null,
+    expira_em   timestamp(6) with time zone not null,
+    primary key (chave)
+);
+
+create table if not exists evento_outbox (
+    id                   bigint                      not null,
+    usuario_id           bigint                      not null,
+    tipo                 varchar(40)                 not null,
+    payload              jsonb                       not null,
+    criado_em            timestamp(6) with time zone not null,
+    publicado_em         timestamp(6) with time zone,
+    tentativas           integer                     not null,
+    proxima_tentativa_em timestamp(6) with time zone not null,
+    ultimo_erro          varchar(500),
+    primary key (id)
+);
+
+-- Colunas acrescentadas depois da criação das tabelas (bancos antigos do ddl-auto podem não tê-las).
+alter table usuario add column if not exists versao bigint default 0 not null;
+alter table usuario add column if not exists excluido_em timestamp(6) with time zone;
+alter table endereco add column if not exists versao bigint default 0 not null;
+alter table telefone add column if not exists versao bigint default 0 not null;
+
+-- Chaves estrangeiras de endereco/telefone → usuario. Os bancos do ddl-auto já têm uma, com nome gerado pelo Hibernate.
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conrelid = 'endereco'::regclass and contype = 'f') then
+        alter table endereco add constraint fk_endereco_usuario foreign key (usuario_id) references usuario (id);
+    end if;
+    if not exists (select 1 from pg_constraint where conrelid = 'telefone'::regclass and contype = 'f') then
+        alter table telefone add constraint fk_telefone_usuario foreign key (usuario_id) references usuario (id);
+    end if;
+end $$;
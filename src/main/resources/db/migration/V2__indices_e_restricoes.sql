@@ -0,0 +1,44 @@
+-- V2: índices das consultas mais frequentes e restrições que as Entities não declaram.
+
+-- Chaves estrangeiras: o Postgres não indexa a coluna da FK sozinho. Sem estes índices, cada carga das coleções
+-- de um usuário (buscarPorUsuario, lazy load, carga em lote) e cada DELETE dos filhos lê a tabela inteira.
+create index if not exists ix_endereco_usuario on endereco (usuario_id);
+create index if not exists ix_telefone_usuario on telefone (usuario_id);
+
+-- Unicidade do e-mail apenas entre os usuários não excluídos (exclusão lógica, Usuario.excluidoEm): um e-mail
+-- excluído pode ser cadastrado de novo antes do expurgo. As constraints únicas na coluna inteira criadas pelo
+-- ddl-auto (uk_usuario_email e a do ID natural, com nome gerado) são trocadas pelo índice único parcial.
+do $$
+declare
+    restricao text;
+begin
+    for restricao in select conname from pg_constraint where conrelid = 'usuario'::regclass and contype = 'u' loop
+        execute format('alter table usuario drop constraint %I', restricao);
+    end loop;
+end $$;
+create unique index if not exists uk_usuario_email on usuario (email) where excluido_em is null;
+
+-- O e-mail é o login (ID natural) e a senha é sempre gravada como hash: nenhum dos dois pode ficar vazio.
+alter table usuario alter column email set not null;
+alter table usuario alter column senha set not null;
+alter table evento_outbox add constraint ck_evento_outbox_tentativas check (tentativas >= 0);
+
+-- Busca por prefixo (GET /usuario/search): lower(coluna) com collation "C" atende ao LIKE 'prefixo%',
+-- à ordenação e à paginação por chave (coluna, id) das consultas do UsuarioRepository.
+create index if not exists ix_usuario_nome_prefixo on usuario ((lower(nome) collate "C"), id);
+create index if not exists ix_usuario_email_prefixo on usuario ((lower(email) collate "C"), id);
+
+-- Próximo lote do expurgo (ExpurgoUsuarios): índice parcial, só com os usuários excluídos, na ordem da exclusão.
+create index if not exists ix_usuario_excluido on usuario (excluido_em, id) where excluido_em is not null;
+
+-- Outbox de eventos (PublicadorOutbox): índices parciais, só com as linhas pendentes. Continuam pequenos
+-- mesmo com milhões de eventos já publicados, e atendem à leitura do próximo lote (ordem de id) e à checagem
+-- de eventos anteriores do mesmo usuário ainda aguardando nova tentativa.
+create index if not exists ix_evento_outbox_pendente on evento_outbox (id) where publicado_em is null;
+create index if not exists ix_evento_outbox_pendente_usuario on evento_outbox (usuario_id, id) where publicado_em is null;
+-- Limpeza dos eventos publicados há mais tempo que a retenção.
+create index if not exists ix_evento_outbox_publicado on evento_outbox (publicado_em) where publicado_em is not null;
+
+-- Revogação de tokens: sincronização periódica das revogações recentes e limpeza das já expiradas.
+create index if not exists ix_token_revogado_revogado_em on token_revogado (revogado_em);
+create index if not exists ix_token_revogado_expira_em on token_revogado (expira_em);
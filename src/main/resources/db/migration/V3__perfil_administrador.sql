@@ -0,0 +1,6 @@
+-- V3: perfil de administrador gravado na linha do usuário.
+-- Antes o perfil vinha de uma lista de e-mails na configuração (seguranca.admin.emails): quem cadastrasse um desses
+-- e-mails (com outra caixa, ainda não cadastrado, liberado por uma exclusão ou trocado no PATCH) virava administrador.
+-- Nenhuma rota da API altera esta coluna. O primeiro administrador é definido direto no banco:
+--   update usuario set administrador = true where email = 'admin@empresa.com' and excluido_em is null;
+alter table usuario add column if not exists administrador boolean not null default false;
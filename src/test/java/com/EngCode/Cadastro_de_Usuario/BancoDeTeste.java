@@ -0,0 +1,50 @@
+package com.EngCode.Cadastro_de_Usuario;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// BLOCÃO 1: POSTGRES EMBUTIDO PARA OS TESTES
+// -------------------------------------------------------------------------
+// Sobe instâncias reais do PostgreSQL (binários do embedded-postgres, sem Docker nem instalação local),
+// uma vez por JVM de testes. A instância 0 é o banco principal; as demais servem de shards ou réplicas.
+// Todos os contextos do Spring dos testes usam as mesmas instâncias (o Flyway só migra na primeira vez).
+// Obs: o PostgreSQL não roda como root; execute os testes com um usuário comum.
+public final class BancoDeTeste {
+
+    private static final Map<Integer, EmbeddedPostgres> INSTANCIAS = new HashMap<>();
+
+    private BancoDeTeste() {
+    }
+
+    /**
+     * MÉTODO: url(int)
+     * FUNÇÃO: URL JDBC da instância (iniciada na primeira chamada), com o mesmo reWriteBatchedInserts da aplicação.
+     */
+    public static String url(int instancia) {
+        return iniciar(instancia).getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+    }
+
+    private static synchronized EmbeddedPostgres iniciar(int instancia) {
+        return INSTANCIAS.computeIfAbsent(instancia, indice -> {
+            try {
+                EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> fechar(postgres)));
+                return postgres;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao iniciar o PostgreSQL embutido " + indice, e);
+            }
+        });
+    }
+
+    private static void fechar(EmbeddedPostgres postgres) {
+        try {
+            postgres.close();
+        } catch (IOException e) {
+            // JVM encerrando: o diretório temporário do banco é descartado de qualquer forma.
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.EngCode.Cadastro_de_Usuario;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.datasource.MonitorConsultas;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// BLOCÃO 1: CONTAGEM DAS INSTRUÇÕES SQL DE UMA OPERAÇÃO
+// -------------------------------------------------------------------------
+// Substitui o MonitorConsultas (ouvinte do proxy JDBC) por uma versão que, além das métricas, anota as
+// instruções executadas pela thread atual enquanto uma medição está aberta. Contar por thread deixa de fora
+// as tarefas em segundo plano; com o MockMvc, a requisição roda na própria thread do teste.
+// Uso: @Import(ContadorSql.Configuracao.class) e contadorSql.medir(() -> ...).
+public class ContadorSql extends MonitorConsultas {
+
+    private final ThreadLocal<List<String>> executadas = new ThreadLocal<>();
+
+    public ContadorSql(MeterRegistry meterRegistry) {
+        super(meterRegistry, 60_000, 10);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        List<String> medicao = executadas.get();
+        if (medicao != null) {
+            // Um lote JDBC é uma única ida ao banco.
+            medicao.add(consultas.get(0).getQuery());
+        }
+        super.afterQuery(execucao, consultas);
+    }
+
+    /**
+     * MÉTODO: medir(Operacao)
+     * FUNÇÃO: Executa a operação e retorna as instruções SQL que ela enviou ao banco, em ordem.
+     */
+    public List<String> medir(Operacao operacao) throws Exception {
+        List<String> medicao = new ArrayList<>();
+        executadas.set(medicao);
+        try {
+            operacao.executar();
+            return medicao;
+        } finally {
+            executadas.remove();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Operacao {
+        void executar() throws Exception;
+    }
+
+    @TestConfiguration
+    public static class Configuracao {
+
+        @Bean
+        @Primary
+        public ContadorSql contadorSql(MeterRegistry meterRegistry) {
+            return new ContadorSql(meterRegistry);
+        }
+    }
+}
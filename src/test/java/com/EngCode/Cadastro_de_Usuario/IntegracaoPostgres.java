@@ -0,0 +1,26 @@
+package com.EngCode.Cadastro_de_Usuario;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+// BLOCÃO 1: BASE DOS TESTES DE INTEGRAÇÃO
+// -------------------------------------------------------------------------
+// Contexto completo da aplicação sobre o PostgreSQL embutido (BancoDeTeste, instância 0), com o schema do Flyway.
+// As tarefas em segundo plano que gravam fora do banco ou competem com os testes ficam desligadas,
+// e a calibração do hash de senha é trocada por um custo fixo (testes rápidos e repetíveis).
+// Os testes usam e-mails únicos: o banco é compartilhado por todas as classes de teste da JVM.
+@SpringBootTest(properties = {
+        "outbox.publicador.habilitado=false",
+        "expurgo.habilitado=false",
+        "seguranca.hash.calibrar=false"
+})
+public abstract class IntegracaoPostgres {
+
+    @DynamicPropertySource
+    static void banco(DynamicPropertyRegistry propriedades) {
+        propriedades.add("spring.datasource.url", () -> BancoDeTeste.url(0));
+        propriedades.add("spring.datasource.username", () -> "postgres");
+        propriedades.add("spring.datasource.password", () -> "");
+    }
+}
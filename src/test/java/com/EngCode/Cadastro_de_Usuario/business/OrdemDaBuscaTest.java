@@ -0,0 +1,58 @@
+package com.EngCode.Cadastro_de_Usuario.business;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.UsuarioResumo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BLOCÃO 1: INTERCALAÇÃO DAS PÁGINAS DOS SHARDS NA ORDEM DO COLLATE "C"
+// -------------------------------------------------------------------------
+class OrdemDaBuscaTest {
+
+    @Test
+    void ordenaPelosBytesUtf8ComoOCollateC() {
+        // U+FF5A (EF BD 9A em UTF-8) vem antes de U+1F600 (F0 9F 98 80) no collate "C",
+        // mas depois em UTF-16 (o emoji começa pelo surrogate D83D, menor que FF5A).
+        Resumo largo = new Resumo(1L, "ｚ@teste.com");
+        Resumo emoji = new Resumo(2L, "😀@teste.com");
+        Resumo ascii = new Resumo(3L, "z@teste.com");
+
+        List<Long> ordem = Stream.of(emoji, largo, ascii).sorted(UsuarioService.ORDEM_DA_BUSCA).map(Resumo::getId).toList();
+
+        assertThat(ordem).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void desempataPeloId() {
+        List<Long> ordem = Stream.of(new Resumo(9L, "a"), new Resumo(4L, "a"))
+                .sorted(UsuarioService.ORDEM_DA_BUSCA).map(Resumo::getId).toList();
+
+        assertThat(ordem).containsExactly(4L, 9L);
+    }
+
+    private record Resumo(Long id, String chave) implements UsuarioResumo {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getNome() {
+            return chave;
+        }
+
+        @Override
+        public String getEmail() {
+            return chave;
+        }
+
+        @Override
+        public String getChave() {
+            return chave;
+        }
+    }
+}
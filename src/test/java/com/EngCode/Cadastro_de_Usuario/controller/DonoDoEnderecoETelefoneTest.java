@@ -0,0 +1,115 @@
+package com.EngCode.Cadastro_de_Usuario.controller;
+
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import com.EngCode.Cadastro_de_Usuario.business.UsuarioService;
+import com.EngCode.Cadastro_de_Usuario.business.dto.EnderecoDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.TelefoneDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// BLOCÃO 1: PATCH DE ENDEREÇO/TELEFONE SÓ PELO DONO
+// -------------------------------------------------------------------------
+// Dois usuários com Tokens reais: o id de um endereço ou telefone de outro usuário se comporta como inexistente
+// (404, com ou sem If-Match) e a linha não muda.
+@AutoConfigureMockMvc
+class DonoDoEnderecoETelefoneTest extends IntegracaoPostgres {
+
+    private static final String SENHA = "senha-de-teste";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long idEndereco;
+    private Long idTelefone;
+    private String tokenDono;
+    private String tokenOutro;
+
+    @BeforeEach
+    void cadastrarUsuarios() throws Exception {
+        String dono = cadastrar("dono");
+        String outro = cadastrar("outro");
+        UsuarioDTO usuario = usuarioService.buscarUsuarioPorEmail(dono);
+        idEndereco = usuario.getEnderecos().get(0).getId();
+        idTelefone = usuario.getTelefones().get(0).getId();
+        tokenDono = login(dono);
+        tokenOutro = login(outro);
+    }
+
+    @Test
+    void outroUsuarioNaoAlteraOEndereco() throws Exception {
+        mockMvc.perform(put("/usuario/endereco").param("id", idEndereco.toString()).header("Authorization", tokenOutro)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"rua\": \"Rua Invadida\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/usuario/endereco").param("id", idEndereco.toString()).header("Authorization", tokenOutro)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"rua\": \"Rua Invadida\"}"))
+                .andExpect(status().isNotFound());
+
+        assertThat(jdbcTemplate.queryForObject("select rua from endereco where id = ?", String.class, idEndereco))
+                .isEqualTo("Rua do Dono");
+    }
+
+    @Test
+    void outroUsuarioNaoAlteraOTelefone() throws Exception {
+        mockMvc.perform(put("/usuario/telefone").param("id", idTelefone.toString()).header("Authorization", tokenOutro)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"numero\": \"00000000\"}"))
+                .andExpect(status().isNotFound());
+
+        assertThat(jdbcTemplate.queryForObject("select numero from telefone where id = ?", String.class, idTelefone))
+                .isEqualTo("11111111");
+    }
+
+    @Test
+    void donoAlteraOEnderecoEOTelefone() throws Exception {
+        mockMvc.perform(put("/usuario/endereco").param("id", idEndereco.toString()).header("Authorization", tokenDono)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"rua\": \"Rua Nova\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rua").value("Rua Nova"));
+        mockMvc.perform(put("/usuario/telefone").param("id", idTelefone.toString()).header("Authorization", tokenDono)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"numero\": \"22222222\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.numero").value("22222222"));
+    }
+
+    private String cadastrar(String prefixo) {
+        String email = prefixo + "-" + UUID.randomUUID() + "@teste.com";
+        usuarioService.salvaUsuario(UsuarioDTO.builder()
+                .nome(prefixo)
+                .email(email)
+                .senha(SENHA)
+                .enderecos(List.of(EnderecoDTO.builder().rua("Rua do Dono").numero(1L).cidade("São Paulo").estado("SP")
+                        .cep("01001000").build()))
+                .telefones(List.of(TelefoneDTO.builder().numero("11111111").ddd("11").build()))
+                .build());
+        return email;
+    }
+
+    private String login(String email) throws Exception {
+        return mockMvc.perform(post("/usuario/login").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"email": "%s", "senha": "%s"}""".formatted(email, SENHA)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.EngCode.Cadastro_de_Usuario.controller;
+
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import com.EngCode.Cadastro_de_Usuario.business.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// BLOCÃO 1: LOGIN SEMPRE COM OS DADOS ATUAIS DO BANCO
+// -------------------------------------------------------------------------
+// O cache de segundo nível é local a cada nó. As alterações abaixo são feitas por SQL direto, como se viessem
+// de outro nó: o usuário continua em cache com o estado antigo, e o login precisa ignorá-lo.
+@AutoConfigureMockMvc
+class LoginForaDoCacheTest extends IntegracaoPostgres {
+
+    private static final String SENHA = "senha-de-teste";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String email;
+
+    @BeforeEach
+    void cadastrarEColocarEmCache() throws Exception {
+        email = "login-" + UUID.randomUUID() + "@teste.com";
+        mockMvc.perform(post("/usuario").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"nome": "Login", "email": "%s", "senha": "%s"}""".formatted(email, SENHA)))
+                .andExpect(status().isOk());
+        // Leitura pelo ID natural: deixa o usuário no cache de segundo nível.
+        usuarioService.buscarUsuarioPorEmail(email);
+    }
+
+    @Test
+    void senhaTrocadaEmOutroNoInvalidaASenhaAntiga() throws Exception {
+        jdbcTemplate.update("update usuario set senha = ? where email = ?", passwordEncoder.encode("senha-nova"), email);
+
+        login(SENHA).andExpect(status().is4xxClientError());
+        login("senha-nova").andExpect(status().isOk());
+    }
+
+    @Test
+    void usuarioExcluidoEmOutroNoNaoAutentica() throws Exception {
+        jdbcTemplate.update("update usuario set excluido_em = now() where email = ?", email);
+
+        login(SENHA).andExpect(status().is4xxClientError());
+    }
+
+    private ResultActions login(String senha) throws Exception {
+        return mockMvc.perform(post("/usuario/login").contentType(MediaType.APPLICATION_JSON).content("""
+                {"email": "%s", "senha": "%s"}""".formatted(email, senha)));
+    }
+}
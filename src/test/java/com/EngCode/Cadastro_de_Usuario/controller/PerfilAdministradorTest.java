@@ -0,0 +1,72 @@
+package com.EngCode.Cadastro_de_Usuario.controller;
+
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// BLOCÃO 1: PERFIL DE ADMINISTRADOR GRAVADO NA LINHA DO USUÁRIO
+// -------------------------------------------------------------------------
+// Fluxo real (cadastro, login e token JWT): o perfil ADMIN vem só da coluna usuario.administrador,
+// nunca do e-mail nem do corpo das requisições.
+@AutoConfigureMockMvc
+class PerfilAdministradorTest extends IntegracaoPostgres {
+
+    private static final String SENHA = "senha-de-teste";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String email;
+
+    @BeforeEach
+    void cadastrarUsuario() throws Exception {
+        email = "perfil-" + UUID.randomUUID() + "@teste.com";
+        // O campo 'administrador' do corpo não existe no DTO e é ignorado.
+        mockMvc.perform(post("/usuario").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"nome": "Perfil", "email": "%s", "senha": "%s", "administrador": true}""".formatted(email, SENHA)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void cadastroNaoDefineOPerfil() {
+        assertThat(jdbcTemplate.queryForObject("select administrador from usuario where email = ?", Boolean.class, email))
+                .isFalse();
+    }
+
+    @Test
+    void usuarioComumNaoAcessaRotasAdministrativas() throws Exception {
+        mockMvc.perform(get("/usuario/admin/export").header("Authorization", login()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void administradorMarcadoNoBancoAcessaRotasAdministrativas() throws Exception {
+        jdbcTemplate.update("update usuario set administrador = true where email = ?", email);
+        // O usuário continua no cache de segundo nível com o perfil antigo: o login lê direto do banco.
+
+        mockMvc.perform(get("/usuario/admin/export").header("Authorization", login()))
+                .andExpect(status().isOk());
+    }
+
+    private String login() throws Exception {
+        return mockMvc.perform(post("/usuario/login").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"email": "%s", "senha": "%s"}""".formatted(email, SENHA)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
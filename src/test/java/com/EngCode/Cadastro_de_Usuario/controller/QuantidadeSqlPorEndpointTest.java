@@ -0,0 +1,130 @@
+package com.EngCode.Cadastro_de_Usuario.controller;
+
+import com.EngCode.Cadastro_de_Usuario.ContadorSql;
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import com.EngCode.Cadastro_de_Usuario.business.UsuarioService;
+import com.EngCode.Cadastro_de_Usuario.business.dto.EnderecoDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.TelefoneDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// BLOCÃO 1: QUANTIDADE EXATA DE INSTRUÇÕES SQL POR ENDPOINT
+// -------------------------------------------------------------------------
+// Garante que as leituras não voltem a ter N+1: cada endpoint executa um número fixo de instruções,
+// independente da quantidade de endereços e telefones de cada usuário.
+// A autenticação é simulada (with(user(...))), então só entram na conta as instruções do próprio endpoint.
+@AutoConfigureMockMvc
+@Import(ContadorSql.Configuracao.class)
+class QuantidadeSqlPorEndpointTest extends IntegracaoPostgres {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContadorSql contadorSql;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String email;
+
+    @BeforeEach
+    void cadastrarUsuario() {
+        email = "sql-" + UUID.randomUUID() + "@teste.com";
+        usuarioService.salvaUsuario(UsuarioDTO.builder()
+                .nome("Contagem de SQL")
+                .email(email)
+                .senha("senha-de-teste")
+                .enderecos(List.of(endereco("Rua A"), endereco("Rua B"), endereco("Rua C")))
+                .telefones(List.of(telefone("11111111"), telefone("22222222")))
+                .build());
+    }
+
+    // BLOCÃO 2: GET /usuario?email=
+    // -------------------------------------------------------------------------
+
+    @Test
+    void buscaPorEmailSemCacheUsaDuasInstrucoes() throws Exception {
+        esvaziarCacheSegundoNivel();
+
+        List<String> sql = contadorSql.medir(() -> mockMvc.perform(get("/usuario").param("email", email)
+                        .with(user(email)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enderecos.length()").value(3))
+                .andExpect(jsonPath("$.telefones.length()").value(2)));
+
+        // Usuário com os endereços (fetch join) + telefones.
+        assertThat(sql).as("SQL executado: %s", sql).hasSize(2);
+    }
+
+    @Test
+    void buscaPorEmailEmCacheNaoVaiAoBanco() throws Exception {
+        mockMvc.perform(get("/usuario").param("email", email).with(user(email))).andExpect(status().isOk());
+
+        List<String> sql = contadorSql.medir(() -> mockMvc.perform(get("/usuario").param("email", email)
+                        .with(user(email)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enderecos.length()").value(3))
+                .andExpect(jsonPath("$.telefones.length()").value(2)));
+
+        assertThat(sql).as("SQL executado: %s", sql).isEmpty();
+    }
+
+    // BLOCÃO 3: LEITURAS DE VÁRIOS USUÁRIOS (ADMIN)
+    // -------------------------------------------------------------------------
+
+    @Test
+    void buscaPorPrefixoUsaUmaInstrucao() throws Exception {
+        List<String> sql = contadorSql.medir(() -> mockMvc.perform(get("/usuario/search").param("email", email)
+                        .with(user(email).roles("USER", "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(1)));
+
+        // Projeção (id, nome, email) pelo índice do prefixo: nenhuma coleção é carregada.
+        assertThat(sql).as("SQL executado: %s", sql).hasSize(1);
+    }
+
+    @Test
+    void exportacaoUsaTresInstrucoesPorPaginaMaisAConsultaFinal() throws Exception {
+        Long id = usuarioService.buscarUsuarioPorEmail(email).getId();
+
+        List<String> sql = contadorSql.medir(() -> mockMvc.perform(get("/usuario/admin/export")
+                        .param("ultimoId", String.valueOf(id - 1))
+                        .with(user(email).roles("USER", "ADMIN")))
+                .andExpect(status().isOk()));
+
+        // Uma página (usuários, endereços e telefones de todos eles) + a consulta que encontra a página vazia.
+        assertThat(sql).as("SQL executado: %s", sql).hasSize(4);
+    }
+
+    private void esvaziarCacheSegundoNivel() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private static EnderecoDTO endereco(String rua) {
+        return EnderecoDTO.builder().rua(rua).numero(10L).cidade("São Paulo").estado("SP").cep("01001000").build();
+    }
+
+    private static TelefoneDTO telefone(String numero) {
+        return TelefoneDTO.builder().numero(numero).ddd("11").build();
+    }
+}
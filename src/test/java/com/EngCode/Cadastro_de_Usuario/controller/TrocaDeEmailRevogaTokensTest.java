@@ -0,0 +1,70 @@
+package com.EngCode.Cadastro_de_Usuario.controller;
+
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// BLOCÃO 1: TOKENS DO E-MAIL ANTIGO APÓS A TROCA DE E-MAIL
+// -------------------------------------------------------------------------
+// Depois da troca, outra pessoa cadastra o e-mail antigo: os tokens emitidos antes da troca não podem
+// renovar nem acessar a conta nova.
+@AutoConfigureMockMvc
+class TrocaDeEmailRevogaTokensTest extends IntegracaoPostgres {
+
+    private static final String HEADER_REFRESH_TOKEN = "X-Refresh-Token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void tokensDoEmailAntigoNaoValemParaQuemOCadastraDeNovo() throws Exception {
+        String emailAntigo = "antigo-" + UUID.randomUUID() + "@teste.com";
+        cadastrar(emailAntigo, "senha-do-dono");
+        MvcResult login = login(emailAntigo, "senha-do-dono");
+        String accessToken = login.getResponse().getContentAsString();
+        String refreshToken = login.getResponse().getHeader(HEADER_REFRESH_TOKEN);
+
+        mockMvc.perform(put("/usuario").header("Authorization", accessToken).contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email": "novo-%s"}""".formatted(emailAntigo)))
+                .andExpect(status().isOk());
+        // 'iat' tem precisão de segundos: um login no mesmo segundo da revogação também cairia.
+        Thread.sleep(1_100);
+        cadastrar(emailAntigo, "senha-de-outra-pessoa");
+
+        mockMvc.perform(post("/usuario/token/refresh").header(HEADER_REFRESH_TOKEN, refreshToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/usuario").param("email", emailAntigo).header("Authorization", accessToken))
+                .andExpect(status().is4xxClientError());
+        // A conta nova continua acessível com os próprios tokens.
+        mockMvc.perform(get("/usuario").param("email", emailAntigo)
+                        .header("Authorization", login(emailAntigo, "senha-de-outra-pessoa").getResponse().getContentAsString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(emailAntigo));
+    }
+
+    private void cadastrar(String email, String senha) throws Exception {
+        mockMvc.perform(post("/usuario").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"nome": "Troca", "email": "%s", "senha": "%s"}""".formatted(email, senha)))
+                .andExpect(status().isOk());
+    }
+
+    private MvcResult login(String email, String senha) throws Exception {
+        return mockMvc.perform(post("/usuario/login").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"email": "%s", "senha": "%s"}""".formatted(email, senha)))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
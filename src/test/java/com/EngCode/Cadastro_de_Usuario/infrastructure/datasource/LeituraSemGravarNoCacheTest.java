@@ -0,0 +1,66 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.datasource;
+
+import com.EngCode.Cadastro_de_Usuario.BancoDeTeste;
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import com.EngCode.Cadastro_de_Usuario.business.UsuarioService;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.entity.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BLOCÃO 1: LEITURAS SOMENTE LEITURA NÃO PREENCHEM O CACHE DE SEGUNDO NÍVEL
+// -------------------------------------------------------------------------
+// Contexto com as réplicas ativas (a "réplica" é o próprio primário, como no desenvolvimento local).
+// Uma transação somente leitura pode ler de uma réplica atrasada: o que ela carrega não entra no cache,
+// enquanto a mesma leitura em uma transação de escrita (primário) continua preenchendo-o.
+class LeituraSemGravarNoCacheTest extends IntegracaoPostgres {
+
+    @DynamicPropertySource
+    static void replicas(DynamicPropertyRegistry propriedades) {
+        propriedades.add("banco.replicas.habilitado", () -> "true");
+        propriedades.add("banco.replicas.urls", () -> BancoDeTeste.url(0));
+    }
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String email;
+    private Long id;
+
+    @BeforeEach
+    void cadastrarForaDoCache() {
+        email = "replica-" + UUID.randomUUID() + "@teste.com";
+        usuarioService.salvaUsuario(UsuarioDTO.builder().nome("Réplica").email(email).senha("senha-de-teste").build());
+        id = usuarioService.buscarUsuarioPorEmail(email).getId();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void transacaoSomenteLeituraNaoColocaOUsuarioEmCache() {
+        usuarioService.buscarUsuarioPorEmail(email);
+
+        assertThat(entityManagerFactory.getCache().contains(Usuario.class, id)).isFalse();
+    }
+
+    @Test
+    void transacaoDeEscritaContinuaPreenchendoOCache() {
+        transactionTemplate.executeWithoutResult(status -> usuarioService.buscarUsuarioPorEmail(email));
+
+        assertThat(entityManagerFactory.getCache().contains(Usuario.class, id)).isTrue();
+    }
+}
@@ -0,0 +1,147 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.datasource;
+
+import com.EngCode.Cadastro_de_Usuario.BancoDeTeste;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BLOCÃO 1: ROTEAMENTO DAS LEITURAS ENTRE RÉPLICAS E PRIMÁRIO
+// -------------------------------------------------------------------------
+// Instâncias reais do BancoDeTeste: a 0 faz o papel do primário e as 1 e 2, de réplicas. Cada conexão é
+// identificada pela porta do servidor que a atendeu.
+// O atraso de replicação é simulado na instância 1: o schema 'atraso' redefine as funções de réplica do PostgreSQL
+// (pg_last_wal_receive_lsn, pg_last_wal_replay_lsn e pg_last_xact_replay_timestamp), e o pool da "réplica atrasada"
+// coloca esse schema antes do pg_catalog no search_path.
+class RoteadorReplicasTest {
+
+    private static final long ATRASO_MAXIMO_MS = 1000;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void criarFuncoesDeAtraso() throws SQLException {
+        try (HikariDataSource instancia = pool("setup", BancoDeTeste.url(1));
+             Connection conexao = instancia.getConnection();
+             Statement statement = conexao.createStatement()) {
+            statement.execute("""
+                    create schema if not exists atraso;
+                    create or replace function atraso.pg_last_wal_receive_lsn() returns pg_lsn
+                        language sql as $$ select '0/2'::pg_lsn $$;
+                    create or replace function atraso.pg_last_wal_replay_lsn() returns pg_lsn
+                        language sql as $$ select '0/1'::pg_lsn $$;
+                    create or replace function atraso.pg_last_xact_replay_timestamp() returns timestamptz
+                        language sql as $$ select now() - interval '5 seconds' $$;
+                    """);
+        }
+    }
+
+    @AfterEach
+    void fecharPools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void leituraVaiParaOPrimarioAteAPrimeiraVerificacao() throws SQLException {
+        RoteadorReplicas roteador = roteador(registrar("replica-1", BancoDeTeste.url(1)));
+
+        assertThat(portaDaConexao(roteador)).isEqualTo(porta(0));
+    }
+
+    @Test
+    void replicasSaudaveisSeRevezamNasLeituras() throws SQLException {
+        RoteadorReplicas roteador = roteador(registrar("replica-1", BancoDeTeste.url(1)),
+                registrar("replica-2", BancoDeTeste.url(2)));
+
+        roteador.verificarReplicas();
+
+        List<Integer> portas = List.of(portaDaConexao(roteador), portaDaConexao(roteador));
+        assertThat(portas).containsExactlyInAnyOrder(porta(1), porta(2));
+        assertThat(meterRegistry.get("banco.replica.atraso").tag("replica", "replica-1").gauge().value()).isZero();
+    }
+
+    @Test
+    void replicaAtrasadaSaiDoRodizio() throws SQLException {
+        RoteadorReplicas roteador = roteador(registrar("replica-atrasada",
+                BancoDeTeste.url(1) + "&currentSchema=atraso,pg_catalog"));
+
+        roteador.verificarReplicas();
+
+        assertThat(portaDaConexao(roteador)).isEqualTo(porta(0));
+        assertThat(meterRegistry.get("banco.replica.atraso").tag("replica", "replica-atrasada").gauge().value())
+                .isGreaterThan(ATRASO_MAXIMO_MS);
+    }
+
+    @Test
+    void replicaQueCaiDepoisDaVerificacaoVoltaParaOPrimario() throws SQLException {
+        HikariDataSource replica = registrar("replica-1", BancoDeTeste.url(1));
+        RoteadorReplicas roteador = roteador(replica);
+        roteador.verificarReplicas();
+        assertThat(portaDaConexao(roteador)).isEqualTo(porta(1));
+
+        // Pool fechado: getConnection() falha como falharia com a réplica fora do ar.
+        replica.close();
+
+        assertThat(portaDaConexao(roteador)).isEqualTo(porta(0));
+        assertThat(meterRegistry.get("banco.replica.atraso").tag("replica", "replica-1").gauge().value()).isEqualTo(-1);
+    }
+
+    @Test
+    void replicaInacessivelNaVerificacaoFicaForaDoRodizio() throws SQLException {
+        RoteadorReplicas roteador = roteador(registrar("replica-fora-do-ar",
+                "jdbc:postgresql://127.0.0.1:1/postgres?connectTimeout=1"));
+
+        roteador.verificarReplicas();
+
+        assertThat(portaDaConexao(roteador)).isEqualTo(porta(0));
+    }
+
+    private RoteadorReplicas roteador(HikariDataSource... replicas) {
+        return new RoteadorReplicas(registrar("primario", BancoDeTeste.url(0)), List.of(replicas), ATRASO_MAXIMO_MS,
+                meterRegistry);
+    }
+
+    private HikariDataSource registrar(String nome, String url) {
+        HikariDataSource dataSource = pool(nome, url);
+        pools.add(dataSource);
+        return dataSource;
+    }
+
+    private static HikariDataSource pool(String nome, String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(nome);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername("postgres");
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setConnectionTimeout(1000);
+        // Como no ReplicasConfig: o pool é criado mesmo com o banco fora do ar.
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    private static int portaDaConexao(RoteadorReplicas roteador) throws SQLException {
+        try (Connection conexao = roteador.getConnection();
+             Statement statement = conexao.createStatement();
+             ResultSet resultado = statement.executeQuery("select current_setting('port')::int")) {
+            resultado.next();
+            return resultado.getInt(1);
+        }
+    }
+
+    private static int porta(int instancia) {
+        String url = BancoDeTeste.url(instancia);
+        String depoisDoHost = url.substring(url.indexOf("://") + 3);
+        return Integer.parseInt(depoisDoHost.substring(depoisDoHost.indexOf(':') + 1, depoisDoHost.indexOf('/')));
+    }
+}
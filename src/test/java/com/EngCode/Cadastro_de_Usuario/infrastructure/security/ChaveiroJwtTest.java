@@ -0,0 +1,54 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import io.jsonwebtoken.Jwts;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BLOCÃO 1: ESCOLHA DO ALGORITMO PELA CHAVE
+// -------------------------------------------------------------------------
+// O algoritmo JWS vem da curva nomeada da chave, e não só do tamanho do campo.
+class ChaveiroJwtTest {
+
+    @Test
+    void curvasNomeadasDaRfc7518ViramEs256Es384Es512() throws Exception {
+        assertThat(ChaveiroJwt.algoritmoPara(chaveEc("secp256r1"))).isEqualTo(Jwts.SIG.ES256);
+        assertThat(ChaveiroJwt.algoritmoPara(chaveEc("secp384r1"))).isEqualTo(Jwts.SIG.ES384);
+        assertThat(ChaveiroJwt.algoritmoPara(chaveEc("secp521r1"))).isEqualTo(Jwts.SIG.ES512);
+    }
+
+    @Test
+    void outraCurvaDe256BitsERecusada() throws Exception {
+        // secp256k1 tem campo de 256 bits, mas não é P-256 (a JVM não gera mais essa curva: usa o BouncyCastle).
+        KeyPairGenerator gerador = KeyPairGenerator.getInstance("EC", new BouncyCastleProvider());
+        gerador.initialize(new ECGenParameterSpec("secp256k1"));
+
+        assertThat(ChaveiroJwt.algoritmoPara(gerador.generateKeyPair().getPublic())).isNull();
+    }
+
+    @Test
+    void chaveP256DeOutroProvedorTambemEReconhecida() throws Exception {
+        KeyPairGenerator gerador = KeyPairGenerator.getInstance("EC", new BouncyCastleProvider());
+        gerador.initialize(new ECGenParameterSpec("P-256"));
+
+        assertThat(ChaveiroJwt.algoritmoPara(gerador.generateKeyPair().getPublic())).isEqualTo(Jwts.SIG.ES256);
+    }
+
+    @Test
+    void ed25519ViraEdDsa() throws Exception {
+        PublicKey chave = KeyPairGenerator.getInstance("Ed25519").generateKeyPair().getPublic();
+
+        assertThat(ChaveiroJwt.algoritmoPara(chave)).isEqualTo(Jwts.SIG.EdDSA);
+    }
+
+    private static PublicKey chaveEc(String curva) throws Exception {
+        KeyPairGenerator gerador = KeyPairGenerator.getInstance("EC");
+        gerador.initialize(new ECGenParameterSpec(curva));
+        return gerador.generateKeyPair().getPublic();
+    }
+}
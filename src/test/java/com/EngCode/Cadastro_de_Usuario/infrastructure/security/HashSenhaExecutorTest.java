@@ -0,0 +1,84 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.ServicoIndisponivelException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// BLOCÃO 1: TIMEOUT DO HASHING DE SENHAS
+// -------------------------------------------------------------------------
+// Sem banco: uma thread e um timeout curto. O "hash" espera uma trava sem atender a interrupção, como o BCrypt.
+class HashSenhaExecutorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HashSenhaExecutor executor = new HashSenhaExecutor(meterRegistry, 1, 4, 100, 1);
+    private final CountDownLatch liberarHash = new CountDownLatch(1);
+
+    @AfterEach
+    void encerrar() {
+        liberarHash.countDown();
+        executor.encerrar();
+    }
+
+    @Test
+    void hashEmExecucaoContinuaContadoDepoisDoTimeout() throws Exception {
+        assertThatThrownBy(() -> executor.encode(this::hashPreso)).isInstanceOf(ServicoIndisponivelException.class);
+
+        assertThat(abandonadas()).isEqualTo(1);
+        assertThat(meterRegistry.get("seguranca.hash.timeouts").counter().count()).isEqualTo(1);
+
+        liberarHash.countDown();
+        aguardar(() -> abandonadas() == 0);
+    }
+
+    @Test
+    void tarefaQueEstouraOTimeoutNaFilaNaoRoda() throws Exception {
+        AtomicInteger execucoes = new AtomicInteger();
+        assertThatThrownBy(() -> executor.encode(this::hashPreso)).isInstanceOf(ServicoIndisponivelException.class);
+
+        // A única thread está ocupada: esta tarefa estoura o timeout ainda na fila.
+        assertThatThrownBy(() -> executor.encode(() -> {
+            execucoes.incrementAndGet();
+            return "nunca";
+        })).isInstanceOf(ServicoIndisponivelException.class);
+        liberarHash.countDown();
+
+        // A thread volta a atender: uma tarefa nova roda, e a abandonada não rodou antes dela.
+        assertThat(executor.encode(() -> "ok")).isEqualTo("ok");
+        assertThat(execucoes).hasValue(0);
+        assertThat(meterRegistry.get("seguranca.hash.timeouts").counter().count()).isEqualTo(2);
+    }
+
+    private String hashPreso() {
+        boolean liberado = false;
+        while (!liberado) {
+            try {
+                liberado = liberarHash.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // Ignora a interrupção, como os algoritmos de hash.
+            }
+        }
+        return "hash";
+    }
+
+    private double abandonadas() {
+        return meterRegistry.get("seguranca.hash.abandonadas").gauge().value();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+}
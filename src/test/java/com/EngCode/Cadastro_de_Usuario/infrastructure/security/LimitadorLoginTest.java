@@ -0,0 +1,113 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.MuitasTentativasException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// BLOCÃO 1: LIMITADOR DE TENTATIVAS DE LOGIN
+// -------------------------------------------------------------------------
+// Sem Spring: o relógio é avançado pelo próprio teste. Balde do IP com 2 tentativas e recarga de 1 por segundo;
+// bloqueio a partir da 3ª falha seguida, de 30 s, dobrando até 120 s.
+class LimitadorLoginTest {
+
+    private static final String IP = "10.0.0.1";
+    private static final String EMAIL = "limite@teste.com";
+
+    private final AtomicLong agora = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final AtomicInteger ips = new AtomicInteger();
+    private final LimitadorLogin limitador = new LimitadorLogin(2, 60, 1_000, 1_000, 3, 30, 120, 1_000, 30, agora::get);
+
+    @Test
+    void baldeDoIpEsvaziaERecarregaComOTempo() {
+        limitador.verificar("a@teste.com", IP);
+        limitador.verificar("b@teste.com", IP);
+
+        assertThatThrownBy(() -> limitador.verificar("c@teste.com", IP))
+                .isInstanceOf(MuitasTentativasException.class)
+                .extracting("segundosParaNovaTentativa").isEqualTo(1L);
+        // Outro IP tem o próprio balde.
+        assertThatCode(() -> limitador.verificar("c@teste.com", "10.0.0.2")).doesNotThrowAnyException();
+
+        avancarSegundos(1);
+        limitador.verificar("c@teste.com", IP);
+        assertThatThrownBy(() -> limitador.verificar("d@teste.com", IP)).isInstanceOf(MuitasTentativasException.class);
+
+        // A recarga para na capacidade: depois de muito tempo, só 2 tentativas seguidas.
+        avancarSegundos(3_600);
+        limitador.verificar("e@teste.com", IP);
+        limitador.verificar("f@teste.com", IP);
+        assertThatThrownBy(() -> limitador.verificar("g@teste.com", IP)).isInstanceOf(MuitasTentativasException.class);
+    }
+
+    @Test
+    void bloqueioComecaNoLimiteEDobraACadaNovaFalha() {
+        falhar(2);
+        assertThatCode(this::verificar).doesNotThrowAnyException();
+
+        falhar(1);
+        assertThat(segundosDeBloqueio()).isEqualTo(30);
+        avancarSegundos(30);
+        assertThatCode(this::verificar).doesNotThrowAnyException();
+
+        falhar(1);
+        assertThat(segundosDeBloqueio()).isEqualTo(60);
+        avancarSegundos(59);
+        assertThat(segundosDeBloqueio()).isEqualTo(1);
+        avancarSegundos(1);
+        assertThatCode(this::verificar).doesNotThrowAnyException();
+
+        falhar(1);
+        assertThat(segundosDeBloqueio()).isEqualTo(120);
+        // O máximo configurado limita o dobro.
+        avancarSegundos(120);
+        falhar(1);
+        assertThat(segundosDeBloqueio()).isEqualTo(120);
+    }
+
+    @Test
+    void sucessoZeraAsFalhas() {
+        falhar(2);
+        limitador.registrarSucesso(EMAIL);
+
+        // Sem o sucesso, a 3ª e a 4ª falhas já teriam bloqueado a conta.
+        falhar(2);
+        assertThatCode(this::verificar).doesNotThrowAnyException();
+
+        falhar(1);
+        assertThat(segundosDeBloqueio()).isEqualTo(30);
+        // O e-mail é normalizado: o sucesso com outra grafia desbloqueia a mesma conta.
+        limitador.registrarSucesso("  LIMITE@teste.com ");
+        assertThatCode(this::verificar).doesNotThrowAnyException();
+    }
+
+    private void verificar() {
+        // Cada verificação vem de um IP próprio, para o balde do IP não interferir.
+        limitador.verificar(EMAIL, "10.1.0." + ips.incrementAndGet());
+    }
+
+    private void falhar(int vezes) {
+        for (int i = 0; i < vezes; i++) {
+            limitador.registrarFalha(EMAIL);
+        }
+    }
+
+    private long segundosDeBloqueio() {
+        try {
+            verificar();
+        } catch (MuitasTentativasException e) {
+            return e.getSegundosParaNovaTentativa();
+        }
+        return 0;
+    }
+
+    private void avancarSegundos(long segundos) {
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(segundos));
+    }
+}
@@ -0,0 +1,62 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import com.EngCode.Cadastro_de_Usuario.business.UsuarioService;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BLOCÃO 1: REGRAVAÇÃO DO HASH DA SENHA NO LOGIN (COMPARAR E TROCAR)
+// -------------------------------------------------------------------------
+class RegravacaoSenhaTest extends IntegracaoPostgres {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String email;
+
+    @BeforeEach
+    void cadastrarUsuario() {
+        email = "rehash-" + UUID.randomUUID() + "@teste.com";
+        usuarioService.salvaUsuario(UsuarioDTO.builder().nome("Rehash").email(email).senha("senha-de-teste").build());
+    }
+
+    @Test
+    void regravaQuandoOHashAindaEOConferido() {
+        UserDetails conferido = userDetailsService.loadUserByUsername(email);
+
+        userDetailsService.updatePassword(conferido, "{noop}hash-novo");
+
+        assertThat(senhaGravada()).isEqualTo("{noop}hash-novo");
+        assertThat(userDetailsService.loadUserByUsername(email).getPassword()).isEqualTo("{noop}hash-novo");
+    }
+
+    @Test
+    void naoSobrescreveUmaSenhaTrocadaDepoisDoLogin() {
+        UserDetails conferido = userDetailsService.loadUserByUsername(email);
+        // Troca de senha concorrente (outra requisição ou outro nó) entre o login e a regravação.
+        jdbcTemplate.update("update usuario set senha = ? where email = ?", "{noop}senha-trocada", email);
+
+        UserDetails resultado = userDetailsService.updatePassword(conferido, "{noop}regravacao-atrasada");
+
+        assertThat(senhaGravada()).isEqualTo("{noop}senha-trocada");
+        assertThat(resultado.getPassword()).isEqualTo(conferido.getPassword());
+    }
+
+    private String senhaGravada() {
+        return jdbcTemplate.queryForObject("select senha from usuario where email = ?", String.class, email);
+    }
+}
@@ -0,0 +1,77 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.repository.TokenRevogadoRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BLOCÃO 1: 'iat' NO RELÓGIO DO BANCO
+// -------------------------------------------------------------------------
+// Simula um nó com o relógio 2 minutos adiantado em relação ao banco. Os tokens emitidos por ele antes de uma
+// revogação por usuário caem com ela, e os emitidos depois da revogação continuam válidos.
+class RelogioDoBancoTest extends IntegracaoPostgres {
+
+    private static final Duration ADIANTAMENTO = Duration.ofMinutes(2);
+
+    @Autowired
+    private TokenRevogadoRepository tokenRevogadoRepository;
+
+    @Autowired
+    private RevogacaoTokenService revogacaoTokenService;
+
+    @Autowired
+    private ChaveiroJwt chaveiroJwt;
+
+    private RelogioDoBanco relogioAdiantado;
+    private JwtUtil jwtDoNoAdiantado;
+    private String email;
+
+    @BeforeEach
+    void noAdiantado() {
+        relogioAdiantado = new RelogioDoBanco(tokenRevogadoRepository,
+                Clock.offset(Clock.systemUTC(), ADIANTAMENTO));
+        relogioAdiantado.medir();
+        jwtDoNoAdiantado = new JwtUtil(chaveiroJwt, relogioAdiantado, 100, 15, 168);
+        email = "relogio-" + UUID.randomUUID() + "@teste.com";
+    }
+
+    @Test
+    void desvioMedidoCompensaORelogioDoNo() {
+        Instant noBanco = tokenRevogadoRepository.agoraNoBanco();
+
+        assertThat(Duration.between(noBanco, relogioAdiantado.agora()).abs()).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void tokenDeNoAdiantadoEmitidoAntesDaRevogacaoCai() throws Exception {
+        String antes = jwtDoNoAdiantado.gerarRefreshToken(email);
+        revogacaoTokenService.revogarTokensDoUsuario(email);
+        // 'iat' tem precisão de segundos: tokens do mesmo segundo da revogação também caem.
+        Thread.sleep(1_100);
+        String depois = jwtDoNoAdiantado.gerarRefreshToken(email);
+
+        assertThat(revogacaoTokenService.estaRevogado(jwtDoNoAdiantado.extrairClaimsVerificadas(antes))).isTrue();
+        assertThat(revogacaoTokenService.estaRevogado(jwtDoNoAdiantado.extrairClaimsVerificadas(depois))).isFalse();
+    }
+
+    @Test
+    void iatNoRelogioDoNoAdiantadoSobreviveriaARevogacao() {
+        revogacaoTokenService.revogarTokensDoUsuario(email);
+        // O que aconteceria com o 'iat' lido direto do relógio do nó: emitido "depois" da revogação.
+        Claims iatDoNo = Jwts.claims().subject(email).id(UUID.randomUUID().toString())
+                .issuedAt(Date.from(Instant.now().plus(ADIANTAMENTO))).build();
+
+        assertThat(revogacaoTokenService.estaRevogado(iatDoNo)).isFalse();
+    }
+}
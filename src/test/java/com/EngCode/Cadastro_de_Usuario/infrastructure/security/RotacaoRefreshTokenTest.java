@@ -0,0 +1,97 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.security;
+
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import com.EngCode.Cadastro_de_Usuario.business.TokenService;
+import com.EngCode.Cadastro_de_Usuario.business.UsuarioService;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import com.EngCode.Cadastro_de_Usuario.infrastructure.exceptions.UnauthorizedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// BLOCÃO 1: ROTAÇÃO DE USO ÚNICO DO REFRESH TOKEN
+// -------------------------------------------------------------------------
+// Cada refresh token gera um único novo par de tokens. O uso é decidido pela linha gravada em token_revogado,
+// não pelo filtro local: o replay recebe 401 no mesmo nó, em chamadas concorrentes e depois de o token ter sido
+// usado em outro nó (simulado gravando a linha direto no banco, sem passar pelo filtro deste nó).
+class RotacaoRefreshTokenTest extends IntegracaoPostgres {
+
+    private static final int CHAMADAS_CONCORRENTES = 8;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String refreshToken;
+
+    @BeforeEach
+    void cadastrar() {
+        String email = "rotacao-" + UUID.randomUUID() + "@teste.com";
+        usuarioService.salvaUsuario(UsuarioDTO.builder().nome("Rotação").email(email).senha("senha-de-teste").build());
+        refreshToken = jwtUtil.gerarRefreshToken(email);
+    }
+
+    @Test
+    void segundoUsoDoMesmoRefreshTokenRecebe401() {
+        assertThat(tokenService.renovarTokens(refreshToken).getRefreshToken()).isNotEqualTo(refreshToken);
+
+        assertThatThrownBy(() -> tokenService.renovarTokens(refreshToken)).isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void usoConcorrenteRenovaUmaUnicaVez() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CHAMADAS_CONCORRENTES);
+        try {
+            List<Callable<Boolean>> chamadas = new ArrayList<>();
+            for (int i = 0; i < CHAMADAS_CONCORRENTES; i++) {
+                chamadas.add(() -> {
+                    try {
+                        tokenService.renovarTokens(refreshToken);
+                        return true;
+                    } catch (UnauthorizedException e) {
+                        return false;
+                    }
+                });
+            }
+            int renovacoes = 0;
+            for (Future<Boolean> resultado : executor.invokeAll(chamadas)) {
+                renovacoes += resultado.get() ? 1 : 0;
+            }
+
+            assertThat(renovacoes).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void tokenJaUsadoEmOutroNoRecebe401() {
+        String chave = "jti:" + jwtUtil.extrairClaimsVerificadas(refreshToken).getId();
+        jdbcTemplate.update("insert into token_revogado (chave, revogado_em, expira_em) values (?, clock_timestamp(), ?)",
+                chave, Timestamp.from(Instant.now().plusSeconds(3600)));
+
+        assertThatThrownBy(() -> tokenService.renovarTokens(refreshToken)).isInstanceOf(UnauthorizedException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BLOCÃO 1: ANEL DE HASH CONSISTENTE
+// -------------------------------------------------------------------------
+// Sem banco: estabilidade do shard de um e-mail, equilíbrio entre os shards e quantos usuários mudam de shard
+// quando um shard é acrescentado.
+class AnelShardsTest {
+
+    private static final int NOS_VIRTUAIS = 160;
+    private static final int TOTAL_EMAILS = 30_000;
+
+    @Test
+    void mesmoEmailSempreNoMesmoShard() {
+        AnelShards anel = new AnelShards(3, NOS_VIRTUAIS);
+        AnelShards outraInstancia = new AnelShards(3, NOS_VIRTUAIS);
+
+        for (String email : emails(1_000)) {
+            int shard = anel.shardDoEmail(email);
+            assertThat(shard).isBetween(0, 2);
+            assertThat(outraInstancia.shardDoEmail(email)).isEqualTo(shard);
+            assertThat(anel.shardDoEmail("  " + email.toUpperCase() + " ")).isEqualTo(shard);
+        }
+    }
+
+    @Test
+    void emailsSeDistribuemDeFormaEquilibrada() {
+        AnelShards anel = new AnelShards(4, NOS_VIRTUAIS);
+        int[] porShard = new int[4];
+
+        emails(TOTAL_EMAILS).forEach(email -> porShard[anel.shardDoEmail(email)]++);
+
+        for (int quantidade : porShard) {
+            assertThat((double) quantidade / TOTAL_EMAILS).isBetween(0.20, 0.30);
+        }
+    }
+
+    @Test
+    void novoShardRecebeCercaDeUmNEsimoDosUsuarios() {
+        AnelShards anterior = new AnelShards(3, NOS_VIRTUAIS);
+        AnelShards atual = new AnelShards(4, NOS_VIRTUAIS);
+        int movidos = 0;
+
+        for (String email : emails(TOTAL_EMAILS)) {
+            int dono = atual.shardDoEmail(email);
+            if (dono != anterior.shardDoEmail(email)) {
+                movidos++;
+                // Só o shard novo assume trechos do anel: nenhum usuário troca entre os shards antigos.
+                assertThat(dono).isEqualTo(3);
+            }
+        }
+
+        assertThat((double) movidos / TOTAL_EMAILS).isBetween(0.18, 0.32);
+    }
+
+    private static List<String> emails(int quantidade) {
+        List<String> emails = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            emails.add("usuario" + i + "@teste.com");
+        }
+        return emails;
+    }
+}
@@ -0,0 +1,231 @@
+package com.EngCode.Cadastro_de_Usuario.infrastructure.sharding;
+
+import com.EngCode.Cadastro_de_Usuario.BancoDeTeste;
+import com.EngCode.Cadastro_de_Usuario.IntegracaoPostgres;
+import com.EngCode.Cadastro_de_Usuario.business.UsuarioService;
+import com.EngCode.Cadastro_de_Usuario.business.dto.EnderecoDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.TelefoneDTO;
+import com.EngCode.Cadastro_de_Usuario.business.dto.UsuarioDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// BLOCÃO 1: SHARDING SOBRE TRÊS POSTGRES EMBUTIDOS
+// -------------------------------------------------------------------------
+// Shards 0, 1 e 2 nas instâncias 0, 1 e 2 do BancoDeTeste. Cobre o roteamento do cadastro, a movimentação de um
+// usuário (RebalanceamentoShards.mover) e a troca de e-mail para outro shard, inclusive quando ela falha:
+// a troca e a movimentação são confirmadas juntas ou desfeitas juntas.
+// As falhas são simuladas com triggers criados e removidos pelo próprio teste.
+@AutoConfigureMockMvc
+class MovimentacaoEntreShardsTest extends IntegracaoPostgres {
+
+    private static final String SENHA = "senha-de-teste";
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry propriedades) {
+        propriedades.add("banco.shards.habilitado", () -> "true");
+        propriedades.add("banco.shards.urls", () -> BancoDeTeste.url(1) + "," + BancoDeTeste.url(2));
+        propriedades.add("spring.jpa.open-in-view", () -> "false");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private RoteamentoShards roteamentoShards;
+
+    @Autowired
+    private RebalanceamentoShards rebalanceamentoShards;
+
+    @Autowired
+    private RoteadorShards roteadorShards;
+
+    @Test
+    void cadastroVaiParaOShardDoEmail() {
+        for (int shard = 0; shard < 3; shard++) {
+            String email = cadastrar(emailNoShard(shard, "cadastro"), "Cadastro");
+
+            for (int outro = 0; outro < 3; outro++) {
+                assertThat(usuariosComEmail(outro, email)).isEqualTo(outro == shard ? 1 : 0);
+            }
+        }
+    }
+
+    @Test
+    void moverLevaEnderecosTelefonesEEventosPendentes() {
+        String email = cadastrar(emailNoShard(0, "mover"), "Mover");
+        long id = idNoShard(0, email);
+
+        assertThat(rebalanceamentoShards.mover(id, 0, 2)).isTrue();
+
+        assertThat(contar(0, "usuario", "id", id)).isZero();
+        assertThat(contar(0, "endereco", "usuario_id", id)).isZero();
+        assertThat(contar(0, "telefone", "usuario_id", id)).isZero();
+        assertThat(idNoShard(2, email)).isEqualTo(id);
+        assertThat(contar(2, "endereco", "usuario_id", id)).isEqualTo(1);
+        assertThat(contar(2, "telefone", "usuario_id", id)).isEqualTo(1);
+        // Evento USUARIO_CRIADO (a publicação da outbox está desligada nos testes).
+        assertThat(contar(2, "evento_outbox", "usuario_id", id)).isEqualTo(1);
+        // Já movido (ex: por outro nó): nada a fazer.
+        assertThat(rebalanceamentoShards.mover(id, 0, 2)).isFalse();
+    }
+
+    @Test
+    void trocaDeEmailMoveOUsuarioParaOShardDoNovoEmail() throws Exception {
+        String email = cadastrar(emailNoShard(0, "troca"), "Troca");
+        long id = idNoShard(0, email);
+        String novoEmail = emailNoShard(1, "trocado");
+
+        trocarEmail(login(email), novoEmail)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(novoEmail));
+
+        assertThat(contar(0, "usuario", "id", id)).isZero();
+        assertThat(idNoShard(1, novoEmail)).isEqualTo(id);
+        assertThat(contar(1, "endereco", "usuario_id", id)).isEqualTo(1);
+        // USUARIO_CRIADO e USUARIO_ATUALIZADO, este gravado na mesma transação da troca.
+        assertThat(contar(1, "evento_outbox", "usuario_id", id)).isEqualTo(2);
+        login(novoEmail);
+    }
+
+    @Test
+    void emailJaCadastradoNoShardDeDestinoResponde409() throws Exception {
+        String email = cadastrar(emailNoShard(0, "conflito"), "Conflito");
+        long id = idNoShard(0, email);
+        String emailOcupado = cadastrar(emailNoShard(1, "ocupado"), "Ocupado");
+
+        trocarEmail(login(email), emailOcupado).andExpect(status().isConflict());
+
+        assertThat(idNoShard(0, email)).isEqualTo(id);
+        assertThat(contar(1, "usuario", "id", id)).isZero();
+    }
+
+    @Test
+    void falhaNaCopiaDesfazATrocaDeEmail() throws Exception {
+        String email = cadastrar(emailNoShard(0, "falha-copia"), "Falha na cópia", "99999999");
+        long id = idNoShard(0, email);
+        String novoEmail = emailNoShard(1, "falha-copia-novo");
+        JdbcTemplate destino = jdbc(1);
+        destino.execute("""
+                create or replace function falhar_copia_de_teste() returns trigger language plpgsql as $$
+                begin raise exception 'falha simulada na cópia'; end $$;
+                create trigger falha_copia_de_teste before insert on telefone for each row
+                    when (new.numero = '99999999') execute function falhar_copia_de_teste();
+                """);
+        try {
+            trocarEmail(login(email), novoEmail).andExpect(status().isServiceUnavailable());
+        } finally {
+            destino.execute("drop trigger if exists falha_copia_de_teste on telefone");
+        }
+
+        assertThat(idNoShard(0, email)).isEqualTo(id);
+        assertThat(contar(0, "telefone", "usuario_id", id)).isEqualTo(1);
+        assertThat(contar(1, "usuario", "id", id)).isZero();
+        assertThat(contar(1, "endereco", "usuario_id", id)).isZero();
+    }
+
+    @Test
+    void falhaNoCommitDaOrigemRemoveACopiaDoDestino() throws Exception {
+        String email = cadastrar(emailNoShard(0, "falha-commit"), "Falha no commit");
+        long id = idNoShard(0, email);
+        String novoEmail = emailNoShard(1, "falha-commit-novo");
+        String token = login(email);
+        // Trigger adiado: dispara no commit da transação da origem, depois de o destino já ter confirmado a cópia.
+        JdbcTemplate origem = jdbc(0);
+        origem.execute("""
+                create or replace function falhar_commit_de_teste() returns trigger language plpgsql as $$
+                begin raise exception 'falha simulada no commit'; end $$;
+                create constraint trigger falha_commit_de_teste after delete on usuario
+                    deferrable initially deferred for each row
+                    when (old.nome = 'Falha no commit') execute function falhar_commit_de_teste();
+                """);
+        try {
+            assertThatThrownBy(() -> usuarioService.atualizaDaddosUsuario(token,
+                    UsuarioDTO.builder().email(novoEmail).build(), null))
+                    .hasStackTraceContaining("falha simulada no commit");
+        } finally {
+            origem.execute("drop trigger if exists falha_commit_de_teste on usuario");
+        }
+
+        assertThat(idNoShard(0, email)).isEqualTo(id);
+        assertThat(contar(1, "usuario", "id", id)).isZero();
+        assertThat(contar(1, "endereco", "usuario_id", id)).isZero();
+        assertThat(contar(1, "evento_outbox", "usuario_id", id)).isZero();
+    }
+
+    // E-mail único cujo dono no anel é o shard informado.
+    private String emailNoShard(int shard, String prefixo) {
+        while (true) {
+            String email = prefixo + "-" + UUID.randomUUID() + "@teste.com";
+            if (roteamentoShards.shardDono(email) == shard) {
+                return email;
+            }
+        }
+    }
+
+    private String cadastrar(String email, String nome) {
+        return cadastrar(email, nome, "11111111");
+    }
+
+    private String cadastrar(String email, String nome, String telefone) {
+        usuarioService.salvaUsuario(UsuarioDTO.builder()
+                .nome(nome)
+                .email(email)
+                .senha(SENHA)
+                .enderecos(List.of(EnderecoDTO.builder().rua("Rua dos Shards").numero(1L).cidade("São Paulo").estado("SP")
+                        .cep("01001000").build()))
+                .telefones(List.of(TelefoneDTO.builder().numero(telefone).ddd("11").build()))
+                .build());
+        return email;
+    }
+
+    private String login(String email) throws Exception {
+        return mockMvc.perform(post("/usuario/login").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"email": "%s", "senha": "%s"}""".formatted(email, SENHA)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private ResultActions trocarEmail(String token, String novoEmail) throws Exception {
+        return mockMvc.perform(put("/usuario").header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON).content("""
+                        {"email": "%s"}""".formatted(novoEmail)));
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(roteadorShards.dataSourceDoShard(shard));
+    }
+
+    private long idNoShard(int shard, String email) {
+        return jdbc(shard).queryForObject("select id from usuario where email = ?", Long.class, email);
+    }
+
+    private int usuariosComEmail(int shard, String email) {
+        return jdbc(shard).queryForObject("select count(*) from usuario where email = ?", Integer.class, email);
+    }
+
+    // As tabelas e colunas vêm dos próprios testes (constantes).
+    private int contar(int shard, String tabela, String coluna, long valor) {
+        return jdbc(shard).queryForObject("select count(*) from " + tabela + " where " + coluna + " = ?",
+                Integer.class, valor);
+    }
+}